@@ -0,0 +1,6 @@
+package com.byvs.backend.service.announcement;
+
+public enum AnnouncementChannel {
+    EMAIL,
+    SMS
+}
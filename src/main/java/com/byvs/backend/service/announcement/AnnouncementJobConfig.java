@@ -0,0 +1,186 @@
+package com.byvs.backend.service.announcement;
+
+import com.byvs.backend.service.email.CompiledEmailTemplates;
+import com.byvs.backend.service.sms.BullSmsService;
+import com.byvs.backend.service.util.TokenBucket;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.database.JdbcCursorItemReader;
+import org.springframework.batch.item.database.builder.JdbcCursorItemReaderBuilder;
+import org.springframework.batch.support.transaction.ResourcelessTransactionManager;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.batch.BatchTaskExecutor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+public class AnnouncementJobConfig {
+
+    public static final String EMAIL_JOB = "emailAnnouncementJob";
+    public static final String SMS_JOB = "smsAnnouncementJob";
+
+    // Writers only talk to SMTP / the SMS gateway, so chunks need no database transaction; step
+    // metadata is still committed by the JobRepository in its own short transactions
+    private final PlatformTransactionManager chunkTransactionManager = new ResourcelessTransactionManager();
+
+    // Shared across job executions so concurrent announcements stay within the provider quota together
+    private final TokenBucket emailQuota;
+    private final TokenBucket smsQuota;
+
+    @Value("${announcement.email.chunk-size:50}")
+    private int emailChunkSize;
+
+    @Value("${announcement.sms.chunk-size:100}")
+    private int smsChunkSize;
+
+    public AnnouncementJobConfig(@Value("${announcement.email.rate-per-second:10}") double emailRate,
+                                 @Value("${announcement.email.burst:50}") long emailBurst,
+                                 @Value("${announcement.sms.rate-per-second:50}") double smsRate,
+                                 @Value("${announcement.sms.burst:200}") long smsBurst) {
+        this.emailQuota = new TokenBucket(emailBurst, emailRate);
+        this.smsQuota = new TokenBucket(smsBurst, smsRate);
+    }
+
+    @Bean
+    @BatchTaskExecutor
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public TaskExecutor batchTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(20);
+        executor.setThreadNamePrefix("BatchThread-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Same two-job limit in virtual-thread mode; the gateways are throttled by the token buckets, not threads
+    @Bean(name = "batchTaskExecutor")
+    @BatchTaskExecutor
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public TaskExecutor virtualBatchTaskExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("BatchThread-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(2);
+        return executor;
+    }
+
+    // Streams recipients over a server-side cursor (autocommit off, so PostgreSQL honours the fetch
+    // size). Ordered by user id and capped at the launch-time max id so a restart resumes at the same row
+    @Bean
+    @StepScope
+    public JdbcCursorItemReader<AnnouncementRecipient> announcementRecipientReader(
+            DataSource dataSource,
+            @Value("${announcement.reader.fetch-size:500}") int fetchSize,
+            @Value("#{jobParameters['channel']}") String channel,
+            @Value("#{jobParameters['district']}") String district,
+            @Value("#{jobParameters['state']}") String state,
+            @Value("#{jobParameters['maxUserId']}") Long maxUserId) {
+        StringBuilder sql = new StringBuilder("""
+                SELECT u.id, u.full_name, u.phone, p.email
+                FROM user_profile p
+                JOIN app_user u ON u.id = p.user_id
+                WHERE u.id <= ?""");
+        List<Object> args = new ArrayList<>();
+        args.add(maxUserId);
+        if (StringUtils.hasText(district)) {
+            sql.append(" AND p.district = ?");
+            args.add(district);
+        }
+        if (StringUtils.hasText(state)) {
+            sql.append(" AND p.state = ?");
+            args.add(state);
+        }
+        if (AnnouncementChannel.EMAIL.name().equals(channel)) {
+            sql.append(" AND p.email IS NOT NULL AND p.email <> ''");
+        }
+        sql.append(" ORDER BY u.id");
+
+        return new JdbcCursorItemReaderBuilder<AnnouncementRecipient>()
+                .name("announcementRecipientReader")
+                .dataSource(dataSource)
+                .sql(sql.toString())
+                .preparedStatementSetter(new ArgumentPreparedStatementSetter(args.toArray()))
+                .rowMapper((rs, rowNum) -> new AnnouncementRecipient(
+                        rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4)))
+                .fetchSize(fetchSize)
+                .connectionAutoCommit(false)
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public EmailAnnouncementWriter emailAnnouncementWriter(
+            JavaMailSender mailSender,
+            CompiledEmailTemplates templates,
+            MeterRegistry meterRegistry,
+            @Value("${spring.mail.username}") String fromEmail,
+            @Value("#{jobParameters['subject']}") String subject,
+            @Value("#{jobParameters['message']}") String message) {
+        return new EmailAnnouncementWriter(mailSender, templates, emailQuota, meterRegistry, fromEmail, subject, message);
+    }
+
+    @Bean
+    @StepScope
+    public SmsAnnouncementWriter smsAnnouncementWriter(
+            BullSmsService bullSmsService,
+            MeterRegistry meterRegistry,
+            @Value("#{jobParameters['message']}") String message) {
+        return new SmsAnnouncementWriter(bullSmsService, smsQuota, meterRegistry, message);
+    }
+
+    @Bean
+    public Step emailAnnouncementStep(JobRepository jobRepository,
+                                      @Qualifier("announcementRecipientReader") JdbcCursorItemReader<AnnouncementRecipient> reader,
+                                      EmailAnnouncementWriter writer) {
+        return new StepBuilder("emailAnnouncementStep", jobRepository)
+                .<AnnouncementRecipient, AnnouncementRecipient>chunk(emailChunkSize, chunkTransactionManager)
+                .reader(reader)
+                .writer(writer)
+                .build();
+    }
+
+    @Bean
+    public Step smsAnnouncementStep(JobRepository jobRepository,
+                                    @Qualifier("announcementRecipientReader") JdbcCursorItemReader<AnnouncementRecipient> reader,
+                                    SmsAnnouncementWriter writer) {
+        return new StepBuilder("smsAnnouncementStep", jobRepository)
+                .<AnnouncementRecipient, AnnouncementRecipient>chunk(smsChunkSize, chunkTransactionManager)
+                .reader(reader)
+                .writer(writer)
+                .build();
+    }
+
+    @Bean(name = EMAIL_JOB)
+    public Job emailAnnouncementJob(JobRepository jobRepository, @Qualifier("emailAnnouncementStep") Step step) {
+        return new JobBuilder(EMAIL_JOB, jobRepository)
+                .start(step)
+                .build();
+    }
+
+    @Bean(name = SMS_JOB)
+    public Job smsAnnouncementJob(JobRepository jobRepository, @Qualifier("smsAnnouncementStep") Step step) {
+        return new JobBuilder(SMS_JOB, jobRepository)
+                .start(step)
+                .build();
+    }
+}
@@ -0,0 +1,4 @@
+package com.byvs.backend.service.announcement;
+
+public record AnnouncementRecipient(Long userId, String fullName, String phone, String email) {
+}
@@ -0,0 +1,21 @@
+package com.byvs.backend.service.announcement;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public record AnnouncementRequest(
+        @NotNull(message = "Channel is required")
+        AnnouncementChannel channel,
+
+        String district,
+
+        String state,
+
+        @Size(max = 200, message = "Subject must be at most 200 characters")
+        String subject,
+
+        @NotBlank(message = "Message is required")
+        @Size(max = 2000, message = "Message must be at most 2000 characters")
+        String message
+) {}
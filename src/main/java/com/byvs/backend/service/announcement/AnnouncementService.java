@@ -0,0 +1,134 @@
+package com.byvs.backend.service.announcement;
+
+import com.byvs.backend.service.sms.BullSmsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionException;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+// Launches announcement jobs on the batch task executor; progress lives in the Spring Batch tables,
+// and a failed or stopped run is restarted with the same parameters to resume after the last chunk
+@Service
+@Slf4j
+public class AnnouncementService {
+
+    private final JobLauncher jobLauncher;
+    private final JobExplorer jobExplorer;
+    private final JdbcTemplate jdbcTemplate;
+    private final Job emailAnnouncementJob;
+    private final Job smsAnnouncementJob;
+    private final BullSmsService bullSmsService;
+
+    public AnnouncementService(JobLauncher jobLauncher,
+                               JobExplorer jobExplorer,
+                               JdbcTemplate jdbcTemplate,
+                               @Qualifier(AnnouncementJobConfig.EMAIL_JOB) Job emailAnnouncementJob,
+                               @Qualifier(AnnouncementJobConfig.SMS_JOB) Job smsAnnouncementJob,
+                               BullSmsService bullSmsService) {
+        this.jobLauncher = jobLauncher;
+        this.jobExplorer = jobExplorer;
+        this.jdbcTemplate = jdbcTemplate;
+        this.emailAnnouncementJob = emailAnnouncementJob;
+        this.smsAnnouncementJob = smsAnnouncementJob;
+        this.bullSmsService = bullSmsService;
+    }
+
+    public JobExecution launch(AnnouncementRequest request, String requestedBy) {
+        if (!StringUtils.hasText(request.district()) && !StringUtils.hasText(request.state())) {
+            throw new IllegalArgumentException("District or state is required");
+        }
+        if (request.channel() == AnnouncementChannel.EMAIL && !StringUtils.hasText(request.subject())) {
+            throw new IllegalArgumentException("Subject is required for email announcements");
+        }
+
+        Long maxUserId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM app_user", Long.class);
+        JobParametersBuilder parameters = new JobParametersBuilder()
+                .addString("channel", request.channel().name())
+                .addLong("maxUserId", maxUserId)
+                .addLong("requestedAt", System.currentTimeMillis())
+                .addString("message", request.message(), false)
+                .addString("requestedBy", requestedBy, false);
+        if (StringUtils.hasText(request.district())) {
+            parameters.addString("district", request.district());
+        }
+        if (StringUtils.hasText(request.state())) {
+            parameters.addString("state", request.state());
+        }
+        if (StringUtils.hasText(request.subject())) {
+            parameters.addString("subject", request.subject(), false);
+        }
+
+        Job job = request.channel() == AnnouncementChannel.EMAIL ? emailAnnouncementJob : smsAnnouncementJob;
+        JobExecution execution = run(job, parameters.toJobParameters());
+        log.info("Launched {} {} for district={} state={} by {}",
+                job.getName(), execution.getId(), request.district(), request.state(), requestedBy);
+        return execution;
+    }
+
+    public Optional<JobExecution> find(Long executionId) {
+        return Optional.ofNullable(jobExplorer.getJobExecution(executionId));
+    }
+
+    public JobExecution restart(Long executionId) {
+        JobExecution previous = find(executionId)
+                .orElseThrow(() -> new IllegalArgumentException("Announcement not found"));
+        BatchStatus status = previous.getStatus();
+        if (status != BatchStatus.FAILED && status != BatchStatus.STOPPED) {
+            throw new IllegalStateException("Only failed or stopped announcements can be restarted, status is " + status);
+        }
+        String jobName = previous.getJobInstance().getJobName();
+        Job job = AnnouncementJobConfig.EMAIL_JOB.equals(jobName) ? emailAnnouncementJob : smsAnnouncementJob;
+        JobExecution execution = run(job, previous.getJobParameters());
+        log.info("Restarted {} {} as {}", jobName, executionId, execution.getId());
+        return execution;
+    }
+
+    public Map<String, Object> describe(JobExecution execution) {
+        long read = 0;
+        long written = 0;
+        long skipped = 0;
+        for (StepExecution step : execution.getStepExecutions()) {
+            read += step.getReadCount();
+            written += step.getWriteCount();
+            skipped += step.getSkipCount();
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("executionId", execution.getId());
+        body.put("channel", execution.getJobParameters().getString("channel"));
+        body.put("district", execution.getJobParameters().getString("district"));
+        body.put("state", execution.getJobParameters().getString("state"));
+        body.put("status", execution.getStatus().name());
+        body.put("exitCode", execution.getExitStatus().getExitCode());
+        body.put("startTime", execution.getStartTime());
+        body.put("endTime", execution.getEndTime());
+        body.put("read", read);
+        body.put("sent", written);
+        body.put("skipped", skipped);
+        return body;
+    }
+
+    private JobExecution run(Job job, JobParameters parameters) {
+        if (job == smsAnnouncementJob && !bullSmsService.isAnnouncementEnabled()) {
+            throw new IllegalStateException("SMS announcements are disabled, bulksms.announcement.temp.id is not set");
+        }
+        try {
+            return jobLauncher.run(job, parameters);
+        } catch (JobExecutionException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.byvs.backend.service.announcement;
+
+import com.byvs.backend.service.email.CompiledEmailTemplates;
+import com.byvs.backend.service.util.TokenBucket;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Sends one chunk as one SMTP batch. Rejected addresses are logged and skipped; a connection
+// failure fails the step so the job can be restarted from the last committed chunk
+@Slf4j
+public class EmailAnnouncementWriter implements ItemWriter<AnnouncementRecipient> {
+
+    private final JavaMailSender mailSender;
+    private final CompiledEmailTemplates templates;
+    private final TokenBucket tokenBucket;
+    private final MeterRegistry meterRegistry;
+    private final String fromEmail;
+    private final String subject;
+    private final String message;
+
+    public EmailAnnouncementWriter(JavaMailSender mailSender, CompiledEmailTemplates templates, TokenBucket tokenBucket,
+                                   MeterRegistry meterRegistry, String fromEmail, String subject, String message) {
+        this.mailSender = mailSender;
+        this.templates = templates;
+        this.tokenBucket = tokenBucket;
+        this.meterRegistry = meterRegistry;
+        this.fromEmail = fromEmail;
+        this.subject = subject;
+        this.message = message;
+    }
+
+    @Override
+    public void write(Chunk<? extends AnnouncementRecipient> chunk) throws Exception {
+        List<MimeMessage> messages = new ArrayList<>(chunk.size());
+        Map<String, Object> variables = new LinkedHashMap<>();
+        variables.put("subject", subject);
+        variables.put("message", message);
+        for (AnnouncementRecipient recipient : chunk) {
+            variables.put("name", recipient.fullName() != null ? recipient.fullName() : "Member");
+            MimeMessage mimeMessage = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, false, "UTF-8");
+            helper.setFrom(fromEmail);
+            helper.setTo(recipient.email());
+            helper.setSubject(subject);
+            helper.setText(templates.render("announcement-email", variables), true);
+            messages.add(mimeMessage);
+        }
+
+        tokenBucket.acquire(messages.size());
+        int failed = 0;
+        try {
+            mailSender.send(messages.toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                throw e;
+            }
+            failed = e.getFailedMessages().size();
+            log.warn("Announcement email rejected for {} of {} recipients", failed, messages.size());
+        }
+        meterRegistry.counter("byvs.announcement.sent", "channel", "EMAIL", "outcome", "success")
+                .increment(messages.size() - failed);
+        meterRegistry.counter("byvs.announcement.sent", "channel", "EMAIL", "outcome", "failure")
+                .increment(failed);
+    }
+}
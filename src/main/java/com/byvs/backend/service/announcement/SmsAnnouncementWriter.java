@@ -0,0 +1,37 @@
+package com.byvs.backend.service.announcement;
+
+import com.byvs.backend.service.sms.BullSmsService;
+import com.byvs.backend.service.util.TokenBucket;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+
+import java.util.List;
+
+// One gateway request per chunk; the chunk size is the gateway's per-request number limit
+public class SmsAnnouncementWriter implements ItemWriter<AnnouncementRecipient> {
+
+    private final BullSmsService bullSmsService;
+    private final TokenBucket tokenBucket;
+    private final MeterRegistry meterRegistry;
+    private final String message;
+
+    public SmsAnnouncementWriter(BullSmsService bullSmsService, TokenBucket tokenBucket,
+                                 MeterRegistry meterRegistry, String message) {
+        this.bullSmsService = bullSmsService;
+        this.tokenBucket = tokenBucket;
+        this.meterRegistry = meterRegistry;
+        this.message = message;
+    }
+
+    @Override
+    public void write(Chunk<? extends AnnouncementRecipient> chunk) throws Exception {
+        List<String> numbers = chunk.getItems().stream()
+                .map(AnnouncementRecipient::phone)
+                .toList();
+        tokenBucket.acquire(numbers.size());
+        bullSmsService.sendBulkSms(numbers, message);
+        meterRegistry.counter("byvs.announcement.sent", "channel", "SMS", "outcome", "success")
+                .increment(numbers.size());
+    }
+}
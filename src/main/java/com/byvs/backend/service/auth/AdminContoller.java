@@ -1,6 +1,11 @@
 package com.byvs.backend.service.auth;
 
+import com.byvs.backend.service.announcement.AnnouncementRequest;
+import com.byvs.backend.service.announcement.AnnouncementService;
+import com.byvs.backend.service.query.StatementBudget;
 import com.byvs.backend.service.service.EmailService;
+import com.byvs.backend.service.task.TaskFanOutRequest;
+import com.byvs.backend.service.task.TaskFanOutService;
 import com.byvs.backend.service.user.*;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Future;
@@ -9,17 +14,27 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -32,6 +47,18 @@ public class AdminContoller {
     private final EmailService emailService;
     private final UserProfileRepository userProfileRepository;
     private final TaskRepository taskRepository;
+    private final TaskExportService taskExportService;
+    private final TaskFanOutService taskFanOutService;
+    private final AnnouncementService announcementService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OfficeBearerApprovalService officeBearerApprovalService;
+
+    public record BulkApprovalRequest(
+            List<Long> applicationIds,
+            String district,
+            String state,
+            Integer limit
+    ) {}
 
     public record TaskRequest(
             @NotBlank(message = "Title is required")
@@ -53,34 +80,40 @@ public class AdminContoller {
     ) {}
 
     @GetMapping("/office-bearer-applications")
-    public ResponseEntity<Page<OfficeBearerApplication>> getApplications(
+    @StatementBudget(2)
+    public ResponseEntity<?> getApplications(
             @RequestParam(defaultValue = "false") Boolean approved,
+            @RequestParam(required = false) String district,
+            @RequestParam(required = false) String state,
+            @RequestParam(required = false) String position,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime appliedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime appliedTo,
+            @RequestParam(defaultValue = "appliedAt") String sort,
+            @RequestParam(defaultValue = "desc") String direction,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size
     ) {
-        Pageable pageable = PageRequest.of(page, size);
-        Page<OfficeBearerApplication> applications;
-
-        if (approved) {
-            applications = officeBearerAppRepository.findByApprovedTrue(pageable);
-        } else {
-            applications = officeBearerAppRepository.findByApprovedFalse(pageable);
+        Pageable pageable = PageRequest.of(page, Math.min(size, 100),
+                Sort.by(Sort.Direction.fromOptionalString(direction).orElse(Sort.Direction.DESC), sort));
+        OfficeBearerApplicationFilter filter = new OfficeBearerApplicationFilter(
+                approved, district, state, position, appliedFrom, appliedTo);
+        try {
+            Page<OfficeBearerApplicationSummary> applications = officeBearerAppRepository.search(filter, pageable);
+            return ResponseEntity.ok(applications);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
-
-        return ResponseEntity.ok(applications);
     }
 
     @GetMapping("/all-task")
-    public ResponseEntity<Page<Task>> getAllTask(
+    @StatementBudget(2)
+    @Transactional(readOnly = true)
+    public ResponseEntity<Page<TaskSummary>> getAllTask(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size
     ) {
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Task> applications;
-
-        applications = taskRepository.findAll(pageable);
-
-        return ResponseEntity.ok(applications);
+        Pageable pageable = PageRequest.of(page, Math.min(size, 100), Sort.by(Sort.Direction.DESC, "createdAt", "id"));
+        return ResponseEntity.ok(taskRepository.findSummaries(pageable));
     }
 
     @PutMapping("/office-bearer-applications/{id}/approve")
@@ -96,12 +129,14 @@ public class AdminContoller {
         application.setApproved(true);
         application.setApprovedAt(LocalDateTime.now());
         officeBearerAppRepository.save(application);
+        eventPublisher.publishEvent(new OfficeBearerApprovedEvent(List.of(id), Set.of(application.getDistrict())));
 
-        // Send approval email
+        // The email is queued in this transaction and delivered later, so an SMTP failure no longer
+        // reaches the approval; a profile without an address is approved without one, as in bulk approval
         User user = application.getUser();
         UserProfile profile = userProfileRepository.findByUser(user)
                 .orElseThrow(() -> new RuntimeException("Profile not found"));
-        try {
+        if (StringUtils.hasText(profile.getEmail())) {
             emailService.sendOfficeBearerApprovalEmail(
                     profile.getEmail(),
                     profile.getDistrict(),
@@ -109,21 +144,44 @@ public class AdminContoller {
                     application.getPosition(),
                     user.getFullName()
             );
-            log.info("Initiated welcome email sending for {}", profile.getEmail());
-        }catch(Exception e){
-            log.error("Error while initiating welcome email for {}", profile.getEmail(), e);
+            log.info("Queued approval email for {}", profile.getEmail());
+        } else {
+            log.warn("Approved office bearer application {} without an email address, no email queued", id);
         }
 
         return ResponseEntity.ok(Map.of(
                 "message", "Application approved successfully",
                 "userId", user.getId(),
-                "email", profile.getEmail(),
+                "email", profile.getEmail() != null ? profile.getEmail() : "",
                 "name", user.getFullName()
         ));
     }
 
+    // Approves either the given application ids or up to `limit` pending applications of a district
+    @PostMapping("/office-bearer-applications/approve")
+    public ResponseEntity<?> approveApplications(@RequestBody BulkApprovalRequest request) {
+        try {
+            List<OfficeBearerApprovalService.ItemResult> results;
+            if (request.applicationIds() != null && !request.applicationIds().isEmpty()) {
+                results = officeBearerApprovalService.approveByIds(request.applicationIds());
+            } else {
+                int limit = request.limit() != null ? request.limit() : officeBearerApprovalService.getMaxBatchSize();
+                results = officeBearerApprovalService.approveByFilter(request.district(), request.state(), limit);
+            }
+            long approved = results.stream()
+                    .filter(result -> result.outcome() == OfficeBearerApprovalService.Outcome.APPROVED)
+                    .count();
+            return ResponseEntity.ok(Map.of(
+                    "approved", approved,
+                    "results", results
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @PostMapping("/tasks")
-    public ResponseEntity<Task> createTask(@RequestBody @Valid TaskRequest request) {
+    public ResponseEntity<TaskSummary> createTask(@RequestBody @Valid TaskRequest request) {
         User admin = userRepository.findByPhone("+919026562139").orElse(null);
         User assignee = userRepository.findById(request.assigneeId())
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -139,12 +197,72 @@ public class AdminContoller {
 
         task = taskRepository.save(task);
 
-        return ResponseEntity.ok(task);
+        return ResponseEntity.ok(TaskSummary.of(task));
+    }
+    // Creates one task per member or office bearer of a district/state as a background job
+    @PostMapping("/tasks/fan-out")
+    public ResponseEntity<?> fanOutTask(
+            @AuthenticationPrincipal UserDetails admin,
+            @RequestBody @Valid TaskFanOutRequest request
+    ) {
+        User assigner = userRepository.findByPhone(admin.getUsername())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        try {
+            return ResponseEntity.accepted()
+                    .body(taskFanOutService.describe(taskFanOutService.launch(request, assigner.getId())));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/tasks/fan-out/{executionId}")
+    public ResponseEntity<?> getTaskFanOut(@PathVariable Long executionId) {
+        return taskFanOutService.find(executionId)
+                .<ResponseEntity<?>>map(execution -> ResponseEntity.ok(taskFanOutService.describe(execution)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // Streams the full list from a cursor; use /all-task for paged access
+    @GetMapping(value = "/tasks/export", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTasks() {
+        return ResponseEntity.ok(taskExportService::writeAll);
+    }
+
+    @PostMapping("/announcements")
+    public ResponseEntity<?> sendAnnouncement(
+            @AuthenticationPrincipal UserDetails admin,
+            @RequestBody @Valid AnnouncementRequest request
+    ) {
+        try {
+            return ResponseEntity.accepted()
+                    .body(announcementService.describe(announcementService.launch(request, admin.getUsername())));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/announcements/{executionId}")
+    public ResponseEntity<?> getAnnouncement(@PathVariable Long executionId) {
+        return announcementService.find(executionId)
+                .<ResponseEntity<?>>map(execution -> ResponseEntity.ok(announcementService.describe(execution)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
-    @GetMapping("/all-tasks")
-    public ResponseEntity<List<Task>> getAllTask(){
-        return ResponseEntity.ok(taskRepository.findAll());
 
+    // Resumes a failed or stopped announcement after its last committed chunk
+    @PostMapping("/announcements/{executionId}/restart")
+    public ResponseEntity<?> restartAnnouncement(@PathVariable Long executionId) {
+        try {
+            return ResponseEntity.accepted()
+                    .body(announcementService.describe(announcementService.restart(executionId)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
     }
 
 }
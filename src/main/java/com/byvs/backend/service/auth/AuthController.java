@@ -1,25 +1,33 @@
 package com.byvs.backend.service.auth;
 
 import com.byvs.backend.service.dto.FeedbackRequest;
+import com.byvs.backend.service.member.MemberViewService;
 import com.byvs.backend.service.otp.OtpRateLimitException;
 import com.byvs.backend.service.otp.OtpService;
-import com.byvs.backend.service.referral.ReferralEventRepository;
-import com.byvs.backend.service.referral.ReferralEventType;
 import com.byvs.backend.service.referral.ReferralTrackingService;
+import com.byvs.backend.service.replica.ReplicaLagGuard;
 import com.byvs.backend.service.security.JwtService;
 import com.byvs.backend.service.service.EmailService;
 import com.byvs.backend.service.sms.BullSmsService;
 import com.byvs.backend.service.sms.SmsService;
+import com.byvs.backend.service.user.LastLoginWriteBehind;
+import com.byvs.backend.service.user.MemberProfileUpdatedEvent;
 import com.byvs.backend.service.user.User;
+import com.byvs.backend.service.user.UserCacheEvictor;
 import com.byvs.backend.service.user.UserProfile;
 import com.byvs.backend.service.user.UserProfileRepository;
 import com.byvs.backend.service.user.UserRepository;
+import com.byvs.backend.service.util.Hashes;
+import com.byvs.backend.service.util.ImageCompressionService;
 import com.byvs.backend.service.util.ImageCompressionUtil;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.flywaydb.core.internal.util.StringUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.*;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -35,9 +43,7 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 @RestController
@@ -53,10 +59,15 @@ public class AuthController {
     private final JwtService jwtService;
     private final UserRepository userRepository;
     private final ReferralTrackingService referralTrackingService;
-    private final ReferralEventRepository referralEventRepository;
     private final UserProfileRepository userProfileRepository;
     private final EmailService emailService;
     private final TransactionTemplate transactionTemplate;
+    private final UserCacheEvictor userCacheEvictor;
+    private final MemberViewService memberViewService;
+    private final LastLoginWriteBehind lastLoginWriteBehind;
+    private final ImageCompressionService imageCompressionService;
+    private final ObjectProvider<ReplicaLagGuard> replicaLagGuard;
+    private final ApplicationEventPublisher eventPublisher;
     private static final float COMPRESSION_QUALITY = 0.7f;
     private static final int MAX_IMAGE_WIDTH = 800;
     private static final int MAX_IMAGE_HEIGHT = 600;
@@ -170,7 +181,7 @@ public class AuthController {
                     }
 
                     try {
-                        byte[] compressedImage = ImageCompressionUtil.compressAndSave(
+                        byte[] compressedImage = imageCompressionService.compress(
                                 photo, COMPRESSION_QUALITY, MAX_IMAGE_WIDTH, MAX_IMAGE_HEIGHT
                         );
 
@@ -178,6 +189,7 @@ public class AuthController {
                         if (compressedImage != null && compressedImage.length > 0) {
                             BufferedImage image = ImageIO.read(new ByteArrayInputStream(photo.getBytes()));
                             profile.setPhotoData(photo.getBytes());
+                            profile.setPhotoHash(Hashes.sha256Hex(photo.getBytes()));
                             profile.setPhotoContentType(photo.getContentType());
                             profile.setPhotoWidth(image.getWidth());
                             profile.setPhotoHeight(image.getHeight());
@@ -192,6 +204,7 @@ public class AuthController {
                     }
                 } else {
                     profile.setPhotoData(null);
+                    profile.setPhotoHash(null);
                 }
                 String membershipId = "BYVS" + String.format("%08d", user.getId());
                 profile.setMembershipId(membershipId);
@@ -206,20 +219,20 @@ public class AuthController {
                                 referralTrackingService.trackSignupEvent(finalUser.getId(), request.referralCode());
                             });
                 }
+                memberViewService.refresh(user.getId());
 
-                CompletableFuture.runAsync(() -> {
-                    try {
-                        emailService.sendWelcomeEmail(
-                                request.email(),
-                                request.fullName(),
-                                membershipId
-                        );
-                    } catch (Exception e) {
-                        log.error("Email sending failed", e);
-                    }
-                });
+                // Queued in this transaction, so a failed registration never sends a welcome email
+                emailService.sendWelcomeEmail(
+                        request.email(),
+                        request.fullName(),
+                        membershipId
+                );
+
+                // The new member is not the authenticated user yet; keeps their first reads on the primary
+                String phone = user.getPhone();
+                replicaLagGuard.ifAvailable(guard -> guard.recordWrite(phone));
 
-                String token = jwtService.generate(user.getPhone(), "USER");
+                String token = jwtService.generate(phone, "USER");
 
                 return ResponseEntity.ok()
                         .header("X-Membership-ID", membershipId)
@@ -234,6 +247,9 @@ public class AuthController {
                 if (e instanceof IllegalArgumentException) {
                     return ResponseEntity.badRequest().body(e.getMessage());
                 }
+                if (e instanceof TaskRejectedException) {
+                    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Photo processing is busy, please retry");
+                }
                 return ResponseEntity.internalServerError().body("Registration failed");
             }
         });
@@ -242,15 +258,7 @@ public class AuthController {
     @PostMapping("/api/feedback")
     public ResponseEntity<String> sendFeedback(@RequestBody FeedbackRequest request) {
         try {
-            CompletableFuture.runAsync(() -> {
-                try {
-                    emailService.sendFeedback(
-                            request
-                    );
-                } catch (Exception e) {
-                    log.error("Email sending failed", e);
-                }
-            });
+            emailService.sendFeedback(request);
             return ResponseEntity.ok("Feedback sent successfully!");
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body("Failed to send feedback.");
@@ -284,11 +292,10 @@ public class AuthController {
 
         User user = existing.get();
 
-        user.setLastLoginAt(Instant.now());
+        lastLoginWriteBehind.record(user.getId(), Instant.now());
         if (user.getReferredByCode() != null) {
             referralTrackingService.trackVerificationEvent(user.getId());
         }
-        userRepository.save(user);
 
         String role = isAdminUser(user.getPhone()) ? "ADMIN" : "USER";
 
@@ -343,6 +350,7 @@ public class AuthController {
                         throw new IllegalArgumentException("Phone number is already in use");
                     }
                     user.setPhone(request.phone());
+                    userCacheEvictor.evictPhoneLookups();
                 }
 
                 // Update user details
@@ -393,13 +401,14 @@ public class AuthController {
                     }
 
                     try {
-                        byte[] compressedImage = ImageCompressionUtil.compressAndSave(
+                        byte[] compressedImage = imageCompressionService.compress(
                                 photo, COMPRESSION_QUALITY, MAX_IMAGE_WIDTH, MAX_IMAGE_HEIGHT
                         );
 
                         if (compressedImage != null && compressedImage.length > 0) {
                             BufferedImage image = ImageIO.read(new ByteArrayInputStream(compressedImage));
                             existingProfile.setPhotoData(photo.getBytes());
+                            existingProfile.setPhotoHash(Hashes.sha256Hex(photo.getBytes()));
                             existingProfile.setPhotoContentType(photo.getContentType());
                             existingProfile.setPhotoWidth(image.getWidth());
                             existingProfile.setPhotoHeight(image.getHeight());
@@ -413,12 +422,17 @@ public class AuthController {
                 } else if (request.deletePhoto() != null && request.deletePhoto()) {
                     // Allows clients to explicitly request photo deletion by passing a flag
                     existingProfile.setPhotoData(null);
+                    existingProfile.setPhotoHash(null);
                     existingProfile.setPhotoContentType(null);
                     existingProfile.setPhotoWidth(null);
                     existingProfile.setPhotoHeight(null);
                 }
 
-                userProfileRepository.save(existingProfile);
+                existingProfile = userProfileRepository.save(existingProfile);
+                userCacheEvictor.evictUser(userId);
+                userCacheEvictor.evictProfile(existingProfile.getId());
+                memberViewService.refresh(userId);
+                eventPublisher.publishEvent(new MemberProfileUpdatedEvent(userId));
 
                 // Generate new token if phone number was updated
                 String newToken = null;
@@ -441,13 +455,16 @@ public class AuthController {
                 if (e instanceof IllegalArgumentException) {
                     return ResponseEntity.badRequest().body(e.getMessage());
                 }
+                if (e instanceof TaskRejectedException) {
+                    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Photo processing is busy, please retry");
+                }
                 return ResponseEntity.internalServerError().body("Profile update failed");
             }
         });
     }
 
     @GetMapping("/user/photo")
-    @Transactional
+    @Transactional(readOnly = true)
     public ResponseEntity<?> getUserPhoto(@AuthenticationPrincipal UserDetails principal) {
         if (principal == null || principal.getUsername() == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Authentication required"));
@@ -469,7 +486,7 @@ public class AuthController {
 
 
     @GetMapping("/me")
-    @Transactional
+    @Transactional(readOnly = true)
     public ResponseEntity<?> getCurrentUser(@AuthenticationPrincipal UserDetails principal) {
         if (principal == null || principal.getUsername() == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Authentication required"));
@@ -477,43 +494,12 @@ public class AuthController {
         User user = userRepository.findByPhone(principal.getUsername())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        long userId = user.getId();
-        UserProfile profile = userProfileRepository.findByUserId(userId)
-                .orElse(new UserProfile()); // Return empty profile if not found
-
         String role = isAdminUser(user.getPhone()) ? "ADMIN" : "USER";
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("userId", user.getId());
-        response.put("fullName", user.getFullName() != null ? user.getFullName() : "");
-        response.put("phone", user.getPhone() != null ? user.getPhone() : "");
-        response.put("referralCode", user.getReferralCode() != null ? user.getReferralCode() : "");
-        response.put("verifiedReferrals", referralEventRepository.countByReferrerUserIdAndEventType(
-                user.getId(), ReferralEventType.VERIFICATION));
-        response.put("lastLogin", user.getLastLoginAt() != null ? user.getLastLoginAt() : "");
-        response.put("state", profile.getState() != null ? profile.getState() : "");
-        response.put("district", profile.getDistrict() != null ? profile.getDistrict() : "");
-        response.put("age", profile.getAge() != null ? profile.getAge() : "");
-        response.put("whatsappNumber", profile.getWhatsappNumber() != null ? profile.getWhatsappNumber() : "");
-        response.put("villageTownCity", profile.getVillageTownCity() != null ? profile.getVillageTownCity() : "");
-        response.put("blockName", profile.getBlockName() != null ? profile.getBlockName() : "");
-        response.put("profession", profile.getProfession() != null ? profile.getProfession() : "");
-        response.put("institutionName", profile.getInstitutionName() != null ? profile.getInstitutionName() : "");
-        response.put("institutionAddress", profile.getInstitutionAddress() != null ? profile.getInstitutionAddress() : "");
-        if (profile.getJoinedAt() != null) {
-            response.put("joinedDate", profile.getJoinedAt().atZone(ZoneId.systemDefault()).toLocalDate().toString());
-        } else {
-            response.put("joinedDate", "");
-        }
-
-        response.put("membershipId", profile.getMembershipId() != null ? profile.getMembershipId() : "");
-        response.put("email", profile.getEmail() != null ? profile.getEmail() : "");
-
         return ResponseEntity.ok()
                 .header("X-User-Role", role)
-                .body(response);
-
-
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(memberViewService.getJson(user.getId()));
     }
 
     private boolean isAdminUser(String username) {
@@ -1,17 +1,31 @@
 package com.byvs.backend.service.auth;
 
+import com.byvs.backend.service.document.DocumentData;
+import com.byvs.backend.service.document.DocumentFormat;
+import com.byvs.backend.service.document.DocumentType;
+import com.byvs.backend.service.document.MemberDocumentService;
+import com.byvs.backend.service.document.RenderedDocument;
 import com.byvs.backend.service.user.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.Map;
+import java.util.Optional;
 
 // MembershipController.java
 @RestController
@@ -22,7 +36,10 @@ public class MembershipController {
     private final UserProfileRepository userProfileRepository;
     private final UserRepository userRepository;
     private final OfficeBearerRepository officeBearerAppRepository;
+    private final MemberDocumentService memberDocumentService;
+
     @GetMapping("/id-card")
+    @Transactional(readOnly = true)
     public ResponseEntity<Map<String, Object>> getIdCardData(
             @AuthenticationPrincipal UserDetails userDetails
     ) {
@@ -47,6 +64,7 @@ public class MembershipController {
     }
 
     @GetMapping("/certificate")
+    @Transactional(readOnly = true)
     public ResponseEntity<Map<String, Object>> getCertificateData(
             @AuthenticationPrincipal UserDetails userDetails
     ) {
@@ -64,4 +82,58 @@ public class MembershipController {
                 "socialWork", application.getSocialWorkDescription()
         ));
     }
-}
\ No newline at end of file
+
+    // Rendered server-side and served from the render cache; If-None-Match with the current ETag gets a
+    // 304 without rendering
+    @GetMapping("/id-card/download")
+    public ResponseEntity<?> downloadIdCard(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(defaultValue = "png") String format,
+            ServletWebRequest request
+    ) {
+        return download(userDetails, DocumentType.ID_CARD, format, request);
+    }
+
+    @GetMapping("/certificate/download")
+    public ResponseEntity<?> downloadCertificate(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(defaultValue = "pdf") String format,
+            ServletWebRequest request
+    ) {
+        return download(userDetails, DocumentType.CERTIFICATE, format, request);
+    }
+
+    private ResponseEntity<?> download(UserDetails userDetails, DocumentType type, String format, ServletWebRequest request) {
+        User user = userRepository.findByPhone(userDetails.getUsername())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        DocumentFormat documentFormat;
+        try {
+            documentFormat = DocumentFormat.parse(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+
+        Optional<DocumentData> data = memberDocumentService.load(user.getId(), type);
+        if (data.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(type == DocumentType.ID_CARD ? "Profile not found" : "Not an office bearer");
+        }
+        String etag = memberDocumentService.etag(data.get(), documentFormat);
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+        // Handles weak ETags, lists and *, and sets the 304 status and ETag on the response
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+
+        RenderedDocument document = memberDocumentService.render(data.get(), documentFormat);
+        return ResponseEntity.ok()
+                .eTag(document.etag())
+                .cacheControl(cacheControl)
+                .contentType(documentFormat.getMediaType())
+                .contentLength(document.size())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline()
+                        .filename(type.getFileName() + "." + documentFormat.getExtension())
+                        .build().toString())
+                .body(new FileSystemResource(document.path()));
+    }
+}
@@ -1,5 +1,7 @@
 package com.byvs.backend.service.auth;
 
+import com.byvs.backend.service.query.StatementBudget;
+import com.byvs.backend.service.task.TaskCompletionService;
 import com.byvs.backend.service.user.*;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
@@ -7,7 +9,6 @@ import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -18,7 +19,6 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @RestController
 @RequiredArgsConstructor
@@ -30,6 +30,8 @@ public class OfficeBearerController {
     private final UserProfileRepository userProfileRepository;
     private final UserRepository userRepository;
     private final TaskRepository taskRepository;
+    private final OfficeBearerDirectory officeBearerDirectory;
+    private final TaskCompletionService taskCompletionService;
 
     public record OfficeBearerRequest(
             @NotBlank(message = "District is required")
@@ -89,6 +91,8 @@ public class OfficeBearerController {
     }
 
     @GetMapping("/status")
+    @StatementBudget(2)
+    @Transactional(readOnly = true)
     public ResponseEntity<?> getStatus(@AuthenticationPrincipal UserDetails userDetails) {
         User user = userRepository.findByPhone(userDetails.getUsername())
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -105,7 +109,7 @@ public class OfficeBearerController {
         ));
     }
     @GetMapping("/approved-office-bearers")
-    @Cacheable(value = "approvedOfficeBearers", key = "#district")
+    @StatementBudget(1)
     public ResponseEntity<?> getAllApprovedOfficeBearer(@RequestParam(required = false) String district){
         try{
             log.info("API call received to fetch approved office bearers for district: {}", district);
@@ -113,14 +117,7 @@ public class OfficeBearerController {
                 log.warn("Bad Request: District parameter is null or empty.");
                 return ResponseEntity.badRequest().body("District parameter cannot be empty.");
             }
-            List<OfficeBearerApplication> applications = appRepository.findByDistrictAndApprovedTrue(district);
-
-            List<Map<String, Object>> userDataList = applications.stream()
-                    .map(application -> Map.of(
-                            "position", application.getPosition() != null ? application.getPosition() : "Unknown",
-                            "userData", application.getUser()
-                    ))
-                    .collect(Collectors.toList());
+            List<OfficeBearerDirectoryEntry> userDataList = officeBearerDirectory.get(district);
             if (userDataList.isEmpty()) {
                 log.info("No approved office bearers found for district: {}. Returning an empty list.", district);
             } else {
@@ -134,9 +131,22 @@ public class OfficeBearerController {
     }
 
     @GetMapping("/get-tasks")
-    public ResponseEntity<List<Task>> getTheTask(@AuthenticationPrincipal UserDetails principal){
+    @StatementBudget(2)
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<TaskSummary>> getTheTask(@AuthenticationPrincipal UserDetails principal){
         User user = userRepository.findByPhone(principal.getUsername()).orElseThrow(() -> new RuntimeException("User not found"));
-        List<Task> tasks = taskRepository.findByAssignedTo(user);
+        List<TaskSummary> tasks = taskRepository.findSummariesByAssignedToId(user.getId());
         return ResponseEntity.ok(tasks);
     }
-}
\ No newline at end of file
+
+    // Safe to retry: a task is rewarded once however often it is completed
+    @PostMapping("/tasks/{taskId}/complete")
+    public ResponseEntity<?> completeTask(@AuthenticationPrincipal UserDetails principal, @PathVariable Long taskId) {
+        User user = userRepository.findByPhone(principal.getUsername()).orElseThrow(() -> new RuntimeException("User not found"));
+        TaskCompletionService.Result result = taskCompletionService.complete(taskId, user.getId());
+        if (result.outcome() == TaskCompletionService.Outcome.NOT_FOUND) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(result);
+    }
+}
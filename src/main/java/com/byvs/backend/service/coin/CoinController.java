@@ -0,0 +1,46 @@
+package com.byvs.backend.service.coin;
+
+import com.byvs.backend.service.user.User;
+import com.byvs.backend.service.user.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/coins")
+public class CoinController {
+
+    private final UserRepository userRepository;
+    private final CoinLedgerService coinLedgerService;
+
+    @GetMapping("/balance")
+    public ResponseEntity<?> getBalance(@AuthenticationPrincipal UserDetails principal) {
+        User user = userRepository.findByPhone(principal.getUsername())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        return ResponseEntity.ok(Map.of(
+                "userId", user.getId(),
+                "balance", coinLedgerService.getBalance(user.getId())
+        ));
+    }
+
+    @GetMapping("/ledger")
+    public ResponseEntity<?> getLedger(
+            @AuthenticationPrincipal UserDetails principal,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        User user = userRepository.findByPhone(principal.getUsername())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        return ResponseEntity.ok(Map.of(
+                "balance", coinLedgerService.getBalance(user.getId()),
+                "entries", coinLedgerService.getRecentEntries(user.getId(), Math.min(Math.max(limit, 1), 200))
+        ));
+    }
+}
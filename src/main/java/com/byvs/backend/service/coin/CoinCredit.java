@@ -0,0 +1,15 @@
+package com.byvs.backend.service.coin;
+
+// One ledger entry to append. The idempotency key identifies the business event, so retrying the
+// same completion or referral never credits twice
+public record CoinCredit(Long userId, int amount, CoinReason reason, Long referenceId, String idempotencyKey) {
+
+    public static CoinCredit taskCompletion(Long userId, Long taskId, int amount) {
+        return new CoinCredit(userId, amount, CoinReason.TASK_COMPLETION, taskId, "task:" + taskId);
+    }
+
+    public static CoinCredit referralBonus(Long referrerId, Long referredUserId, int amount) {
+        return new CoinCredit(referrerId, amount, CoinReason.REFERRAL_BONUS, referredUserId,
+                "referral:" + referrerId + ":" + referredUserId);
+    }
+}
@@ -0,0 +1,95 @@
+package com.byvs.backend.service.coin;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Moves ledger entries older than the retention window into coin_ledger_archive and adds them to the
+// per-user checkpoint, keeping coin_ledger small for history reads and idempotency checks. For every
+// user, coin_balance = coin_checkpoint.balance + SUM(coin_ledger.amount) holds before and after
+@Component
+@Slf4j
+public class CoinLedgerCompactor {
+
+    private static final String COMPACT_SQL = """
+            WITH moved AS (
+                DELETE FROM coin_ledger
+                WHERE id IN (SELECT id FROM coin_ledger WHERE created_at < ? ORDER BY id LIMIT ?)
+                RETURNING id, user_id, amount, reason, reference_id, idempotency_key, created_at
+            ),
+            archived AS (
+                INSERT INTO coin_ledger_archive (id, user_id, amount, reason, reference_id, idempotency_key, created_at)
+                SELECT id, user_id, amount, reason, reference_id, idempotency_key, created_at FROM moved
+            ),
+            checkpointed AS (
+                INSERT INTO coin_checkpoint (user_id, balance, entry_count, last_entry_id, checkpointed_at)
+                SELECT user_id, SUM(amount), COUNT(*), MAX(id), ? FROM moved GROUP BY user_id
+                ON CONFLICT (user_id) DO UPDATE
+                    SET balance = coin_checkpoint.balance + EXCLUDED.balance,
+                        entry_count = coin_checkpoint.entry_count + EXCLUDED.entry_count,
+                        last_entry_id = GREATEST(coin_checkpoint.last_entry_id, EXCLUDED.last_entry_id),
+                        checkpointed_at = EXCLUDED.checkpointed_at
+            )
+            SELECT COUNT(*) FROM moved
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final int batchSize;
+    private final Counter compacted;
+
+    public CoinLedgerCompactor(JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${coin.ledger.compaction.retention:P90D}") Duration retention,
+                               @Value("${coin.ledger.compaction.batch-size:5000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.compacted = Counter.builder("byvs.coin.ledger.compacted")
+                .description("Ledger entries folded into checkpoints")
+                .register(meterRegistry);
+    }
+
+    // Each batch commits on its own so a long backlog never holds locks on the ledger for long
+    @Scheduled(cron = "${coin.ledger.compaction.cron:0 15 4 * * *}")
+    public void compact() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        long total = 0;
+        while (true) {
+            Long moved = transactionTemplate.execute(status -> {
+                // Only one instance compacts at a time; the lock is released at commit
+                Boolean locked = jdbcTemplate.queryForObject(
+                        "SELECT pg_try_advisory_xact_lock(hashtext('coin-ledger-compaction'))", Boolean.class);
+                if (!Boolean.TRUE.equals(locked)) {
+                    return null;
+                }
+                // Waits for in-flight appends and holds new ones off until this batch commits
+                jdbcTemplate.execute("SELECT pg_advisory_xact_lock(hashtext('coin-ledger-append'))");
+                return jdbcTemplate.queryForObject(COMPACT_SQL, Long.class, cutoff, batchSize, LocalDateTime.now());
+            });
+            if (moved == null) {
+                log.info("Coin ledger compaction already running elsewhere, skipping");
+                break;
+            }
+            total += moved;
+            compacted.increment(moved);
+            if (moved < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Compacted {} coin ledger entries older than {}", total, cutoff);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.byvs.backend.service.coin;
+
+import java.time.LocalDateTime;
+
+public record CoinLedgerEntry(Long id, int amount, CoinReason reason, Long referenceId, LocalDateTime createdAt) {
+}
@@ -0,0 +1,135 @@
+package com.byvs.backend.service.coin;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// Coins are only ever appended to coin_ledger; coin_balance holds the running total per user and is
+// updated by the same statement that appends, so a balance read is a primary-key lookup and never
+// sums history. Old entries are folded into coin_checkpoint by CoinLedgerCompactor
+@Service
+@Slf4j
+public class CoinLedgerService {
+
+    // Rows per statement; five parameters each keeps a full chunk well under the driver's bind limit
+    private static final int CHUNK_SIZE = 1000;
+
+    // Keys already applied (live or archived) are skipped, and only the rows actually inserted feed the
+    // balance upsert, so replaying a batch is a no-op
+    private static final String APPEND_SQL_HEAD = """
+            WITH entries (user_id, amount, reason, reference_id, idempotency_key) AS (VALUES %s),
+            inserted AS (
+                INSERT INTO coin_ledger (user_id, amount, reason, reference_id, idempotency_key, created_at)
+                SELECT e.user_id, e.amount, e.reason, e.reference_id, e.idempotency_key, ?
+                FROM entries e
+                WHERE NOT EXISTS (SELECT 1 FROM coin_ledger_archive a WHERE a.idempotency_key = e.idempotency_key)
+                ON CONFLICT (idempotency_key) DO NOTHING
+                RETURNING user_id, amount, idempotency_key
+            ),
+            balances AS (
+                INSERT INTO coin_balance (user_id, balance, updated_at)
+                SELECT user_id, SUM(amount), ? FROM inserted GROUP BY user_id
+                ON CONFLICT (user_id) DO UPDATE
+                    SET balance = coin_balance.balance + EXCLUDED.balance, updated_at = EXCLUDED.updated_at
+            )
+            SELECT idempotency_key FROM inserted
+            """;
+
+    private static final String ENTRY_ROW = "(?::bigint, ?::integer, ?, ?::bigint, ?)";
+
+    // Held shared until commit by every transaction that appends and exclusively by each compaction
+    // batch, so a key is never moved to the archive between an append's archive check and its insert.
+    // Taken in a statement of its own: the append's snapshot then starts after any batch it waited for
+    private static final String APPEND_LOCK_SQL = "SELECT pg_advisory_xact_lock_shared(hashtext('coin-ledger-append'))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    public CoinLedgerService(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Joins the caller's transaction, so the credit commits or rolls back with the event that earned it
+    @Transactional
+    public boolean credit(CoinCredit credit) {
+        return !creditAll(List.of(credit)).isEmpty();
+    }
+
+    // Returns the idempotency keys that were newly applied; keys seen before are left out
+    @Transactional
+    public Set<String> creditAll(Collection<CoinCredit> credits) {
+        Set<String> applied = new LinkedHashSet<>();
+        List<CoinCredit> pending = credits.stream()
+                .filter(credit -> credit.amount() != 0)
+                .toList();
+        if (pending.isEmpty()) {
+            return applied;
+        }
+        jdbcTemplate.execute(APPEND_LOCK_SQL);
+        LocalDateTime now = LocalDateTime.now();
+        for (int from = 0; from < pending.size(); from += CHUNK_SIZE) {
+            List<CoinCredit> chunk = pending.subList(from, Math.min(from + CHUNK_SIZE, pending.size()));
+            applied.addAll(append(chunk, now));
+        }
+        for (CoinCredit credit : pending) {
+            if (applied.contains(credit.idempotencyKey())) {
+                meterRegistry.counter("byvs.coin.credited", "reason", credit.reason().name()).increment(credit.amount());
+            }
+        }
+        if (applied.size() < pending.size()) {
+            log.debug("Skipped {} coin credits that were already applied", pending.size() - applied.size());
+        }
+        return applied;
+    }
+
+    public long getBalance(Long userId) {
+        List<Long> balance = jdbcTemplate.queryForList(
+                "SELECT balance FROM coin_balance WHERE user_id = ?", Long.class, userId);
+        return balance.isEmpty() ? 0 : balance.get(0);
+    }
+
+    // Recent entries only; compacted history is represented by the checkpoint total
+    public List<CoinLedgerEntry> getRecentEntries(Long userId, int limit) {
+        return jdbcTemplate.query(
+                "SELECT id, amount, reason, reference_id, created_at FROM coin_ledger " +
+                        "WHERE user_id = ? ORDER BY id DESC LIMIT ?",
+                (rs, rowNum) -> new CoinLedgerEntry(rs.getLong(1), rs.getInt(2), CoinReason.valueOf(rs.getString(3)),
+                        rs.getObject(4, Long.class), rs.getObject(5, LocalDateTime.class)),
+                userId, limit);
+    }
+
+    private List<String> append(List<CoinCredit> chunk, LocalDateTime now) {
+        String rows = String.join(", ", Collections.nCopies(chunk.size(), ENTRY_ROW));
+        String sql = APPEND_SQL_HEAD.formatted(rows);
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            int index = 1;
+            for (CoinCredit credit : chunk) {
+                ps.setLong(index++, credit.userId());
+                ps.setInt(index++, credit.amount());
+                ps.setString(index++, credit.reason().name());
+                if (credit.referenceId() != null) {
+                    ps.setLong(index++, credit.referenceId());
+                } else {
+                    ps.setNull(index++, Types.BIGINT);
+                }
+                ps.setString(index++, credit.idempotencyKey());
+            }
+            ps.setObject(index++, now);
+            ps.setObject(index, now);
+            return ps;
+        }, (rs, rowNum) -> rs.getString(1));
+    }
+}
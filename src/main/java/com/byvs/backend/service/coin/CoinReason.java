@@ -0,0 +1,6 @@
+package com.byvs.backend.service.coin;
+
+public enum CoinReason {
+    TASK_COMPLETION,
+    REFERRAL_BONUS
+}
@@ -1,22 +1,131 @@
 package com.byvs.backend.service.config;
 
+import com.byvs.backend.service.util.WorkloadTaskDecorator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
-import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+// One executor per workload, so a slow SMS gateway cannot starve photo processing or event ingestion.
+// Each has a bounded queue and an explicit overflow policy. In virtual-thread mode the thread count
+// becomes a concurrency limit and a full workload blocks the submitter instead
 @Configuration
+@EnableAsync
+@Slf4j
 public class AsyncConfig {
 
-    @Bean(name = "taskExecutor")
-    public Executor taskExecutor() {
+    // What a workload does with a task once its threads and queue are full
+    enum Overflow {
+        // Run on the submitting thread, slowing the caller down
+        CALLER_RUNS,
+        // Throw TaskRejectedException to the caller
+        ABORT,
+        // Drop the task; for work that is retried or can be lost
+        DISCARD
+    }
+
+    private static final long DISCARD_WARN_INTERVAL = TimeUnit.MINUTES.toNanos(1);
+
+    private final MeterRegistry meterRegistry;
+    private final boolean virtualThreads;
+
+    public AsyncConfig(MeterRegistry meterRegistry, Environment environment) {
+        this.meterRegistry = meterRegistry;
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+    }
+
+    // Outbox dispatch passes: the rows stay due, so a pass dropped while one is running loses nothing
+    @Bean
+    public AsyncTaskExecutor emailExecutor(@Value("${executor.email.threads:1}") int threads,
+                                           @Value("${executor.email.queue-capacity:1}") int queueCapacity) {
+        return workloadExecutor("email", threads, queueCapacity, Overflow.DISCARD);
+    }
+
+    // OTP sends must not be dropped; when full the request thread sends the SMS itself
+    @Bean
+    public AsyncTaskExecutor smsExecutor(@Value("${executor.sms.threads:8}") int threads,
+                                         @Value("${executor.sms.queue-capacity:500}") int queueCapacity) {
+        return workloadExecutor("sms", threads, queueCapacity, Overflow.CALLER_RUNS);
+    }
+
+    // CPU-bound photo compression, sized to the cores; callers wait for the result and get a 503 when full
+    @Bean
+    public AsyncTaskExecutor imageExecutor(@Value("${executor.image.threads:2}") int threads,
+                                           @Value("${executor.image.queue-capacity:20}") int queueCapacity) {
+        return workloadExecutor("image", threads, queueCapacity, Overflow.ABORT);
+    }
+
+    // Referral share/click tracking, lost rather than slowing the request when full; drops are counted
+    // in byvs.executor.rejected and warned about once a minute. Also the default for @Async without a qualifier
+    @Bean(name = {"eventExecutor", "taskExecutor"})
+    public AsyncTaskExecutor eventExecutor(@Value("${executor.event.threads:2}") int threads,
+                                           @Value("${executor.event.queue-capacity:10000}") int queueCapacity) {
+        return workloadExecutor("event", threads, queueCapacity, Overflow.DISCARD);
+    }
+
+    private AsyncTaskExecutor workloadExecutor(String workload, int threads, int queueCapacity, Overflow overflow) {
+        WorkloadTaskDecorator decorator = new WorkloadTaskDecorator(workload, meterRegistry);
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(workload + "-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(threads);
+            executor.setTaskDecorator(decorator);
+            executor.setTaskTerminationTimeout(30_000);
+            return executor;
+        }
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(5);
-        executor.setMaxPoolSize(10);
-        executor.setQueueCapacity(100);
-        executor.setThreadNamePrefix("EmailThread-");
-        executor.initialize();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(workload + "-");
+        executor.setTaskDecorator(decorator);
+        executor.setRejectedExecutionHandler(rejectionHandler(workload, overflow));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
         return executor;
     }
+
+    private RejectedExecutionHandler rejectionHandler(String workload, Overflow overflow) {
+        Counter rejected = Counter.builder("byvs.executor.rejected")
+                .tag("workload", workload)
+                .tag("policy", overflow.name().toLowerCase())
+                .description("Tasks that found the workload's threads and queue full")
+                .register(meterRegistry);
+        AtomicLong lastWarned = new AtomicLong(System.nanoTime() - DISCARD_WARN_INTERVAL);
+        return (task, pool) -> {
+            rejected.increment();
+            if (overflow == Overflow.CALLER_RUNS && !pool.isShutdown()) {
+                task.run();
+                return;
+            }
+            if (task instanceof WorkloadTaskDecorator.MeteredTask metered) {
+                metered.discard();
+            }
+            if (overflow == Overflow.DISCARD) {
+                long now = System.nanoTime();
+                long last = lastWarned.get();
+                if (now - last >= DISCARD_WARN_INTERVAL && lastWarned.compareAndSet(last, now)) {
+                    log.warn("The {} executor is full and dropping tasks, {} dropped so far",
+                            workload, (long) rejected.count());
+                } else {
+                    log.debug("Dropped a {} task, executor full", workload);
+                }
+                return;
+            }
+            throw new RejectedExecutionException("The " + workload + " executor is full");
+        };
+    }
 }
@@ -0,0 +1,85 @@
+package com.byvs.backend.service.config;
+
+import com.byvs.backend.service.util.ConcurrencyLimitedDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+// Virtual-thread mode (spring.threads.virtual.enabled on Java 21): Tomcat, @Scheduled and @Async
+// stop being bounded by thread pools, so the Hikari pool becomes the first shared limit. Requests
+// past it wait on a fair semaphore with a bounded timeout rather than piling into the pool
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class VirtualThreadConfig {
+
+    @Bean
+    public static BeanPostProcessor databaseConcurrencyLimiter(
+            @Value("${db.concurrency.limit:${spring.datasource.hikari.maximum-pool-size:10}}") int limit,
+            @Value("${db.concurrency.acquire-timeout:PT30S}") Duration acquireTimeout) {
+        return new DatabaseConcurrencyLimiter(limit, acquireTimeout);
+    }
+
+    @Bean
+    public MeterBinder databaseConcurrencyMetrics(DataSource dataSource) {
+        return registry -> {
+            // The limiter may sit under other proxies, such as the query metrics one
+            ConcurrencyLimitedDataSource limited = limiterOf(dataSource);
+            if (limited != null) {
+                Gauge.builder("byvs.db.permits.waiting", limited, ConcurrencyLimitedDataSource::getWaitingThreads)
+                        .description("Threads waiting for a database permit")
+                        .register(registry);
+                Gauge.builder("byvs.db.permits.available", limited, ConcurrencyLimitedDataSource::getAvailablePermits)
+                        .register(registry);
+            }
+        };
+    }
+
+    private static ConcurrencyLimitedDataSource limiterOf(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(ConcurrencyLimitedDataSource.class)
+                    ? dataSource.unwrap(ConcurrencyLimitedDataSource.class)
+                    : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    // Runs first so that proxies added by other post-processors wrap the limited pool, not the reverse
+    static class DatabaseConcurrencyLimiter implements BeanPostProcessor, Ordered {
+
+        private final int limit;
+        private final Duration acquireTimeout;
+
+        DatabaseConcurrencyLimiter(int limit, Duration acquireTimeout) {
+            this.limit = limit;
+            this.acquireTimeout = acquireTimeout;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof HikariDataSource dataSource) {
+                log.info("Limiting {} to {} concurrent connections", beanName, limit);
+                return new ConcurrencyLimitedDataSource(dataSource, limit, acquireTimeout);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
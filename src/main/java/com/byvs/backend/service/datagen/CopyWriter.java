@@ -0,0 +1,89 @@
+package com.byvs.backend.service.datagen;
+
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+
+// Streams rows into one COPY ... FROM STDIN in PostgreSQL's text format, flushing in chunks so a
+// table of any size is written without holding it in memory
+final class CopyWriter implements AutoCloseable {
+
+    private static final int FLUSH_BYTES = 1 << 20;
+
+    private final CopyIn copy;
+    private final StringBuilder buffer = new StringBuilder(FLUSH_BYTES + 4096);
+    private boolean rowStarted;
+    private boolean closed;
+    private long rows;
+
+    CopyWriter(CopyManager copyManager, String sql) throws SQLException {
+        this.copy = copyManager.copyIn(sql);
+    }
+
+    CopyWriter value(Object value) {
+        if (rowStarted) {
+            buffer.append('\t');
+        }
+        rowStarted = true;
+        if (value == null) {
+            buffer.append("\\N");
+        } else if (value instanceof String text) {
+            escape(text);
+        } else {
+            buffer.append(value);
+        }
+        return this;
+    }
+
+    void endRow() throws SQLException {
+        buffer.append('\n');
+        rowStarted = false;
+        rows++;
+        if (buffer.length() >= FLUSH_BYTES) {
+            flush();
+        }
+    }
+
+    long rows() {
+        return rows;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flush();
+            copy.endCopy();
+        } finally {
+            if (copy.isActive()) {
+                copy.cancelCopy();
+            }
+        }
+    }
+
+    private void flush() throws SQLException {
+        if (!buffer.isEmpty()) {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copy.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+    }
+
+    private void escape(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\' -> buffer.append("\\\\");
+                case '\t' -> buffer.append("\\t");
+                case '\n' -> buffer.append("\\n");
+                case '\r' -> buffer.append("\\r");
+                default -> buffer.append(c);
+            }
+        }
+    }
+}
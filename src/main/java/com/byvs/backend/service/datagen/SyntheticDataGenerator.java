@@ -0,0 +1,307 @@
+package com.byvs.backend.service.datagen;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
+
+// Production-shaped members, referral events, office bearer applications and tasks, streamed with COPY.
+// Sign-ups grow over the window and referrers follow a power law, so a few early members
+// account for most referrals, as on the real leaderboards. Member i is derived from the seed and i
+// alone, so every table sees the same members without holding them in memory
+@Slf4j
+public class SyntheticDataGenerator {
+
+    private static final String[] FIRST_NAMES = {"Aarav", "Vivaan", "Aditya", "Arjun", "Rohan", "Karan", "Rahul",
+            "Amit", "Vikas", "Sandeep", "Priya", "Ananya", "Pooja", "Neha", "Kavya", "Shreya", "Anjali", "Sneha",
+            "Divya", "Ritu", "Mohammed", "Imran", "Harpreet", "Gurpreet", "Suresh", "Ramesh", "Deepak", "Manoj"};
+    private static final String[] LAST_NAMES = {"Sharma", "Verma", "Yadav", "Singh", "Kumar", "Gupta", "Mishra",
+            "Pandey", "Tiwari", "Chauhan", "Patel", "Jha", "Srivastava", "Maurya", "Khan", "Ansari", "Rajput", "Saini"};
+    // State, districts; states are drawn with weights roughly following membership
+    private static final String[][] REGIONS = {
+            {"Uttar Pradesh", "Lucknow", "Varanasi", "Prayagraj", "Kanpur Nagar", "Gorakhpur", "Agra", "Meerut", "Bareilly"},
+            {"Bihar", "Patna", "Gaya", "Muzaffarpur", "Bhagalpur", "Darbhanga"},
+            {"Madhya Pradesh", "Bhopal", "Indore", "Jabalpur", "Gwalior"},
+            {"Rajasthan", "Jaipur", "Jodhpur", "Kota", "Udaipur"},
+            {"Delhi", "New Delhi", "South Delhi", "North West Delhi"},
+            {"Uttarakhand", "Dehradun", "Haridwar", "Nainital"},
+            {"Haryana", "Gurugram", "Faridabad", "Rohtak"},
+            {"Jharkhand", "Ranchi", "Dhanbad", "Jamshedpur"}};
+    private static final double[] REGION_WEIGHTS = {0.40, 0.18, 0.10, 0.09, 0.08, 0.05, 0.05, 0.05};
+    private static final String[] PROFESSIONS = {"Student", "Student", "Student", "Teacher", "Farmer",
+            "Self Employed", "Engineer", "Advocate", "Social Worker", "Private Job"};
+    private static final String[] INSTITUTIONS = {"University of Lucknow", "Banaras Hindu University",
+            "Patna University", "University of Allahabad", "Delhi University", "Government Inter College",
+            "Kendriya Vidyalaya", "Barkatullah University", "University of Rajasthan", "Ranchi University"};
+    private static final String[] POSITIONS = {"District President", "District Secretary", "Block President",
+            "Campus Coordinator", "District Media In-charge", "State Executive Member"};
+    private static final String[] TASKS = {"Organise a membership drive", "Campus awareness meeting",
+            "Blood donation camp", "Tree plantation drive", "Share the monthly newsletter", "Voter awareness rally"};
+    private static final String[] SOURCES = {"WHATSAPP", "WHATSAPP", "WHATSAPP", "FACEBOOK", "INSTAGRAM", "TELEGRAM", "COPY_LINK"};
+    private static final String[] USER_AGENTS = {
+            "Mozilla/5.0 (Linux; Android 13; SM-A145F) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0 Mobile Safari/537.36",
+            "Mozilla/5.0 (Linux; Android 12; Redmi Note 11) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/119.0 Mobile Safari/537.36",
+            "Mozilla/5.0 (iPhone; CPU iPhone OS 17_1 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.1 Mobile/15E148 Safari/604.1",
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0 Safari/537.36"};
+    private static final long PROGRESS_ROWS = 1_000_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SyntheticDataSpec spec;
+    private final long firstId;
+    private final Instant start;
+    private final Instant end;
+
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate, SyntheticDataSpec spec, long firstId,
+                                  LocalDateTime start, LocalDateTime end) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.spec = spec;
+        this.firstId = firstId;
+        this.start = start.toInstant(ZoneOffset.UTC);
+        this.end = end.toInstant(ZoneOffset.UTC);
+    }
+
+    // Moves the identity sequence past the ids about to be used, so inserts made meanwhile do not collide;
+    // returns the first reserved id
+    public static long reserveUserIds(JdbcTemplate jdbcTemplate, int users) {
+        Long last = jdbcTemplate.queryForObject("""
+                SELECT setval(pg_get_serial_sequence('app_user', 'id'),
+                              GREATEST((SELECT COALESCE(MAX(id), 0) FROM app_user),
+                                       nextval(pg_get_serial_sequence('app_user', 'id'))) + ?)
+                """, Long.class, users);
+        return last - users + 1;
+    }
+
+    public long copyUsers() {
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try (CopyWriter copy = copy(connection, "COPY app_user (id, phone, full_name, referral_code, referred_by_code, "
+                    + "is_verified, verified_referrals_count, created_at, last_login_at) FROM STDIN")) {
+                for (int i = 0; i < spec.users(); i++) {
+                    Member member = member(i);
+                    copy.value(member.id()).value(member.phone()).value(member.fullName()).value(member.referralCode())
+                            .value(member.referrer() < 0 ? null : referralCode(member.referrer()))
+                            .value(false).value(0).value(member.createdAt()).value(member.lastLoginAt());
+                    endRow(copy, "app_user");
+                }
+                copy.close();
+                return copy.rows();
+            }
+        });
+    }
+
+    public long copyProfiles() {
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try (CopyWriter copy = copy(connection, "COPY user_profile (user_id, age, email, whatsapp_number, village_town_city, "
+                    + "block_name, district, state, profession, institution_name, institution_address, membership_id, "
+                    + "joined_at) FROM STDIN")) {
+                for (int i = 0; i < spec.users(); i++) {
+                    Member member = member(i);
+                    copy.value(member.id()).value(member.age())
+                            .value(member.referralCode().toLowerCase() + "@example.com").value(member.phone())
+                            .value(member.district()).value(member.district() + " Block " + (1 + member.id() % 9))
+                            .value(member.district()).value(member.state()).value(member.profession())
+                            .value(member.institution()).value(member.district() + ", " + member.state())
+                            .value("BYVS" + String.format("%08d", member.id())).value(utc(member.createdAt()));
+                    endRow(copy, "user_profile");
+                }
+                copy.close();
+                return copy.rows();
+            }
+        });
+    }
+
+    // Sign-ups and verifications follow from the members; clicks and shares make up the rest of the
+    // requested total, each on a referrer drawn from the same power law
+    public long copyReferralEvents() {
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try (CopyWriter copy = copy(connection, "COPY referral_events (referrer_user_id, referred_user_id, event_type, "
+                    + "occurred_at, tracking_id, referral_source, ip_address, user_agent) FROM STDIN")) {
+                for (int i = 0; i < spec.users(); i++) {
+                    Member member = member(i);
+                    if (member.referrer() < 0) {
+                        continue;
+                    }
+                    long referrerId = firstId + member.referrer();
+                    event(copy, referrerId, member.id(), "SIGNUP", member.createdAt(), null, null, null);
+                    if (member.verifiedAt() != null) {
+                        event(copy, referrerId, member.id(), "VERIFICATION", member.verifiedAt(), null, null, null);
+                    }
+                }
+                SplittableRandom random = new SplittableRandom(spec.seed() ^ 0x5DEECE66DL);
+                while (copy.rows() < spec.events()) {
+                    int referrer = skewed(random, spec.users());
+                    boolean click = random.nextInt(10) < 7;
+                    event(copy, firstId + referrer, null, click ? "LINK_CLICK" : "SHARE", between(random, joinedAt(referrer), end),
+                            SOURCES[random.nextInt(SOURCES.length)],
+                            click ? "49." + random.nextInt(256) + "." + random.nextInt(256) + "." + random.nextInt(256) : null,
+                            USER_AGENTS[random.nextInt(USER_AGENTS.length)]);
+                }
+                copy.close();
+                return copy.rows();
+            }
+        });
+    }
+
+    // Applications, and for each approved one a few tasks assigned by the first generated member, who
+    // stands in for an admin. Tasks are derived from the bearer's id, so they need no second pass
+    public long copyOfficeBearers() {
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            long tasks = 0;
+            long applications;
+            try (CopyWriter copy = copy(connection, "COPY office_bearer_application (user_id, position, district, state, "
+                    + "contact_details, social_work_description, approved, applied_at, approved_at) FROM STDIN")) {
+                for (int i = 0; i < spec.users(); i++) {
+                    Member member = member(i);
+                    if (member.appliedAt() != null) {
+                        copy.value(member.id()).value(member.position()).value(member.district()).value(member.state())
+                                .value(member.phone()).value("Volunteering with youth groups in " + member.district())
+                                .value(member.approvedAt() != null).value(utc(member.appliedAt())).value(utc(member.approvedAt()));
+                        endRow(copy, "office_bearer_application");
+                        if (member.approvedAt() != null) {
+                            tasks += spec.tasksPerBearer();
+                        }
+                    }
+                }
+                copy.close();
+                applications = copy.rows();
+            }
+            try (CopyWriter copy = copy(connection, "COPY task (title, description, assigned_by_id, assigned_to_id, reward_coins, "
+                    + "completed, created_at, deadline, completed_at, expired_at) FROM STDIN")) {
+                for (int i = 0; i < spec.users() && tasks > 0; i++) {
+                    Member member = member(i);
+                    if (member.approvedAt() == null) {
+                        continue;
+                    }
+                    SplittableRandom random = new SplittableRandom(spec.seed() * 31 + member.id());
+                    for (int t = 0; t < spec.tasksPerBearer(); t++) {
+                        Instant created = between(random, member.approvedAt(), end);
+                        Instant deadline = created.plus(Duration.ofDays(3 + random.nextInt(12)));
+                        boolean completed = random.nextInt(10) < 6 && created.isBefore(end.minus(Duration.ofHours(1)));
+                        Instant completedAt = completed ? between(random, created, min(deadline, end)) : null;
+                        Instant expiredAt = !completed && deadline.isBefore(end) ? deadline : null;
+                        String title = TASKS[random.nextInt(TASKS.length)];
+                        copy.value(title).value(title + " and share photos in the group").value(firstId)
+                                .value(member.id()).value(10 * (1 + random.nextInt(10))).value(completed)
+                                .value(utc(created)).value(utc(deadline)).value(utc(completedAt)).value(utc(expiredAt));
+                        endRow(copy, "task");
+                    }
+                }
+                copy.close();
+                log.info("Copied {} office_bearer_application and {} task rows", applications, copy.rows());
+                return applications + copy.rows();
+            }
+        });
+    }
+
+    // Counts as VerifiedReferralCounter keeps them for live traffic, then fresh statistics for the planner
+    public long finish() {
+        int referrers = jdbcTemplate.update("""
+                UPDATE app_user u SET verified_referrals_count = u.verified_referrals_count + e.verified
+                FROM (SELECT referrer_user_id, COUNT(DISTINCT referred_user_id) AS verified
+                      FROM referral_events
+                      WHERE event_type = 'VERIFICATION' AND referred_user_id BETWEEN ? AND ?
+                      GROUP BY referrer_user_id) e
+                WHERE u.id = e.referrer_user_id
+                """, firstId, firstId + spec.users() - 1);
+        jdbcTemplate.execute("ANALYZE app_user, user_profile, referral_events, office_bearer_application, task");
+        return referrers;
+    }
+
+    // Runs on the step transaction's connection, so the rows commit or roll back with the step
+    private static CopyWriter copy(Connection connection, String sql) throws SQLException {
+        CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+        return new CopyWriter(copyManager, sql);
+    }
+
+    private void event(CopyWriter copy, long referrerId, Long referredId, String type, Instant at,
+                       String source, String ip, String userAgent) throws SQLException {
+        copy.value(referrerId).value(referredId).value(type).value(at)
+                .value("gen-" + firstId + "-" + copy.rows()).value(source).value(ip).value(userAgent);
+        endRow(copy, "referral_events");
+    }
+
+    private Member member(int index) {
+        SplittableRandom random = new SplittableRandom(spec.seed() + index * 0x9E3779B97F4A7C15L);
+        long id = firstId + index;
+        Instant createdAt = joinedAt(index).plusSeconds(random.nextInt(3600));
+        String[] region = REGIONS[weighted(random, REGION_WEIGHTS)];
+        int referrer = index > 0 && random.nextDouble() < spec.referredShare() ? skewed(random, index) : -1;
+        Instant verifiedAt = referrer >= 0 && random.nextDouble() < spec.verifiedShare()
+                ? min(createdAt.plusSeconds(60 + random.nextInt(3 * 24 * 3600)), end) : null;
+        Instant lastLoginAt = random.nextInt(10) < 7 ? between(random, createdAt, end) : null;
+        Instant appliedAt = random.nextDouble() < spec.officeBearerShare() ? between(random, createdAt, end) : null;
+        Instant approvedAt = appliedAt != null && random.nextBoolean()
+                ? min(appliedAt.plus(Duration.ofDays(1 + random.nextInt(20))), end) : null;
+        return new Member(id,
+                FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                "+91" + (5_000_000_000L + id), referralCode(index), referrer, createdAt, verifiedAt, lastLoginAt,
+                16 + random.nextInt(20), region[0], region[1 + random.nextInt(region.length - 1)],
+                PROFESSIONS[random.nextInt(PROFESSIONS.length)], INSTITUTIONS[random.nextInt(INSTITUTIONS.length)],
+                appliedAt, approvedAt, POSITIONS[random.nextInt(POSITIONS.length)]);
+    }
+
+    // Members join at a rate that grows over the window (join time goes with the square root of the index)
+    private Instant joinedAt(int index) {
+        return start.plusMillis((long) (Duration.between(start, end).toMillis() * Math.sqrt((double) index / spec.users())));
+    }
+
+    // Cannot collide with real codes, which are eight hex digits
+    private String referralCode(int index) {
+        return "S" + Long.toString(firstId + index, 36).toUpperCase();
+    }
+
+    // Index in [0, bound) with P(k) roughly proportional to 1/(k+1)^skew (inverse CDF of a bounded power law)
+    private int skewed(SplittableRandom random, int bound) {
+        double skew = spec.referralSkew();
+        double u = random.nextDouble();
+        double x = skew == 1.0
+                ? Math.pow(bound, u)
+                : Math.pow((Math.pow(bound, 1 - skew) - 1) * u + 1, 1 / (1 - skew));
+        return Math.min(bound - 1, (int) x - 1);
+    }
+
+    private static int weighted(SplittableRandom random, double[] weights) {
+        double u = random.nextDouble();
+        for (int i = 0; i < weights.length - 1; i++) {
+            u -= weights[i];
+            if (u < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private static Instant between(SplittableRandom random, Instant from, Instant to) {
+        long span = Duration.between(from, to).toMillis();
+        return span <= 0 ? from : from.plusMillis(random.nextLong(span));
+    }
+
+    private static Instant min(Instant a, Instant b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDateTime utc(Instant instant) {
+        return instant == null ? null : LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    private static void endRow(CopyWriter copy, String table) throws SQLException {
+        copy.endRow();
+        if (copy.rows() % PROGRESS_ROWS == 0) {
+            log.info("Copied {} {} rows", copy.rows(), table);
+        }
+    }
+
+    private record Member(long id, String fullName, String phone, String referralCode, int referrer,
+                          Instant createdAt, Instant verifiedAt, Instant lastLoginAt, int age, String state,
+                          String district, String profession, String institution, Instant appliedAt,
+                          Instant approvedAt, String position) {
+    }
+}
@@ -0,0 +1,69 @@
+package com.byvs.backend.service.datagen;
+
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+// One step per table, each a single COPY in the step's transaction, so a failure leaves whole tables:
+// those loaded before it stay, the failed one is rolled back
+@Configuration
+@ConditionalOnProperty(name = "datagen.enabled", havingValue = "true")
+public class SyntheticDataJobConfig {
+
+    public static final String JOB = "syntheticDataJob";
+
+    @Bean
+    @StepScope
+    public SyntheticDataGenerator syntheticDataGenerator(
+            JdbcTemplate jdbcTemplate,
+            @Value("#{jobParameters['users']}") Long users,
+            @Value("#{jobParameters['events']}") Long events,
+            @Value("#{jobParameters['referralSkew']}") Double referralSkew,
+            @Value("#{jobParameters['referredShare']}") Double referredShare,
+            @Value("#{jobParameters['verifiedShare']}") Double verifiedShare,
+            @Value("#{jobParameters['officeBearerShare']}") Double officeBearerShare,
+            @Value("#{jobParameters['tasksPerBearer']}") Long tasksPerBearer,
+            @Value("#{jobParameters['seed']}") Long seed,
+            @Value("#{jobParameters['firstUserId']}") Long firstUserId,
+            @Value("#{jobParameters['start']}") LocalDateTime start,
+            @Value("#{jobParameters['end']}") LocalDateTime end) {
+        SyntheticDataSpec spec = new SyntheticDataSpec(users.intValue(), events, referralSkew, referredShare,
+                verifiedShare, officeBearerShare, tasksPerBearer.intValue(), seed);
+        return new SyntheticDataGenerator(jdbcTemplate, spec, firstUserId, start, end);
+    }
+
+    @Bean(name = JOB)
+    public Job syntheticDataJob(JobRepository jobRepository, PlatformTransactionManager transactionManager,
+                                SyntheticDataGenerator generator) {
+        return new JobBuilder(JOB, jobRepository)
+                .start(step("syntheticUsersStep", jobRepository, transactionManager, generator::copyUsers))
+                .next(step("syntheticProfilesStep", jobRepository, transactionManager, generator::copyProfiles))
+                .next(step("syntheticReferralEventsStep", jobRepository, transactionManager, generator::copyReferralEvents))
+                .next(step("syntheticOfficeBearersStep", jobRepository, transactionManager, generator::copyOfficeBearers))
+                .next(step("syntheticCountersStep", jobRepository, transactionManager, generator::finish))
+                .build();
+    }
+
+    private static Step step(String name, JobRepository jobRepository, PlatformTransactionManager transactionManager,
+                             Supplier<Long> load) {
+        return new StepBuilder(name, jobRepository)
+                .tasklet((contribution, chunkContext) -> {
+                    contribution.incrementWriteCount(load.get());
+                    return RepeatStatus.FINISHED;
+                }, transactionManager)
+                .build();
+    }
+}
@@ -0,0 +1,112 @@
+package com.byvs.backend.service.datagen;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionException;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// Loads synthetic data into the configured database for benchmarks and query-plan checks, then exits:
+//   java -jar app.jar --spring.profiles.active=datagen --datagen.users=1000000 --datagen.events=20000000
+// The datagen profile runs it without a web server or scheduled work. Rows are added after the existing
+// ones and the same seed gives the same data
+@Component
+@ConditionalOnProperty(name = "datagen.enabled", havingValue = "true")
+@Slf4j
+public class SyntheticDataLauncher implements ApplicationRunner {
+
+    private final JobLauncher jobLauncher;
+    private final JobExplorer jobExplorer;
+    private final Job syntheticDataJob;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ConfigurableApplicationContext context;
+    private final SyntheticDataSpec spec;
+    private final Duration window;
+    private final boolean exitWhenDone;
+
+    public SyntheticDataLauncher(JobLauncher jobLauncher,
+                                 JobExplorer jobExplorer,
+                                 @Qualifier(SyntheticDataJobConfig.JOB) Job syntheticDataJob,
+                                 JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 ConfigurableApplicationContext context,
+                                 @Value("${datagen.users:100000}") int users,
+                                 @Value("${datagen.events:1000000}") long events,
+                                 @Value("${datagen.window:P365D}") Duration window,
+                                 @Value("${datagen.referral-skew:1.2}") double referralSkew,
+                                 @Value("${datagen.referred-share:0.35}") double referredShare,
+                                 @Value("${datagen.verified-share:0.6}") double verifiedShare,
+                                 @Value("${datagen.office-bearer-share:0.03}") double officeBearerShare,
+                                 @Value("${datagen.tasks-per-bearer:4}") int tasksPerBearer,
+                                 @Value("${datagen.seed:42}") long seed,
+                                 @Value("${datagen.exit-when-done:true}") boolean exitWhenDone) {
+        if (users < 2 || events < 0 || referralSkew <= 0 || tasksPerBearer < 0) {
+            throw new IllegalArgumentException("datagen needs at least 2 users, a positive skew and non-negative counts");
+        }
+        this.jobLauncher = jobLauncher;
+        this.jobExplorer = jobExplorer;
+        this.syntheticDataJob = syntheticDataJob;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.context = context;
+        this.spec = new SyntheticDataSpec(users, events, referralSkew, referredShare, verifiedShare,
+                officeBearerShare, tasksPerBearer, seed);
+        this.window = window;
+        this.exitWhenDone = exitWhenDone;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws JobExecutionException, InterruptedException {
+        long firstUserId = transactionTemplate.execute(status ->
+                SyntheticDataGenerator.reserveUserIds(jdbcTemplate, spec.users()));
+        LocalDateTime end = LocalDateTime.now(ZoneOffset.UTC);
+        log.info("Generating {} users from id {} and {} referral events over {}",
+                spec.users(), firstUserId, spec.events(), window);
+        JobExecution execution = jobLauncher.run(syntheticDataJob, new JobParametersBuilder()
+                .addLong("users", (long) spec.users())
+                .addLong("events", spec.events())
+                .addDouble("referralSkew", spec.referralSkew())
+                .addDouble("referredShare", spec.referredShare())
+                .addDouble("verifiedShare", spec.verifiedShare())
+                .addDouble("officeBearerShare", spec.officeBearerShare())
+                .addLong("tasksPerBearer", (long) spec.tasksPerBearer())
+                .addLong("seed", spec.seed())
+                .addLong("firstUserId", firstUserId)
+                .addLocalDateTime("start", end.minus(window))
+                .addLocalDateTime("end", end)
+                .toJobParameters());
+        // The batch launcher is asynchronous
+        while (execution.isRunning()) {
+            Thread.sleep(1000);
+            execution = jobExplorer.getJobExecution(execution.getId());
+        }
+        for (StepExecution step : execution.getStepExecutions()) {
+            log.info("{}: {} rows in {}s", step.getStepName(), step.getWriteCount(),
+                    Duration.between(step.getStartTime(), step.getEndTime()).toSeconds());
+        }
+        log.info("Synthetic data job {} finished with {}", execution.getId(), execution.getStatus());
+        if (exitWhenDone) {
+            int code = execution.getStatus() == BatchStatus.COMPLETED ? 0 : 1;
+            System.exit(SpringApplication.exit(context, () -> code));
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.byvs.backend.service.datagen;
+
+// Size and shape of one generated data set. Shares are fractions of all generated members
+public record SyntheticDataSpec(int users,
+                                long events,
+                                double referralSkew,
+                                double referredShare,
+                                double verifiedShare,
+                                double officeBearerShare,
+                                int tasksPerBearer,
+                                long seed) {
+}
@@ -0,0 +1,18 @@
+package com.byvs.backend.service.document;
+
+import java.util.Arrays;
+import java.util.List;
+
+public record CertificateData(Long userId, String fullName, String district, String state, String position,
+                              String approvalDate) implements DocumentData {
+
+    @Override
+    public DocumentType type() {
+        return DocumentType.CERTIFICATE;
+    }
+
+    @Override
+    public List<String> cacheInputs() {
+        return Arrays.asList(fullName, district, state, position, approvalDate);
+    }
+}
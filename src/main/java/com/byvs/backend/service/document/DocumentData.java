@@ -0,0 +1,13 @@
+package com.byvs.backend.service.document;
+
+import java.util.List;
+
+// Everything a rendered document depends on; the render cache key is a hash of these values
+public sealed interface DocumentData permits IdCardData, CertificateData {
+
+    Long userId();
+
+    DocumentType type();
+
+    List<String> cacheInputs();
+}
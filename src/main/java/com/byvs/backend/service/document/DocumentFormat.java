@@ -0,0 +1,34 @@
+package com.byvs.backend.service.document;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+public enum DocumentFormat {
+    PNG(MediaType.IMAGE_PNG, "png"),
+    PDF(MediaType.APPLICATION_PDF, "pdf");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    DocumentFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static DocumentFormat parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported format " + value + ", use png or pdf");
+        }
+    }
+}
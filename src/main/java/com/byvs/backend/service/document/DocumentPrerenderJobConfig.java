@@ -0,0 +1,89 @@
+package com.byvs.backend.service.document;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.database.JdbcCursorItemReader;
+import org.springframework.batch.item.database.builder.JdbcCursorItemReaderBuilder;
+import org.springframework.batch.support.transaction.ResourcelessTransactionManager;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Renders the ID card and certificate of office bearers approved in [approvedFrom, approvedTo) into
+// the render cache, so their first download is a cache read
+@Configuration
+@Slf4j
+public class DocumentPrerenderJobConfig {
+
+    public static final String JOB = "documentPrerenderJob";
+
+    @Value("${render.prerender.chunk-size:20}")
+    private int chunkSize;
+
+    @Bean
+    @StepScope
+    public JdbcCursorItemReader<Long> prerenderUserReader(
+            DataSource dataSource,
+            @Value("#{jobParameters['approvedFrom']}") LocalDateTime approvedFrom,
+            @Value("#{jobParameters['approvedTo']}") LocalDateTime approvedTo) {
+        return new JdbcCursorItemReaderBuilder<Long>()
+                .name("prerenderUserReader")
+                .dataSource(dataSource)
+                .sql("SELECT DISTINCT user_id FROM office_bearer_application " +
+                        "WHERE approved = true AND approved_at >= ? AND approved_at < ? ORDER BY user_id")
+                .preparedStatementSetter(new ArgumentPreparedStatementSetter(new Object[]{approvedFrom, approvedTo}))
+                .rowMapper((rs, rowNum) -> rs.getLong(1))
+                .connectionAutoCommit(false)
+                .build();
+    }
+
+    @Bean
+    public ItemWriter<Long> prerenderWriter(MemberDocumentService documentService,
+                                            @Value("${render.prerender.formats:PNG,PDF}") List<DocumentFormat> formats) {
+        return userIds -> {
+            for (Long userId : userIds) {
+                for (DocumentType type : DocumentType.values()) {
+                    documentService.load(userId, type).ifPresent(data -> {
+                        for (DocumentFormat format : formats) {
+                            documentService.render(data, format);
+                        }
+                    });
+                }
+            }
+        };
+    }
+
+    // Rendering only touches the local disk, so chunks need no database transaction
+    @Bean
+    public Step documentPrerenderStep(JobRepository jobRepository,
+                                      @Qualifier("prerenderUserReader") JdbcCursorItemReader<Long> reader,
+                                      @Qualifier("prerenderWriter") ItemWriter<Long> writer) {
+        return new StepBuilder("documentPrerenderStep", jobRepository)
+                .<Long, Long>chunk(chunkSize, new ResourcelessTransactionManager())
+                .reader(reader)
+                .writer(writer)
+                .faultTolerant()
+                .skip(RuntimeException.class)
+                .skipLimit(Integer.MAX_VALUE)
+                .build();
+    }
+
+    @Bean(name = JOB)
+    public Job documentPrerenderJob(JobRepository jobRepository, @Qualifier("documentPrerenderStep") Step step) {
+        return new JobBuilder(JOB, jobRepository)
+                .start(step)
+                .build();
+    }
+}
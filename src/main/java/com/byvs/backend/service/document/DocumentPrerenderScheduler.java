@@ -0,0 +1,87 @@
+package com.byvs.backend.service.document;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionException;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Launches the pre-render job for approvals since the previous window. Windows are taken from the
+// Spring Batch tables, so they continue across restarts, and a run that did not complete is covered
+// again by the next window
+@Component
+@Slf4j
+public class DocumentPrerenderScheduler {
+
+    private final JobLauncher jobLauncher;
+    private final JobExplorer jobExplorer;
+    private final JdbcTemplate jdbcTemplate;
+    private final Job documentPrerenderJob;
+    private final Duration initialLookback;
+
+    public DocumentPrerenderScheduler(JobLauncher jobLauncher,
+                                      JobExplorer jobExplorer,
+                                      JdbcTemplate jdbcTemplate,
+                                      @Qualifier(DocumentPrerenderJobConfig.JOB) Job documentPrerenderJob,
+                                      @Value("${render.prerender.initial-lookback:P1D}") Duration initialLookback) {
+        this.jobLauncher = jobLauncher;
+        this.jobExplorer = jobExplorer;
+        this.jdbcTemplate = jdbcTemplate;
+        this.documentPrerenderJob = documentPrerenderJob;
+        this.initialLookback = initialLookback;
+    }
+
+    @Scheduled(fixedDelayString = "${render.prerender.interval:PT5M}", initialDelayString = "${render.prerender.interval:PT5M}")
+    public void launch() {
+        LocalDateTime approvedTo = LocalDateTime.now();
+        LocalDateTime approvedFrom = nextWindowStart(approvedTo);
+        Boolean pending = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM office_bearer_application " +
+                        "WHERE approved = true AND approved_at >= ? AND approved_at < ?)",
+                Boolean.class, approvedFrom, approvedTo);
+        if (!Boolean.TRUE.equals(pending)) {
+            return;
+        }
+        JobParameters parameters = new JobParametersBuilder()
+                .addLocalDateTime("approvedFrom", approvedFrom)
+                .addLocalDateTime("approvedTo", approvedTo)
+                .toJobParameters();
+        try {
+            JobExecution execution = jobLauncher.run(documentPrerenderJob, parameters);
+            log.info("Launched document pre-render {} for approvals between {} and {}",
+                    execution.getId(), approvedFrom, approvedTo);
+        } catch (JobExecutionException e) {
+            log.warn("Could not launch document pre-render: {}", e.getMessage());
+        }
+    }
+
+    private LocalDateTime nextWindowStart(LocalDateTime now) {
+        List<JobInstance> instances = jobExplorer.getJobInstances(DocumentPrerenderJobConfig.JOB, 0, 1);
+        if (instances.isEmpty()) {
+            return now.minus(initialLookback);
+        }
+        JobExecution last = jobExplorer.getLastJobExecution(instances.get(0));
+        if (last == null) {
+            return now.minus(initialLookback);
+        }
+        JobParameters parameters = last.getJobParameters();
+        // A running window is left alone; a failed one is started again from its own beginning
+        return last.getStatus() == BatchStatus.COMPLETED || last.getStatus().isRunning()
+                ? parameters.getLocalDateTime("approvedTo")
+                : parameters.getLocalDateTime("approvedFrom");
+    }
+}
@@ -0,0 +1,246 @@
+package com.byvs.backend.service.document;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDDocumentInformation;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+// Draws ID cards and certificates with Java2D. A PDF is the same raster placed on a page of the
+// document's physical size, so both formats share one layout and non-Latin names render the same way
+@Component
+@Slf4j
+public class DocumentRenderer {
+
+    // Bump when a layout changes so cached renders of the old layout are not served
+    public static final String LAYOUT_VERSION = "1";
+
+    private static final String ORGANISATION = "BHARTIYA YUVA VIDYARTHI SANGATHAN (BYVS)";
+    private static final Color NAVY = new Color(0x2c3e50);
+    private static final Color RED = new Color(0xe74c3c);
+    private static final Color GREY = new Color(0x7f8c8d);
+    private static final Color LIGHT = new Color(0xf4f6f7);
+
+    // CR80 card at 300 dpi and A4 landscape at 150 dpi; page sizes in PDF points
+    private static final int CARD_WIDTH = 1012;
+    private static final int CARD_HEIGHT = 638;
+    private static final float CARD_WIDTH_PT = 242.6f;
+    private static final float CARD_HEIGHT_PT = 153.0f;
+    private static final int CERTIFICATE_WIDTH = 1754;
+    private static final int CERTIFICATE_HEIGHT = 1240;
+
+    public byte[] render(DocumentData data, byte[] photo, DocumentFormat format) {
+        BufferedImage image = data instanceof IdCardData card
+                ? drawIdCard(card, photo)
+                : drawCertificate((CertificateData) data);
+        return switch (format) {
+            case PNG -> toPng(image);
+            case PDF -> data.type() == DocumentType.ID_CARD
+                    ? toPdf(image, new PDRectangle(CARD_WIDTH_PT, CARD_HEIGHT_PT), "Membership Card")
+                    : toPdf(image, new PDRectangle(PDRectangle.A4.getHeight(), PDRectangle.A4.getWidth()), "Certificate");
+        };
+    }
+
+    private BufferedImage drawIdCard(IdCardData card, byte[] photo) {
+        BufferedImage image = new BufferedImage(CARD_WIDTH, CARD_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = begin(image);
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, CARD_WIDTH, CARD_HEIGHT);
+            g.setColor(NAVY);
+            g.fillRect(0, 0, CARD_WIDTH, 130);
+            g.setColor(RED);
+            g.fillRect(0, CARD_HEIGHT - 24, CARD_WIDTH, 24);
+
+            g.setColor(Color.WHITE);
+            drawCentered(g, ORGANISATION, new Font(Font.SANS_SERIF, Font.BOLD, 34), CARD_WIDTH / 2, 62, CARD_WIDTH - 60);
+            drawCentered(g, "MEMBERSHIP CARD", new Font(Font.SANS_SERIF, Font.PLAIN, 24), CARD_WIDTH / 2, 105, CARD_WIDTH - 60);
+
+            drawPhoto(g, photo, card.fullName(), 40, 165, 230, 290);
+
+            int x = 310;
+            int y = 205;
+            g.setColor(NAVY);
+            y = drawFitted(g, value(card.fullName()), new Font(Font.SANS_SERIF, Font.BOLD, 42), x, y, CARD_WIDTH - x - 40) + 50;
+            y = drawField(g, "Membership ID", card.membershipId(), x, y);
+            y = drawField(g, "District", card.district(), x, y);
+            y = drawField(g, "State", card.state(), x, y);
+            y = drawField(g, "Member since", card.joinDate(), x, y);
+            if (StringUtils.hasText(card.position())) {
+                g.setColor(RED);
+                drawFitted(g, card.position().toUpperCase(), new Font(Font.SANS_SERIF, Font.BOLD, 28), x, y + 10, CARD_WIDTH - x - 40);
+            }
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    private BufferedImage drawCertificate(CertificateData certificate) {
+        BufferedImage image = new BufferedImage(CERTIFICATE_WIDTH, CERTIFICATE_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = begin(image);
+        try {
+            int centre = CERTIFICATE_WIDTH / 2;
+            int width = CERTIFICATE_WIDTH - 300;
+            g.setColor(LIGHT);
+            g.fillRect(0, 0, CERTIFICATE_WIDTH, CERTIFICATE_HEIGHT);
+            g.setColor(NAVY);
+            g.setStroke(new BasicStroke(14));
+            g.drawRect(40, 40, CERTIFICATE_WIDTH - 80, CERTIFICATE_HEIGHT - 80);
+            g.setColor(RED);
+            g.setStroke(new BasicStroke(4));
+            g.drawRect(70, 70, CERTIFICATE_WIDTH - 140, CERTIFICATE_HEIGHT - 140);
+
+            g.setColor(NAVY);
+            drawCentered(g, ORGANISATION, new Font(Font.SANS_SERIF, Font.BOLD, 46), centre, 200, width);
+            g.setColor(RED);
+            drawCentered(g, "CERTIFICATE OF APPOINTMENT", new Font(Font.SERIF, Font.BOLD, 76), centre, 340, width);
+
+            g.setColor(GREY);
+            Font body = new Font(Font.SERIF, Font.PLAIN, 40);
+            drawCentered(g, "This is to certify that", body, centre, 480, width);
+            g.setColor(NAVY);
+            drawCentered(g, value(certificate.fullName()), new Font(Font.SERIF, Font.BOLD | Font.ITALIC, 84), centre, 610, width);
+            g.setColor(GREY);
+            String position = StringUtils.hasText(certificate.position()) ? certificate.position() : "Office Bearer";
+            drawCentered(g, "has been appointed as " + position, body, centre, 720, width);
+            drawCentered(g, "for " + value(certificate.district()) + ", " + value(certificate.state()), body, centre, 785, width);
+            drawCentered(g, "with effect from " + value(certificate.approvalDate()), body, centre, 850, width);
+
+            g.setColor(NAVY);
+            g.setStroke(new BasicStroke(2));
+            g.drawLine(CERTIFICATE_WIDTH - 620, 1040, CERTIFICATE_WIDTH - 220, 1040);
+            drawCentered(g, "Authorised Signatory", new Font(Font.SANS_SERIF, Font.PLAIN, 30), CERTIFICATE_WIDTH - 420, 1085, 400);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    private void drawPhoto(Graphics2D g, byte[] photo, String name, int x, int y, int width, int height) {
+        Shape frame = new RoundRectangle2D.Float(x, y, width, height, 24, 24);
+        BufferedImage source = null;
+        if (photo != null && photo.length > 0) {
+            try {
+                source = ImageIO.read(new ByteArrayInputStream(photo));
+            } catch (IOException e) {
+                log.warn("Unreadable profile photo for {}, drawing a placeholder", name);
+            }
+        }
+        Shape clip = g.getClip();
+        g.setClip(frame);
+        if (source != null) {
+            // Scale to cover the frame and crop the overflow around the centre
+            double scale = Math.max((double) width / source.getWidth(), (double) height / source.getHeight());
+            int drawWidth = (int) Math.ceil(source.getWidth() * scale);
+            int drawHeight = (int) Math.ceil(source.getHeight() * scale);
+            g.drawImage(source, x + (width - drawWidth) / 2, y + (height - drawHeight) / 2, drawWidth, drawHeight, null);
+        } else {
+            g.setColor(LIGHT);
+            g.fill(frame);
+            g.setColor(GREY);
+            drawCentered(g, initials(name), new Font(Font.SANS_SERIF, Font.BOLD, 96), x + width / 2, y + height / 2 + 34, width);
+        }
+        g.setClip(clip);
+        g.setColor(NAVY);
+        g.setStroke(new BasicStroke(4));
+        g.draw(frame);
+    }
+
+    private int drawField(Graphics2D g, String label, String value, int x, int y) {
+        g.setColor(GREY);
+        g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 22));
+        g.drawString(label, x, y);
+        g.setColor(NAVY);
+        return drawFitted(g, value(value), new Font(Font.SANS_SERIF, Font.BOLD, 28), x, y + 32, CARD_WIDTH - x - 40) + 40;
+    }
+
+    // Shrinks the font until the text fits; returns the baseline used
+    private int drawFitted(Graphics2D g, String text, Font font, int x, int y, int maxWidth) {
+        g.setFont(fit(g, text, font, maxWidth));
+        g.drawString(text, x, y);
+        return y;
+    }
+
+    private void drawCentered(Graphics2D g, String text, Font font, int centreX, int baseline, int maxWidth) {
+        g.setFont(fit(g, text, font, maxWidth));
+        g.drawString(text, centreX - g.getFontMetrics().stringWidth(text) / 2, baseline);
+    }
+
+    private static Font fit(Graphics2D g, String text, Font font, int maxWidth) {
+        Font fitted = font;
+        while (fitted.getSize() > 12 && g.getFontMetrics(fitted).stringWidth(text) > maxWidth) {
+            fitted = fitted.deriveFont((float) fitted.getSize() - 2);
+        }
+        return fitted;
+    }
+
+    private static Graphics2D begin(BufferedImage image) {
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        return g;
+    }
+
+    private static String value(String value) {
+        return StringUtils.hasText(value) ? value : "-";
+    }
+
+    private static String initials(String name) {
+        if (!StringUtils.hasText(name)) {
+            return "?";
+        }
+        StringBuilder initials = new StringBuilder();
+        for (String part : name.trim().split("\\s+")) {
+            if (initials.length() < 2) {
+                initials.appendCodePoint(Character.toUpperCase(part.codePointAt(0)));
+            }
+        }
+        return initials.toString();
+    }
+
+    private static byte[] toPng(BufferedImage image) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+        try {
+            ImageIO.write(image, "png", out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] toPdf(BufferedImage image, PDRectangle pageSize, String title) {
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage(pageSize);
+            document.addPage(page);
+            PDImageXObject raster = LosslessFactory.createFromImage(document, image);
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                content.drawImage(raster, 0, 0, pageSize.getWidth(), pageSize.getHeight());
+            }
+            PDDocumentInformation info = document.getDocumentInformation();
+            info.setTitle(title);
+            info.setCreator(ORGANISATION);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(128 * 1024);
+            document.save(out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.byvs.backend.service.document;
+
+public enum DocumentType {
+    ID_CARD("id-card"),
+    CERTIFICATE("certificate");
+
+    private final String fileName;
+
+    DocumentType(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+}
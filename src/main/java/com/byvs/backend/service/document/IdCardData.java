@@ -0,0 +1,19 @@
+package com.byvs.backend.service.document;
+
+import java.util.Arrays;
+import java.util.List;
+
+// photoHash stands in for the photo bytes, which are only read when the card has to be rendered
+public record IdCardData(Long userId, Long profileId, String fullName, String membershipId, String district,
+                         String state, String joinDate, String position, String photoHash) implements DocumentData {
+
+    @Override
+    public DocumentType type() {
+        return DocumentType.ID_CARD;
+    }
+
+    @Override
+    public List<String> cacheInputs() {
+        return Arrays.asList(fullName, membershipId, district, state, joinDate, position, photoHash);
+    }
+}
@@ -0,0 +1,157 @@
+package com.byvs.backend.service.document;
+
+import com.byvs.backend.service.util.Hashes;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Serves ID cards and certificates from the render cache. Loading a document's inputs is one small
+// query that leaves out the photo bytes; the key (and ETag) is a hash of those inputs plus the photo
+// hash, so an unchanged document is answered from disk, or with 304, without rendering
+@Service
+@Slf4j
+public class MemberDocumentService {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    private static final String ID_CARD_SQL = """
+            SELECT u.id, p.id, u.full_name, p.membership_id, p.district, p.state, u.created_at, a.position, p.photo_hash
+            FROM app_user u
+            JOIN user_profile p ON p.user_id = u.id
+            LEFT JOIN office_bearer_application a ON a.user_id = u.id AND a.approved = true
+            WHERE u.id = ?
+            ORDER BY p.id, a.approved_at DESC
+            LIMIT 1
+            """;
+
+    private static final String CERTIFICATE_SQL = """
+            SELECT u.id, u.full_name, a.district, a.state, a.position, a.approved_at
+            FROM office_bearer_application a
+            JOIN app_user u ON u.id = a.user_id
+            WHERE a.user_id = ? AND a.approved = true
+            ORDER BY a.approved_at DESC
+            LIMIT 1
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DocumentRenderer renderer;
+    private final RenderCache cache;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+
+    public MemberDocumentService(JdbcTemplate jdbcTemplate,
+                                 DocumentRenderer renderer,
+                                 RenderCache cache,
+                                 MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.renderer = renderer;
+        this.cache = cache;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Optional<DocumentData> load(Long userId, DocumentType type) {
+        List<? extends DocumentData> rows = type == DocumentType.ID_CARD
+                ? jdbcTemplate.query(ID_CARD_SQL, (rs, rowNum) -> new IdCardData(
+                        rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getString(4), rs.getString(5), rs.getString(6),
+                        format(rs.getObject(7, OffsetDateTime.class)), rs.getString(8), rs.getString(9)), userId)
+                : jdbcTemplate.query(CERTIFICATE_SQL, (rs, rowNum) -> new CertificateData(
+                        rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5),
+                        format(rs.getObject(6, LocalDateTime.class))), userId);
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+
+    public String cacheKey(DocumentData data, DocumentFormat format) {
+        StringBuilder input = new StringBuilder()
+                .append(data.type()).append('\u0000')
+                .append(format).append('\u0000')
+                .append(DocumentRenderer.LAYOUT_VERSION);
+        for (String value : data.cacheInputs()) {
+            input.append('\u0000').append(value == null ? "" : value);
+        }
+        return Hashes.sha256Hex(input.toString());
+    }
+
+    public String etag(DocumentData data, DocumentFormat format) {
+        return "\"" + cacheKey(data, format) + "\"";
+    }
+
+    // Concurrent requests for the same key share one render
+    public RenderedDocument render(DocumentData data, DocumentFormat format) {
+        String key = cacheKey(data, format);
+        Optional<Path> cached = cache.get(data.type(), key, format);
+        if (cached.isPresent()) {
+            meterRegistry.counter("byvs.document.cache", "type", data.type().name(), "result", "hit").increment();
+            return describe(cached.get(), key, format);
+        }
+
+        CompletableFuture<Path> mine = new CompletableFuture<>();
+        CompletableFuture<Path> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            try {
+                return describe(running.join(), key, format);
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            Path path = cache.get(data.type(), key, format).orElseGet(() -> renderAndStore(data, format, key));
+            mine.complete(path);
+            return describe(path, key, format);
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private Path renderAndStore(DocumentData data, DocumentFormat format, String key) {
+        meterRegistry.counter("byvs.document.cache", "type", data.type().name(), "result", "miss").increment();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        byte[] photo = data instanceof IdCardData card && card.photoHash() != null ? loadPhoto(card.profileId()) : null;
+        byte[] content = renderer.render(data, photo, format);
+        Path path = cache.put(data.type(), key, format, content);
+        sample.stop(meterRegistry.timer("byvs.document.render", "type", data.type().name(), "format", format.name()));
+        log.debug("Rendered {} {} for user {} ({} bytes)", data.type(), format, data.userId(), content.length);
+        return path;
+    }
+
+    private byte[] loadPhoto(Long profileId) {
+        List<byte[]> photo = jdbcTemplate.query("SELECT photo FROM user_profile WHERE id = ?",
+                (rs, rowNum) -> rs.getBytes(1), profileId);
+        return photo.isEmpty() ? null : photo.get(0);
+    }
+
+    private static RenderedDocument describe(Path path, String key, DocumentFormat format) {
+        try {
+            return new RenderedDocument(path, "\"" + key + "\"", format, Files.size(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String format(LocalDateTime time) {
+        return time == null ? null : time.format(DATE_FORMAT);
+    }
+
+    // app_user.created_at is timestamptz; the card shows the join date in the server's zone
+    private static String format(OffsetDateTime time) {
+        return time == null ? null : format(time.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime());
+    }
+}
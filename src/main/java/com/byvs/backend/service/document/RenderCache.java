@@ -0,0 +1,99 @@
+package com.byvs.backend.service.document;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// Rendered documents on local disk, one file per cache key under <dir>/<type>/<key[0..2]>/. Keys are
+// content hashes, so an entry never goes stale; it is only removed once unused for max-age
+@Component
+@Slf4j
+public class RenderCache {
+
+    private final Path root;
+    private final Duration maxAge;
+
+    public RenderCache(@Value("${render.cache.dir}") Path root,
+                       @Value("${render.cache.max-age:P30D}") Duration maxAge) throws IOException {
+        this.root = Files.createDirectories(root);
+        this.maxAge = maxAge;
+    }
+
+    public Optional<Path> get(DocumentType type, String key, DocumentFormat format) {
+        Path path = path(type, key, format);
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        touch(path);
+        return Optional.of(path);
+    }
+
+    // Written to a temporary file and moved into place, so readers never see a partial file
+    public Path put(DocumentType type, String key, DocumentFormat format, byte[] content) {
+        Path path = path(type, key, format);
+        try {
+            Files.createDirectories(path.getParent());
+            Path temp = Files.createTempFile(path.getParent(), key, ".tmp");
+            try {
+                Files.write(temp, content);
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write render cache entry " + path, e);
+        }
+        return path;
+    }
+
+    @Scheduled(cron = "${render.cache.eviction-cron:0 45 4 * * *}")
+    public void evict() {
+        FileTime cutoff = FileTime.from(Instant.now().minus(maxAge));
+        AtomicLong removed = new AtomicLong();
+        try (Stream<Path> files = Files.walk(root)) {
+            files.filter(Files::isRegularFile).forEach(file -> {
+                try {
+                    if (Files.getLastModifiedTime(file).compareTo(cutoff) < 0 && Files.deleteIfExists(file)) {
+                        removed.incrementAndGet();
+                    }
+                } catch (IOException e) {
+                    log.warn("Could not evict render cache entry {}", file, e);
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Render cache eviction failed", e);
+        }
+        if (removed.get() > 0) {
+            log.info("Evicted {} render cache entries unused for {}", removed.get(), maxAge);
+        }
+    }
+
+    private Path path(DocumentType type, String key, DocumentFormat format) {
+        return root.resolve(type.getFileName()).resolve(key.substring(0, 2)).resolve(key + "." + format.getExtension());
+    }
+
+    // Refreshes the modification time at most once a day so hits keep an entry alive without a write per read
+    private void touch(Path path) {
+        try {
+            Instant now = Instant.now();
+            if (Files.getLastModifiedTime(path).toInstant().isBefore(now.minus(Duration.ofDays(1)))) {
+                Files.setLastModifiedTime(path, FileTime.from(now));
+            }
+        } catch (IOException e) {
+            log.debug("Could not touch render cache entry {}", path, e);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.byvs.backend.service.document;
+
+import java.nio.file.Path;
+
+public record RenderedDocument(Path path, String etag, DocumentFormat format, long size) {
+}
@@ -0,0 +1,78 @@
+package com.byvs.backend.service.email;
+
+import java.util.List;
+import java.util.Map;
+
+// A template rendered once by Thymeleaf with placeholder values and split at the placeholders:
+// rendering only interleaves the static segments with the HTML-escaped variable values
+public final class CompiledEmailTemplate {
+
+    private final String name;
+    private final int year;
+    private final String[] segments;
+    private final String[] slots;
+    private final List<String> variables;
+    private final int staticLength;
+
+    CompiledEmailTemplate(String name, int year, String[] segments, String[] slots, List<String> variables) {
+        this.name = name;
+        this.year = year;
+        this.segments = segments;
+        this.slots = slots;
+        this.variables = variables;
+        int length = 0;
+        for (String segment : segments) {
+            length += segment.length();
+        }
+        this.staticLength = length;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public List<String> getVariables() {
+        return variables;
+    }
+
+    public int getStaticLength() {
+        return staticLength;
+    }
+
+    // Null values are rejected by the caller: Thymeleaf renders them differently depending on the expression
+    public boolean accepts(Map<String, ?> values) {
+        for (String variable : variables) {
+            if (values.get(variable) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void render(Map<String, ?> values, StringBuilder out) {
+        out.append(segments[0]);
+        for (int i = 0; i < slots.length; i++) {
+            escapeHtml(String.valueOf(values.get(slots[i])), out);
+            out.append(segments[i + 1]);
+        }
+    }
+
+    // Same output as Thymeleaf's th:text/th:attr escaping (unbescape escapeHtml4Xml, level 1)
+    static void escapeHtml(String value, StringBuilder out) {
+        for (int i = 0, n = value.length(); i < n; i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
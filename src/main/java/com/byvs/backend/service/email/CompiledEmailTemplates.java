@@ -0,0 +1,158 @@
+package com.byvs.backend.service.email;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Compiles each email template once into static segments and variable slots. Templates whose
+// structure depends on variable values (th:if, th:each, ...) are left to the Thymeleaf engine
+@Component
+@Slf4j
+public class CompiledEmailTemplates {
+
+    private static final Pattern VARIABLE = Pattern.compile("\\$\\{(\\w+)}");
+    private static final Pattern STRUCTURAL = Pattern.compile(
+            "th:(if|unless|each|switch|case|insert|replace|include|remove|with|utext|block)\\b");
+    private static final String SLOT_PREFIX = "__byvs_slot_";
+    private static final String SLOT_SUFFIX = "__";
+    private static final int MAX_BUFFER_CAPACITY = 64 * 1024;
+
+    private final TemplateEngine templateEngine;
+    private final ResourceLoader resourceLoader;
+    private final String prefix;
+    private final String suffix;
+    private final Map<String, Holder> compiled = new ConcurrentHashMap<>();
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(16 * 1024));
+
+    public CompiledEmailTemplates(TemplateEngine templateEngine,
+                                  ResourceLoader resourceLoader,
+                                  @Value("${spring.thymeleaf.prefix:classpath:/templates/}") String prefix,
+                                  @Value("${spring.thymeleaf.suffix:.html}") String suffix) {
+        this.templateEngine = templateEngine;
+        this.resourceLoader = resourceLoader;
+        this.prefix = prefix;
+        this.suffix = suffix;
+    }
+
+    public String render(String template, Map<String, ?> variables) {
+        Optional<CompiledEmailTemplate> compiledTemplate = get(template);
+        if (compiledTemplate.isEmpty() || !compiledTemplate.get().accepts(variables)) {
+            return process(template, variables);
+        }
+        StringBuilder buffer = buffers.get();
+        buffer.setLength(0);
+        compiledTemplate.get().render(variables, buffer);
+        String html = buffer.toString();
+        if (buffer.capacity() > MAX_BUFFER_CAPACITY) {
+            buffers.remove();
+        }
+        return html;
+    }
+
+    public Optional<CompiledEmailTemplate> get(String template) {
+        // Templates print the current year, so a compiled form is only valid for the year it was built in
+        int year = Year.now().getValue();
+        Holder holder = compiled.get(template);
+        if (holder == null || holder.year() != year) {
+            holder = compiled.compute(template, (name, existing) ->
+                    existing != null && existing.year() == year ? existing : new Holder(year, compile(name, year)));
+        }
+        return holder.template();
+    }
+
+    private Optional<CompiledEmailTemplate> compile(String template, int year) {
+        String source;
+        try {
+            source = readSource(template);
+        } catch (IOException e) {
+            log.warn("Could not read email template {}, rendering with Thymeleaf", template, e);
+            return Optional.empty();
+        }
+        if (STRUCTURAL.matcher(source).find() || source.contains(SLOT_PREFIX)) {
+            log.info("Email template {} has value-dependent structure, rendering with Thymeleaf", template);
+            return Optional.empty();
+        }
+
+        Set<String> names = new LinkedHashSet<>();
+        Matcher matcher = VARIABLE.matcher(source);
+        while (matcher.find()) {
+            names.add(matcher.group(1));
+        }
+        List<String> variables = List.copyOf(names);
+        Map<String, Object> placeholders = new LinkedHashMap<>();
+        for (int i = 0; i < variables.size(); i++) {
+            placeholders.put(variables.get(i), SLOT_PREFIX + i + SLOT_SUFFIX);
+        }
+
+        CompiledEmailTemplate compiledTemplate = split(template, year, process(template, placeholders), variables);
+        if (!matchesEngine(compiledTemplate)) {
+            log.warn("Compiled email template {} does not match Thymeleaf output, rendering with Thymeleaf", template);
+            return Optional.empty();
+        }
+        log.info("Compiled email template {} with {} slots", template, variables.size());
+        return Optional.of(compiledTemplate);
+    }
+
+    private CompiledEmailTemplate split(String template, int year, String rendered, List<String> variables) {
+        List<String> segments = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        int start = 0;
+        int index = rendered.indexOf(SLOT_PREFIX);
+        while (index >= 0) {
+            int end = rendered.indexOf(SLOT_SUFFIX, index + SLOT_PREFIX.length());
+            int slot = Integer.parseInt(rendered.substring(index + SLOT_PREFIX.length(), end));
+            segments.add(rendered.substring(start, index));
+            slots.add(variables.get(slot));
+            start = end + SLOT_SUFFIX.length();
+            index = rendered.indexOf(SLOT_PREFIX, start);
+        }
+        segments.add(rendered.substring(start));
+        return new CompiledEmailTemplate(template, year, segments.toArray(new String[0]), slots.toArray(new String[0]), variables);
+    }
+
+    // Renders probe values that need escaping through both paths; any difference disables the compiled form
+    private boolean matchesEngine(CompiledEmailTemplate compiledTemplate) {
+        for (String probe : new String[]{"A & B <x> \"q\" 'a'", "राम कुमार"}) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            compiledTemplate.getVariables().forEach(variable -> values.put(variable, probe + ":" + variable));
+            StringBuilder out = new StringBuilder();
+            compiledTemplate.render(values, out);
+            if (!out.toString().equals(process(compiledTemplate.getName(), values))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String process(String template, Map<String, ?> variables) {
+        Context context = new Context();
+        variables.forEach(context::setVariable);
+        return templateEngine.process(template, context);
+    }
+
+    private String readSource(String template) throws IOException {
+        Resource resource = resourceLoader.getResource(prefix + template + suffix);
+        return resource.getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private record Holder(int year, Optional<CompiledEmailTemplate> template) {
+    }
+}
@@ -0,0 +1,198 @@
+package com.byvs.backend.service.email;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Delivers email_outbox rows: claim a batch with FOR UPDATE SKIP LOCKED, send it over one SMTP
+// connection outside the transaction, then record the outcome with exponential backoff for failures
+@Component
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailOutboxRepository outboxRepository;
+    private final EmailRenderer emailRenderer;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final AsyncTaskExecutor emailExecutor;
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final Timer deliveryLag;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    public EmailOutboxDispatcher(EmailOutboxRepository outboxRepository,
+                                 EmailRenderer emailRenderer,
+                                 JavaMailSender mailSender,
+                                 TransactionTemplate transactionTemplate,
+                                 MeterRegistry meterRegistry,
+                                 @Qualifier("emailExecutor") AsyncTaskExecutor emailExecutor,
+                                 @Value("${email.outbox.batch-size:50}") int batchSize,
+                                 @Value("${email.outbox.max-attempts:8}") int maxAttempts,
+                                 @Value("${email.outbox.lease:PT5M}") Duration lease,
+                                 @Value("${email.outbox.initial-backoff:PT30S}") Duration initialBackoff,
+                                 @Value("${email.outbox.max-backoff:PT1H}") Duration maxBackoff) {
+        this.outboxRepository = outboxRepository;
+        this.emailRenderer = emailRenderer;
+        this.mailSender = mailSender;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.emailExecutor = emailExecutor;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.lease = lease;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        meterRegistry.gauge("byvs.email.outbox.backlog", backlog);
+        this.deliveryLag = Timer.builder("byvs.email.outbox.delivery.lag")
+                .description("Time from enqueue to successful delivery")
+                .register(meterRegistry);
+    }
+
+    // Passes run on the email executor so a slow SMTP server holds its own thread, not a scheduler
+    // thread. A tick that finds a pass in flight is skipped rather than queued behind it, so the
+    // executor's rejection count only reflects real overload
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval:PT5S}")
+    public void dispatch() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            emailExecutor.execute(() -> {
+                try {
+                    drain();
+                } finally {
+                    draining.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            draining.set(false);
+            throw e;
+        }
+    }
+
+    private void drain() {
+        List<EmailOutbox> batch;
+        do {
+            batch = claim();
+            if (!batch.isEmpty()) {
+                deliver(batch);
+            }
+        } while (batch.size() == batchSize);
+        backlog.set(outboxRepository.countByStatus(EmailOutboxStatus.PENDING));
+    }
+
+    // Pushing next_attempt_at out by the lease hides the rows from other dispatchers without
+    // holding row locks (or a connection) during SMTP; a crashed dispatcher's rows reappear after it
+    private List<EmailOutbox> claim() {
+        return transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<EmailOutbox> due = outboxRepository.lockDue(now, batchSize);
+            if (!due.isEmpty()) {
+                outboxRepository.lease(due.stream().map(EmailOutbox::getId).toList(), now.plus(lease));
+            }
+            return due;
+        });
+    }
+
+    private void deliver(List<EmailOutbox> batch) {
+        Map<MimeMessage, EmailOutbox> messages = new IdentityHashMap<>();
+        Map<Long, String> failures = new HashMap<>();
+        for (EmailOutbox email : batch) {
+            try {
+                messages.put(emailRenderer.render(email), email);
+            } catch (Exception e) {
+                failures.put(email.getId(), "Render failed: " + e.getMessage());
+            }
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            if (!messages.isEmpty()) {
+                // JavaMailSender sends the whole array over a single transport connection
+                mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+            }
+        } catch (MailSendException e) {
+            outcome = "partial";
+            e.getFailedMessages().forEach((message, cause) -> {
+                EmailOutbox email = messages.get(message);
+                if (email != null) {
+                    failures.put(email.getId(), cause.getMessage());
+                }
+            });
+            if (e.getFailedMessages().isEmpty()) {
+                outcome = "failure";
+                messages.values().forEach(email -> failures.put(email.getId(), e.getMessage()));
+            }
+        } catch (MailException e) {
+            outcome = "failure";
+            messages.values().forEach(email -> failures.put(email.getId(), e.getMessage()));
+        }
+        sample.stop(Timer.builder("byvs.email.send")
+                .description("SMTP send time for one outbox batch")
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+
+        Instant now = Instant.now();
+        List<EmailOutbox> sent = batch.stream()
+                .filter(email -> !failures.containsKey(email.getId()))
+                .toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sent.isEmpty()) {
+                outboxRepository.markSent(sent.stream().map(EmailOutbox::getId).toList(), now);
+            }
+            for (EmailOutbox email : batch) {
+                String error = failures.get(email.getId());
+                if (error != null) {
+                    recordFailure(email, error, now);
+                }
+            }
+        });
+        sent.forEach(email -> deliveryLag.record(Duration.between(email.getCreatedAt(), now)));
+        if (!failures.isEmpty()) {
+            log.warn("Failed to deliver {} of {} outbox emails", failures.size(), batch.size());
+        }
+    }
+
+    private void recordFailure(EmailOutbox email, String error, Instant now) {
+        int attempts = email.getAttempts() + 1;
+        EmailOutboxStatus status = attempts >= maxAttempts ? EmailOutboxStatus.FAILED : EmailOutboxStatus.PENDING;
+        if (status == EmailOutboxStatus.FAILED) {
+            log.error("Giving up on outbox email {} to {} after {} attempts: {}",
+                    email.getId(), email.getRecipient(), attempts, error);
+        }
+        String lastError = error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        outboxRepository.markFailed(email.getId(), status, attempts, now.plus(backoff(attempts)), lastError);
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+}
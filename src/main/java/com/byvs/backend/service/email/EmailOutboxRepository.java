@@ -0,0 +1,41 @@
+package com.byvs.backend.service.email;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    // Rows locked by another dispatcher are skipped rather than waited on
+    @Query(value = "SELECT * FROM email_outbox " +
+            "WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+            "ORDER BY next_attempt_at " +
+            "LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<EmailOutbox> lockDue(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.nextAttemptAt = :leaseUntil WHERE e.id IN :ids")
+    int lease(@Param("ids") Collection<Long> ids, @Param("leaseUntil") Instant leaseUntil);
+
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = 'SENT', e.sentAt = :sentAt, e.attempts = e.attempts + 1, " +
+            "e.lastError = null WHERE e.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") Instant sentAt);
+
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = :status, e.attempts = :attempts, " +
+            "e.nextAttemptAt = :nextAttemptAt, e.lastError = :lastError WHERE e.id = :id")
+    int markFailed(@Param("id") Long id,
+                   @Param("status") EmailOutboxStatus status,
+                   @Param("attempts") int attempts,
+                   @Param("nextAttemptAt") Instant nextAttemptAt,
+                   @Param("lastError") String lastError);
+
+    long countByStatus(EmailOutboxStatus status);
+}
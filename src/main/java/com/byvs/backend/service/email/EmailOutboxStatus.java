@@ -0,0 +1,7 @@
+package com.byvs.backend.service.email;
+
+public enum EmailOutboxStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
@@ -0,0 +1,54 @@
+package com.byvs.backend.service.email;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+public class EmailRenderer {
+
+    private static final TypeReference<Map<String, Object>> VARIABLES_TYPE = new TypeReference<>() {
+    };
+
+    @Value("${spring.mail.username}")
+    private String fromEmail;
+
+    private final JavaMailSender mailSender;
+    private final CompiledEmailTemplates templates;
+    private final ObjectMapper objectMapper;
+
+    public EmailRenderer(JavaMailSender mailSender, CompiledEmailTemplates templates, ObjectMapper objectMapper) {
+        this.mailSender = mailSender;
+        this.templates = templates;
+        this.objectMapper = objectMapper;
+    }
+
+    public MimeMessage render(EmailOutbox email) throws MessagingException {
+        String htmlContent = templates.render(email.getTemplate(), readVariables(email));
+
+        // No attachments or inline images, so a single text/html part is enough
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, false, "UTF-8");
+        helper.setFrom(fromEmail);
+        helper.setTo(email.getRecipient());
+        helper.setSubject(email.getSubject());
+        helper.setText(htmlContent, true);
+        return message;
+    }
+
+    private Map<String, Object> readVariables(EmailOutbox email) {
+        try {
+            return objectMapper.readValue(email.getVariables(), VARIABLES_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable variables for outbox email " + email.getId(), e);
+        }
+    }
+}
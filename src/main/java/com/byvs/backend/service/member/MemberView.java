@@ -0,0 +1,75 @@
+package com.byvs.backend.service.member;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+// Denormalized copy of everything /auth/otp/me returns, keyed by user id
+@Entity
+@Table(name = "member_view")
+@Getter
+@Setter
+@NoArgsConstructor
+public class MemberView {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "phone", length = 32)
+    private String phone;
+
+    @Column(name = "full_name", length = 128)
+    private String fullName;
+
+    @Column(name = "referral_code", length = 16)
+    private String referralCode;
+
+    @Column(name = "verified_referrals", nullable = false)
+    private long verifiedReferrals;
+
+    @Column(name = "last_login_at")
+    private Instant lastLoginAt;
+
+    @Column(name = "state")
+    private String state;
+
+    @Column(name = "district")
+    private String district;
+
+    @Column(name = "age")
+    private Integer age;
+
+    @Column(name = "whatsapp_number")
+    private String whatsappNumber;
+
+    @Column(name = "village_town_city")
+    private String villageTownCity;
+
+    @Column(name = "block_name")
+    private String blockName;
+
+    @Column(name = "profession")
+    private String profession;
+
+    @Column(name = "institution_name")
+    private String institutionName;
+
+    @Column(name = "institution_address")
+    private String institutionAddress;
+
+    @Column(name = "joined_at")
+    private LocalDateTime joinedAt;
+
+    @Column(name = "membership_id")
+    private String membershipId;
+
+    @Column(name = "email")
+    private String email;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
@@ -0,0 +1,16 @@
+package com.byvs.backend.service.member;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface MemberViewRepository extends JpaRepository<MemberView, Long> {
+
+    @Modifying
+    @Query("UPDATE MemberView m SET m.verifiedReferrals = m.verifiedReferrals + 1, m.updatedAt = :now " +
+            "WHERE m.userId = :userId")
+    int incrementVerifiedReferrals(@Param("userId") Long userId, @Param("now") Instant now);
+}
@@ -0,0 +1,157 @@
+package com.byvs.backend.service.member;
+
+import com.byvs.backend.service.referral.ReferralEventRepository;
+import com.byvs.backend.service.replica.ReplicaRoutingDataSource;
+import com.byvs.backend.service.user.User;
+import com.byvs.backend.service.user.UserProfile;
+import com.byvs.backend.service.user.UserProfileRepository;
+import com.byvs.backend.service.user.UserRepository;
+import com.byvs.backend.service.util.TransactionCallbacks;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+public class MemberViewService {
+
+    private final MemberViewRepository memberViewRepository;
+    private final UserRepository userRepository;
+    private final UserProfileRepository userProfileRepository;
+    private final ReferralEventRepository referralEventRepository;
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, byte[]> jsonCache;
+    private final TransactionTemplate rebuildTransaction;
+
+    public MemberViewService(MemberViewRepository memberViewRepository,
+                             UserRepository userRepository,
+                             UserProfileRepository userProfileRepository,
+                             ReferralEventRepository referralEventRepository,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${member-view.cache.max-size:50000}") long maxSize,
+                             @Value("${member-view.cache.ttl:PT10M}") Duration ttl) {
+        this.memberViewRepository = memberViewRepository;
+        this.userRepository = userRepository;
+        this.userProfileRepository = userProfileRepository;
+        this.referralEventRepository = referralEventRepository;
+        this.objectMapper = objectMapper;
+        this.jsonCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.rebuildTransaction = new TransactionTemplate(transactionManager);
+        this.rebuildTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Serialized /me body: a cache hit, else one primary-key read (the row is rebuilt if it is missing).
+    // Read-only, so it can use a replica; a rebuild writes, so it runs in a transaction of its own.
+    // Only primary reads are cached: a replica may not have the write that last invalidated the entry
+    @Transactional(readOnly = true)
+    public byte[] getJson(Long userId) {
+        byte[][] read = new byte[1][];
+        // A null load is not cached; loading through the cache keeps an invalidation from racing the put
+        byte[] cached = jsonCache.get(userId, id -> {
+            read[0] = toJson(memberViewRepository.findById(id)
+                    .orElseGet(() -> rebuildTransaction.execute(status -> memberViewRepository.save(build(id)))));
+            return ReplicaRoutingDataSource.isCurrentTransactionOnReplica() ? null : read[0];
+        });
+        return cached != null ? cached : read[0];
+    }
+
+    @Transactional
+    public void refresh(Long userId) {
+        memberViewRepository.save(build(userId));
+        TransactionCallbacks.afterCommit(() -> jsonCache.invalidate(userId));
+    }
+
+    @Transactional
+    public void incrementVerifiedReferrals(Long userId) {
+        memberViewRepository.incrementVerifiedReferrals(userId, Instant.now());
+        TransactionCallbacks.afterCommit(() -> jsonCache.invalidate(userId));
+    }
+
+    public void evict(Long userId) {
+        TransactionCallbacks.afterCommit(() -> jsonCache.invalidate(userId));
+    }
+
+    public void evictAll(Collection<Long> userIds) {
+        TransactionCallbacks.afterCommit(() -> jsonCache.invalidateAll(userIds));
+    }
+
+    private MemberView build(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        UserProfile profile = userProfileRepository.findByUserId(userId)
+                .orElse(new UserProfile());
+
+        MemberView view = new MemberView();
+        view.setUserId(user.getId());
+        view.setPhone(user.getPhone());
+        view.setFullName(user.getFullName());
+        view.setReferralCode(user.getReferralCode());
+        view.setVerifiedReferrals(referralEventRepository.countVerifiedReferrals(userId));
+        // The cached User may predate the last write-behind flush; saving its value would move the column back
+        view.setLastLoginAt(userRepository.findLastLoginAt(userId));
+        view.setState(profile.getState());
+        view.setDistrict(profile.getDistrict());
+        view.setAge(profile.getAge());
+        view.setWhatsappNumber(profile.getWhatsappNumber());
+        view.setVillageTownCity(profile.getVillageTownCity());
+        view.setBlockName(profile.getBlockName());
+        view.setProfession(profile.getProfession());
+        view.setInstitutionName(profile.getInstitutionName());
+        view.setInstitutionAddress(profile.getInstitutionAddress());
+        view.setJoinedAt(profile.getJoinedAt());
+        view.setMembershipId(profile.getMembershipId());
+        view.setEmail(profile.getEmail());
+        view.setUpdatedAt(Instant.now());
+        return view;
+    }
+
+    private byte[] toJson(MemberView view) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("userId", view.getUserId());
+        body.put("fullName", orEmpty(view.getFullName()));
+        body.put("phone", orEmpty(view.getPhone()));
+        body.put("referralCode", orEmpty(view.getReferralCode()));
+        body.put("verifiedReferrals", view.getVerifiedReferrals());
+        body.put("lastLogin", orEmpty(view.getLastLoginAt()));
+        body.put("state", orEmpty(view.getState()));
+        body.put("district", orEmpty(view.getDistrict()));
+        body.put("age", orEmpty(view.getAge()));
+        body.put("whatsappNumber", orEmpty(view.getWhatsappNumber()));
+        body.put("villageTownCity", orEmpty(view.getVillageTownCity()));
+        body.put("blockName", orEmpty(view.getBlockName()));
+        body.put("profession", orEmpty(view.getProfession()));
+        body.put("institutionName", orEmpty(view.getInstitutionName()));
+        body.put("institutionAddress", orEmpty(view.getInstitutionAddress()));
+        body.put("joinedDate", view.getJoinedAt() != null
+                ? view.getJoinedAt().atZone(ZoneId.systemDefault()).toLocalDate().toString()
+                : "");
+        body.put("membershipId", orEmpty(view.getMembershipId()));
+        body.put("email", orEmpty(view.getEmail()));
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize member view " + view.getUserId(), e);
+        }
+    }
+
+    private static Object orEmpty(Object value) {
+        return value != null ? value : "";
+    }
+}
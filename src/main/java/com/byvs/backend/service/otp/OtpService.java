@@ -2,6 +2,9 @@ package com.byvs.backend.service.otp;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -10,64 +13,83 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class OtpService {
 
-    private final Cache<String, String> otpCache;
+    private final Cache<String, IssuedOtp> otpCache;
     private final Map<String, RequestWindow> rateLimitMap = new ConcurrentHashMap<>();
     private final int ttlMinutes;
     private final int maxRequestsPer5m;
     private final SecureRandom random = new SecureRandom();
+    private final Counter issued;
+    private final Counter rateLimited;
+    private final Counter verified;
+    private final Counter rejected;
+    private final Timer timeToVerify;
 
     public OtpService(@Value("${otp.ttl-minutes:5}") int ttlMinutes,
-                      @Value("${otp.max-requests-per-5m:3}") int maxRequestsPer5m) {
+                      @Value("${otp.max-requests-per-5m:3}") int maxRequestsPer5m,
+                      MeterRegistry meterRegistry) {
         this.ttlMinutes = ttlMinutes;
         this.maxRequestsPer5m = maxRequestsPer5m;
         this.otpCache = Caffeine.newBuilder()
             .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
             .maximumSize(100_000)
             .build();
+        this.issued = meterRegistry.counter("byvs.otp.issued", "outcome", "issued");
+        this.rateLimited = meterRegistry.counter("byvs.otp.issued", "outcome", "rate_limited");
+        this.verified = meterRegistry.counter("byvs.otp.verified", "outcome", "valid");
+        this.rejected = meterRegistry.counter("byvs.otp.verified", "outcome", "invalid");
+        // Issue to successful verify: covers the SMS leg end to end, including gateway and carrier delay
+        this.timeToVerify = Timer.builder("byvs.otp.time.to.verify")
+                .description("Time from issuing an OTP to its successful verification")
+                .register(meterRegistry);
     }
 
     public String generateAndStore(String phone) {
-        enforceRateLimit(phone);
+        try {
+            enforceRateLimit(phone);
+        } catch (OtpRateLimitException e) {
+            rateLimited.increment();
+            throw e;
+        }
         String otp = String.format("%05d", random.nextInt(100_000));
-        otpCache.put(phone, otp);
+        otpCache.put(phone, new IssuedOtp(otp, System.nanoTime()));
+        issued.increment();
         return otp;
     }
 
     public boolean verifyAndInvalidate(String phone, String provided) {
-        String expected = otpCache.getIfPresent(phone);
-        if (expected != null && expected.equals(provided)) {
+        IssuedOtp expected = otpCache.getIfPresent(phone);
+        if (expected != null && expected.code().equals(provided)) {
             otpCache.invalidate(phone);
+            verified.increment();
+            timeToVerify.record(System.nanoTime() - expected.issuedAt(), TimeUnit.NANOSECONDS);
             return true;
         }
+        rejected.increment();
         return false;
     }
 
+    // Check and increment in one atomic compute on an immutable window, with no monitor of our own
     private void enforceRateLimit(String phone) {
-        RequestWindow window = rateLimitMap.computeIfAbsent(phone, k -> new RequestWindow());
-        synchronized (window) {
+        rateLimitMap.compute(phone, (k, window) -> {
             Instant now = Instant.now();
-            if (window.resetAt.isBefore(now)) {
-                window.reset(now.plus(Duration.ofMinutes(5)));
+            if (window == null || window.resetAt().isBefore(now)) {
+                window = new RequestWindow(0, now.plus(Duration.ofMinutes(5)));
             }
-            if (window.count >= maxRequestsPer5m) {
+            if (window.count() >= maxRequestsPer5m) {
                 throw new OtpRateLimitException("Too many OTP requests. Please try again later.");
             }
-            window.count++;
-        }
+            return new RequestWindow(window.count() + 1, window.resetAt());
+        });
     }
 
-    private static class RequestWindow {
-        int count = 0;
-        Instant resetAt = Instant.EPOCH;
-        void reset(Instant next) {
-            count = 0;
-            resetAt = next;
-        }
+    private record RequestWindow(int count, Instant resetAt) {
     }
-}
-
 
+    private record IssuedOtp(String code, long issuedAt) {
+    }
+}
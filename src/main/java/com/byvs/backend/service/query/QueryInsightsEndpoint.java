@@ -0,0 +1,118 @@
+package com.byvs.backend.service.query;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// /actuator/queries: slowest statement origins, recent slow statements and Hibernate statistics in
+// one place. DELETE clears the slow-statement buffer and the Hibernate counters
+@Component
+@Endpoint(id = "queries")
+public class QueryInsightsEndpoint {
+
+    private static final int TOP = 20;
+
+    private final SlowQueryLog slowQueryLog;
+    private final MeterRegistry meterRegistry;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public QueryInsightsEndpoint(SlowQueryLog slowQueryLog,
+                                 MeterRegistry meterRegistry,
+                                 EntityManagerFactory entityManagerFactory) {
+        this.slowQueryLog = slowQueryLog;
+        this.meterRegistry = meterRegistry;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @ReadOperation
+    public Map<String, Object> queries() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("slowQueryThresholdMillis", slowQueryLog.getThreshold().toMillis());
+        body.put("slowQueriesCaptured", slowQueryLog.getTotalCaptured());
+        body.put("topOriginsByTotalTime", topOrigins());
+        body.put("slowQueries", slowQueryLog.snapshot());
+        body.put("hibernate", hibernate());
+        return body;
+    }
+
+    @DeleteOperation
+    public void clear() {
+        slowQueryLog.clear();
+        entityManagerFactory.unwrap(SessionFactory.class).getStatistics().clear();
+    }
+
+    private List<Map<String, Object>> topOrigins() {
+        return meterRegistry.find("byvs.db.statement").timers().stream()
+                .sorted(Comparator.comparingDouble((Timer timer) -> timer.totalTime(TimeUnit.MILLISECONDS)).reversed())
+                .limit(TOP)
+                .map(timer -> {
+                    Map<String, Object> origin = new LinkedHashMap<>();
+                    origin.put("origin", timer.getId().getTag("origin"));
+                    origin.put("outcome", timer.getId().getTag("outcome"));
+                    origin.put("count", timer.count());
+                    origin.put("totalMillis", round(timer.totalTime(TimeUnit.MILLISECONDS)));
+                    origin.put("meanMillis", round(timer.mean(TimeUnit.MILLISECONDS)));
+                    origin.put("maxMillis", round(timer.max(TimeUnit.MILLISECONDS)));
+                    return origin;
+                })
+                .toList();
+    }
+
+    private Map<String, Object> hibernate() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Object> hibernate = new LinkedHashMap<>();
+        hibernate.put("enabled", statistics.isStatisticsEnabled());
+        if (!statistics.isStatisticsEnabled()) {
+            return hibernate;
+        }
+        hibernate.put("since", statistics.getStart());
+        hibernate.put("prepareStatementCount", statistics.getPrepareStatementCount());
+        hibernate.put("queryExecutionCount", statistics.getQueryExecutionCount());
+        hibernate.put("queryExecutionMaxTimeMillis", statistics.getQueryExecutionMaxTime());
+        hibernate.put("queryExecutionMaxTimeQuery", statistics.getQueryExecutionMaxTimeQueryString());
+        hibernate.put("entityLoadCount", statistics.getEntityLoadCount());
+        hibernate.put("entityFetchCount", statistics.getEntityFetchCount());
+        hibernate.put("collectionFetchCount", statistics.getCollectionFetchCount());
+        hibernate.put("flushCount", statistics.getFlushCount());
+        hibernate.put("transactionCount", statistics.getTransactionCount());
+        hibernate.put("secondLevelCacheHitCount", statistics.getSecondLevelCacheHitCount());
+        hibernate.put("secondLevelCacheMissCount", statistics.getSecondLevelCacheMissCount());
+        hibernate.put("secondLevelCachePutCount", statistics.getSecondLevelCachePutCount());
+        hibernate.put("topQueriesByTotalTime", Arrays.stream(statistics.getQueries())
+                .map(query -> Map.entry(query, statistics.getQueryStatistics(query)))
+                .sorted(Comparator.comparingLong((Map.Entry<String, QueryStatistics> entry) ->
+                        entry.getValue().getExecutionTotalTime()).reversed())
+                .limit(TOP)
+                .map(entry -> {
+                    QueryStatistics query = entry.getValue();
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("query", entry.getKey());
+                    row.put("executions", query.getExecutionCount());
+                    row.put("totalMillis", query.getExecutionTotalTime());
+                    row.put("avgMillis", query.getExecutionAvgTime());
+                    row.put("maxMillis", query.getExecutionMaxTime());
+                    row.put("rows", query.getExecutionRowCount());
+                    return row;
+                })
+                .toList());
+        return hibernate;
+    }
+
+    private static double round(double millis) {
+        return Math.round(millis * 100) / 100.0;
+    }
+}
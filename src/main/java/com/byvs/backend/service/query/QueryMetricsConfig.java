@@ -0,0 +1,70 @@
+package com.byvs.backend.service.query;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class QueryMetricsConfig {
+
+    // Ordered last so the proxy wraps whatever other post-processors made of the pool
+    @Bean
+    public static BeanPostProcessor queryMetricsDataSourceProxy(ObjectProvider<MeterRegistry> meterRegistry,
+                                                                ObjectProvider<SlowQueryLog> slowQueryLog) {
+        return new DataSourceProxyPostProcessor(meterRegistry, slowQueryLog);
+    }
+
+    @Bean
+    public static BeanPostProcessor repositoryMethodTagging() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repository) -> proxyFactory.addAdvice(
+                                    new RepositoryMethodInterceptor(repository.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    static class DataSourceProxyPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<MeterRegistry> meterRegistry;
+        private final ObjectProvider<SlowQueryLog> slowQueryLog;
+
+        DataSourceProxyPostProcessor(ObjectProvider<MeterRegistry> meterRegistry, ObjectProvider<SlowQueryLog> slowQueryLog) {
+            this.meterRegistry = meterRegistry;
+            this.slowQueryLog = slowQueryLog;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            // A lazy proxy only defers to the pools under it, which are proxied themselves
+            if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)
+                    && !(bean instanceof LazyConnectionDataSourceProxy)) {
+                // Resolved on first use: creating the registry this early would skip its own post-processing
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(new QueryMetricsListener(meterRegistry::getObject, slowQueryLog::getObject))
+                        .build();
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.byvs.backend.service.query;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.springframework.util.function.SingletonSupplier;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// Times every JDBC execution (a batch counts once) by origin and pool, adds it to the current request's
+// totals and keeps the slow ones. Timers are cached per origin; the set of origins is the set of
+// call sites in the code, so it stays small
+public class QueryMetricsListener implements QueryExecutionListener {
+
+    private static final String STARTED_AT = QueryMetricsListener.class.getName() + ".startedAt";
+    private static final int MAX_SQL_LENGTH = 2000;
+
+    private final Supplier<MeterRegistry> meterRegistry;
+    private final Supplier<SlowQueryLog> slowQueryLog;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public QueryMetricsListener(Supplier<MeterRegistry> meterRegistry, Supplier<SlowQueryLog> slowQueryLog) {
+        this.meterRegistry = SingletonSupplier.of(meterRegistry);
+        this.slowQueryLog = SingletonSupplier.of(slowQueryLog);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(STARTED_AT, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long startedAt = execInfo.getCustomValue(STARTED_AT, Long.class);
+        long elapsed = startedAt == null ? TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime()) : System.nanoTime() - startedAt;
+        SlowQueryLog slow = slowQueryLog.get();
+        boolean isSlow = slow.isSlow(elapsed);
+        String origin = QueryOrigin.current(queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery(), isSlow);
+        String outcome = execInfo.isSuccess() ? "success" : "failure";
+        String dataSource = execInfo.getDataSourceName();
+        timers.computeIfAbsent(origin + '\u0000' + outcome + '\u0000' + dataSource, key -> Timer.builder("byvs.db.statement")
+                        .description("JDBC statement execution by the repository method or class that issued it")
+                        .tag("origin", origin)
+                        .tag("outcome", outcome)
+                        .tag("datasource", dataSource)
+                        .register(meterRegistry.get()))
+                .record(elapsed, TimeUnit.NANOSECONDS);
+
+        RequestQueryStats request = RequestQueryStats.current();
+        if (request != null) {
+            request.record(1, elapsed);
+        }
+        if (isSlow) {
+            slow.add(new SlowQuery(Instant.now(), TimeUnit.NANOSECONDS.toMillis(elapsed), origin,
+                    request == null ? null : request.getRoute(), sql(queryInfoList), parameterShapes(queryInfoList),
+                    execInfo.isBatch() ? execInfo.getBatchSize() : 0, execInfo.isSuccess()));
+        }
+    }
+
+    private static String sql(List<QueryInfo> queryInfoList) {
+        String sql = queryInfoList.stream().map(QueryInfo::getQuery).distinct().collect(Collectors.joining(";\n"));
+        return sql.length() > MAX_SQL_LENGTH ? sql.substring(0, MAX_SQL_LENGTH) + "..." : sql;
+    }
+
+    // Shapes of the first parameter set, in index order
+    private static List<String> parameterShapes(List<QueryInfo> queryInfoList) {
+        if (queryInfoList.isEmpty() || queryInfoList.get(0).getParametersList().isEmpty()) {
+            return List.of();
+        }
+        return queryInfoList.get(0).getParametersList().get(0).stream()
+                .sorted(Comparator.comparingInt(QueryMetricsListener::parameterIndex))
+                .map(QueryMetricsListener::shape)
+                .toList();
+    }
+
+    private static int parameterIndex(ParameterSetOperation operation) {
+        Object[] args = operation.getArgs();
+        return args.length > 0 && args[0] instanceof Integer index ? index : Integer.MAX_VALUE;
+    }
+
+    private static String shape(ParameterSetOperation operation) {
+        if (ParameterSetOperation.isSetNullParameterOperation(operation)) {
+            return "null";
+        }
+        Object[] args = operation.getArgs();
+        Object value = args.length > 1 ? args[1] : null;
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof CharSequence text) {
+            return "String(" + text.length() + ")";
+        }
+        if (value instanceof byte[] bytes) {
+            return "bytes(" + bytes.length + ")";
+        }
+        if (value instanceof java.sql.Array) {
+            return "Array";
+        }
+        return value.getClass().getSimpleName();
+    }
+}
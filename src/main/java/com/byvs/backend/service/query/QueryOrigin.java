@@ -0,0 +1,83 @@
+package com.byvs.backend.service.query;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Names the code that issued a statement: the Spring Data repository method being invoked, or, for
+// JdbcTemplate and flushes outside a repository call, the nearest application frame on the stack.
+// Stack walks are sampled per SQL text: in between, a statement takes the origin last walked for the
+// same SQL, so SQL shared by several call sites (entity flushes) goes to the most recently sampled one
+public final class QueryOrigin {
+
+    private static final String APPLICATION_PACKAGE = "com.byvs.backend.service.";
+    private static final String OWN_PACKAGE = QueryOrigin.class.getPackageName() + ".";
+    private static final StackWalker WALKER = StackWalker.getInstance();
+    private static final ThreadLocal<String> REPOSITORY_METHOD = new ThreadLocal<>();
+    private static final int SAMPLE_INTERVAL = 64;
+    // SQL built with literals would grow the cache without bound; past this it walks every time
+    private static final int MAX_CACHED_SQL = 5000;
+    private static final ConcurrentHashMap<String, Sampled> BY_SQL = new ConcurrentHashMap<>();
+
+    private static final class Sampled {
+
+        private final AtomicInteger statements = new AtomicInteger();
+        private volatile String origin;
+    }
+
+    private QueryOrigin() {
+    }
+
+    // Returns the previous value so nested repository calls restore the outer one
+    static String enter(String repositoryMethod) {
+        String previous = REPOSITORY_METHOD.get();
+        REPOSITORY_METHOD.set(repositoryMethod);
+        return previous;
+    }
+
+    static void exit(String previous) {
+        if (previous == null) {
+            REPOSITORY_METHOD.remove();
+        } else {
+            REPOSITORY_METHOD.set(previous);
+        }
+    }
+
+    // Walks the stack for the first statement of a SQL text, every SAMPLE_INTERVAL-th after it, and
+    // whenever exact is set (slow statements, whose origin is logged)
+    public static String current(String sql, boolean exact) {
+        String repositoryMethod = REPOSITORY_METHOD.get();
+        if (repositoryMethod != null) {
+            return repositoryMethod;
+        }
+        Sampled sampled = BY_SQL.get(sql);
+        if (sampled == null) {
+            if (BY_SQL.size() >= MAX_CACHED_SQL) {
+                return walk();
+            }
+            sampled = BY_SQL.computeIfAbsent(sql, key -> new Sampled());
+        }
+        String origin = sampled.origin;
+        if (exact || origin == null || sampled.statements.incrementAndGet() % SAMPLE_INTERVAL == 0) {
+            origin = walk();
+            sampled.origin = origin;
+        }
+        return origin;
+    }
+
+    private static String walk() {
+        Optional<String> caller = WALKER.walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(APPLICATION_PACKAGE)
+                        && !frame.getClassName().startsWith(OWN_PACKAGE)
+                        && !frame.getClassName().contains("$$"))
+                .findFirst()
+                .map(frame -> simpleName(frame.getClassName()) + "." + frame.getMethodName()));
+        return caller.orElse("other");
+    }
+
+    private static String simpleName(String className) {
+        String name = className.substring(className.lastIndexOf('.') + 1);
+        int nested = name.indexOf('$');
+        return nested > 0 ? name.substring(0, nested) : name;
+    }
+}
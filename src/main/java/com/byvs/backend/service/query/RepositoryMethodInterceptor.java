@@ -0,0 +1,25 @@
+package com.byvs.backend.service.query;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+// Added to every Spring Data repository proxy so statements issued inside a repository call are
+// attributed to it, e.g. "ReferralEventRepository.countUsersAbove"
+class RepositoryMethodInterceptor implements MethodInterceptor {
+
+    private final String repositoryName;
+
+    RepositoryMethodInterceptor(Class<?> repositoryInterface) {
+        this.repositoryName = repositoryInterface.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        String previous = QueryOrigin.enter(repositoryName + "." + invocation.getMethod().getName());
+        try {
+            return invocation.proceed();
+        } finally {
+            QueryOrigin.exit(previous);
+        }
+    }
+}
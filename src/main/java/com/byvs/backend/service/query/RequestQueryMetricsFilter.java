@@ -0,0 +1,218 @@
+package com.byvs.backend.service.query;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Outermost filter, so statements from the security chain count towards the request too. Records
+// statements and database time per route, adds them as a Server-Timing header just before the
+// response starts, and checks the handler's @StatementBudget. In FAIL mode the response is buffered
+// until the handler returns, so statements issued while the body is written (lazy loads during
+// serialisation) still fail the request
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class RequestQueryMetricsFilter extends OncePerRequestFilter {
+
+    private static final int NO_BUDGET = 0;
+
+    private final MeterRegistry meterRegistry;
+    private final StatementBudgetMode budgetMode;
+    private final int defaultBudget;
+    private final boolean serverTiming;
+    private final Map<Method, Integer> budgets = new ConcurrentHashMap<>();
+
+    public RequestQueryMetricsFilter(MeterRegistry meterRegistry,
+                                     @Value("${db.statement-budget.mode:WARN}") StatementBudgetMode budgetMode,
+                                     @Value("${db.statement-budget.default:0}") int defaultBudget,
+                                     @Value("${db.server-timing.enabled:true}") boolean serverTiming) {
+        this.meterRegistry = meterRegistry;
+        this.budgetMode = budgetMode;
+        this.defaultBudget = defaultBudget;
+        this.serverTiming = serverTiming;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            // Streaming responses finish here; what they wrote is in the buffer of the first dispatch
+            filterChain.doFilter(request, response);
+            ContentCachingResponseWrapper buffered = WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+            if (buffered != null && !request.isAsyncStarted()) {
+                buffered.copyBodyToResponse();
+            }
+            return;
+        }
+        RequestQueryStats stats = RequestQueryStats.begin(request);
+        ContentCachingResponseWrapper buffered = budgetMode == StatementBudgetMode.FAIL
+                ? new ContentCachingResponseWrapper(response)
+                : null;
+        QueryTimingResponse timed = new QueryTimingResponse(buffered != null ? buffered : response, stats, System.nanoTime());
+        try {
+            filterChain.doFilter(request, timed);
+            // Responses without a body never asked for a stream
+            timed.beforeCommit(true);
+            if (buffered != null && !request.isAsyncStarted()) {
+                timed.checkBuffered();
+                buffered.copyBodyToResponse();
+            }
+        } finally {
+            RequestQueryStats.end();
+            String route = stats.getRoute();
+            if (route != null) {
+                record(route, stats);
+            }
+        }
+    }
+
+    // Async requests come back through here to release a buffered response
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return budgetMode != StatementBudgetMode.FAIL;
+    }
+
+    private void record(String route, RequestQueryStats stats) {
+        DistributionSummary.builder("byvs.db.request.statements")
+                .description("JDBC statements per HTTP request")
+                .tag("route", route)
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        Timer.builder("byvs.db.request.time")
+                .description("Time spent in JDBC per HTTP request")
+                .tag("route", route)
+                .register(meterRegistry)
+                .record(stats.getDatabaseNanos(), TimeUnit.NANOSECONDS);
+
+        int budget = budgetMode == StatementBudgetMode.OFF ? NO_BUDGET : budget(stats.getRequest());
+        if (budget != NO_BUDGET && stats.getStatements() > budget) {
+            meterRegistry.counter("byvs.db.request.over.budget", "route", route).increment();
+            log.warn("{} issued {} JDBC statements, over its budget of {}", route, stats.getStatements(), budget);
+        }
+    }
+
+    private int budget(HttpServletRequest request) {
+        if (!(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler)) {
+            return NO_BUDGET;
+        }
+        return budgets.computeIfAbsent(handler.getMethod(), method -> {
+            StatementBudget budget = AnnotatedElementUtils.findMergedAnnotation(method, StatementBudget.class);
+            if (budget == null) {
+                budget = AnnotatedElementUtils.findMergedAnnotation(handler.getBeanType(), StatementBudget.class);
+            }
+            return budget != null ? budget.value() : defaultBudget;
+        });
+    }
+
+    private class QueryTimingResponse extends HttpServletResponseWrapper {
+
+        private final RequestQueryStats stats;
+        private final long startedAt;
+        private boolean committing;
+
+        QueryTimingResponse(HttpServletResponse response, RequestQueryStats stats, long startedAt) {
+            super(response);
+            this.stats = stats;
+            this.startedAt = startedAt;
+        }
+
+        // Runs once, before the first byte; later statements (lazy loads while serialising) are
+        // only in the metrics and the budget warning, or in FAIL mode checked again by checkBuffered
+        void beforeCommit(boolean mayFail) {
+            if (committing || isCommitted()) {
+                return;
+            }
+            committing = true;
+            writeServerTiming();
+            if (mayFail) {
+                failOverBudget();
+            }
+        }
+
+        // The buffered body has not been sent yet: check again with everything issued while writing it
+        void checkBuffered() {
+            if (isCommitted() || getStatus() >= 400) {
+                return;
+            }
+            writeServerTiming();
+            failOverBudget();
+        }
+
+        private void writeServerTiming() {
+            if (serverTiming) {
+                setHeader("Server-Timing", String.format(Locale.ROOT, "db;dur=%.1f;desc=\"%d statements\", app;dur=%.1f",
+                        stats.getDatabaseNanos() / 1e6, stats.getStatements(), (System.nanoTime() - startedAt) / 1e6));
+            }
+        }
+
+        private void failOverBudget() {
+            if (budgetMode == StatementBudgetMode.FAIL) {
+                int budget = budget(stats.getRequest());
+                if (budget != NO_BUDGET && stats.getStatements() > budget) {
+                    throw new StatementBudgetExceededException(stats.getRoute(), stats.getStatements(), budget);
+                }
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            beforeCommit(true);
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            beforeCommit(true);
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            beforeCommit(true);
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            beforeCommit(false);
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            beforeCommit(false);
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            beforeCommit(true);
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.byvs.backend.service.query;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+// Statements and database time for the HTTP request on the current thread. Work handed to an
+// executor runs on another thread and is not counted against the request
+public final class RequestQueryStats {
+
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+
+    private final HttpServletRequest request;
+    private int statements;
+    private long databaseNanos;
+
+    private RequestQueryStats(HttpServletRequest request) {
+        this.request = request;
+    }
+
+    static RequestQueryStats begin(HttpServletRequest request) {
+        RequestQueryStats stats = new RequestQueryStats(request);
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    public static RequestQueryStats current() {
+        return CURRENT.get();
+    }
+
+    void record(int count, long nanos) {
+        statements += count;
+        databaseNanos += nanos;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getDatabaseNanos() {
+        return databaseNanos;
+    }
+
+    // The matched handler pattern, e.g. "GET /referrals/leaderboard/daily"; null before handler mapping
+    public String getRoute() {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? null : request.getMethod() + " " + pattern;
+    }
+
+    public HttpServletRequest getRequest() {
+        return request;
+    }
+}
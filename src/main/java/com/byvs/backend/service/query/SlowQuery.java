@@ -0,0 +1,15 @@
+package com.byvs.backend.service.query;
+
+import java.time.Instant;
+import java.util.List;
+
+// Parameter shapes are types and lengths only; bound values (phone numbers, OTPs) are never kept
+public record SlowQuery(Instant at,
+                        long elapsedMillis,
+                        String origin,
+                        String route,
+                        String sql,
+                        List<String> parameterShapes,
+                        int batchSize,
+                        boolean success) {
+}
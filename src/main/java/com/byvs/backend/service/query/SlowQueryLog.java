@@ -0,0 +1,65 @@
+package com.byvs.backend.service.query;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Fixed-size ring of the most recent slow statements. Writers claim a slot with one increment and
+// never block; a reader may see a slot overwritten mid-snapshot, which is fine for diagnostics
+@Component
+public class SlowQueryLog {
+
+    private final AtomicReferenceArray<SlowQuery> slots;
+    private final AtomicLong written = new AtomicLong();
+    private final long thresholdNanos;
+
+    public SlowQueryLog(@Value("${db.slow-query.capacity:200}") int capacity,
+                        @Value("${db.slow-query.threshold:PT0.2S}") Duration threshold) {
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.thresholdNanos = threshold.toNanos();
+    }
+
+    public boolean isSlow(long elapsedNanos) {
+        return elapsedNanos >= thresholdNanos;
+    }
+
+    public void add(SlowQuery query) {
+        long sequence = written.getAndIncrement();
+        slots.set((int) (sequence % slots.length()), query);
+    }
+
+    // Newest first
+    public List<SlowQuery> snapshot() {
+        long end = written.get();
+        long start = Math.max(0, end - slots.length());
+        List<SlowQuery> queries = new ArrayList<>((int) (end - start));
+        for (long sequence = end - 1; sequence >= start; sequence--) {
+            SlowQuery query = slots.get((int) (sequence % slots.length()));
+            if (query != null) {
+                queries.add(query);
+            }
+        }
+        return queries;
+    }
+
+    public long getTotalCaptured() {
+        return written.get();
+    }
+
+    public Duration getThreshold() {
+        return Duration.ofNanos(thresholdNanos);
+    }
+
+    // Resets the total as well, so getTotalCaptured counts from the last clear like the snapshot
+    public void clear() {
+        written.set(0);
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+    }
+}
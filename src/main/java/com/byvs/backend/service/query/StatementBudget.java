@@ -0,0 +1,17 @@
+package com.byvs.backend.service.query;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Most JDBC statements one request to this endpoint should issue, counting everything from the first
+// filter on. What happens past it is set by db.statement-budget.mode
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface StatementBudget {
+
+    int value();
+}
@@ -0,0 +1,8 @@
+package com.byvs.backend.service.query;
+
+public class StatementBudgetExceededException extends IllegalStateException {
+
+    public StatementBudgetExceededException(String route, int statements, int budget) {
+        super(route + " issued " + statements + " JDBC statements, over its budget of " + budget);
+    }
+}
@@ -0,0 +1,10 @@
+package com.byvs.backend.service.query;
+
+public enum StatementBudgetMode {
+    // Budgets are not checked
+    OFF,
+    // Over-budget requests are logged and counted
+    WARN,
+    // As WARN, and the request fails with a 500 if its response has not started yet; for tests
+    FAIL
+}
@@ -0,0 +1,48 @@
+package com.byvs.backend.service.referral;
+
+import java.util.Map;
+
+// Competition ranks ("1224") from the number of referrers at each verification count: a referrer's
+// rank is one plus the referrers with strictly more verifications. Built once per leaderboard page,
+// then each row is a binary search
+public final class LeaderboardRanks {
+
+    // Verification counts in ascending order, and how many referrers have at least each of them
+    private final long[] levels;
+    private final long[] atLeast;
+
+    private LeaderboardRanks(long[] levels, long[] atLeast) {
+        this.levels = levels;
+        this.atLeast = atLeast;
+    }
+
+    public static LeaderboardRanks of(Map<Long, Long> referrersByVerifications) {
+        long[] levels = referrersByVerifications.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        long[] atLeast = new long[levels.length];
+        long total = 0;
+        for (int i = levels.length - 1; i >= 0; i--) {
+            total += referrersByVerifications.get(levels[i]);
+            atLeast[i] = total;
+        }
+        return new LeaderboardRanks(levels, atLeast);
+    }
+
+    public long rankOf(long verifications) {
+        int higher = firstAbove(verifications);
+        return higher < levels.length ? atLeast[higher] + 1 : 1;
+    }
+
+    private int firstAbove(long verifications) {
+        int low = 0;
+        int high = levels.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (levels[mid] > verifications) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+}
@@ -3,7 +3,6 @@ package com.byvs.backend.service.referral;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
-import lombok.Getter;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
@@ -21,26 +20,21 @@ public class RateLimitService {
                 .build();
     }
 
+    // Checked and counted in one atomic compute on an immutable counter instead of synchronizing on a
+    // shared mutable one, which would pin a virtual thread to its carrier while held
     public void checkRateLimit(String key, int maxAttempts, Duration period) {
-        RateLimitCounter counter = rateLimitCache.get(key, k -> new RateLimitCounter());
-
-        synchronized (counter) {
-            if (counter.getCount() >= maxAttempts &&
-                    Instant.now().isBefore(counter.getLastAttempt().plus(period))) {
+        rateLimitCache.asMap().compute(key, (k, counter) -> {
+            Instant now = Instant.now();
+            if (counter == null) {
+                return new RateLimitCounter(1, now);
+            }
+            if (counter.count() >= maxAttempts && now.isBefore(counter.lastAttempt().plus(period))) {
                 throw new IllegalArgumentException("Too many attempts. Please try again later.");
             }
-            counter.increment();
-        }
+            return new RateLimitCounter(counter.count() + 1, now);
+        });
     }
 
-    @Getter
-    private static class RateLimitCounter {
-        private int count = 0;
-        private Instant lastAttempt = Instant.now();
-
-        public void increment() {
-            count++;
-            lastAttempt = Instant.now();
-        }
+    private record RateLimitCounter(int count, Instant lastAttempt) {
     }
-}
\ No newline at end of file
+}
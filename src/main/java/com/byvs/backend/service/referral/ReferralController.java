@@ -1,7 +1,10 @@
 package com.byvs.backend.service.referral;
 
+import com.byvs.backend.service.query.StatementBudget;
 import com.byvs.backend.service.user.User;
 import com.byvs.backend.service.user.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -28,15 +31,22 @@ public class ReferralController {
     private final ReferralEventRepository referralEventRepository;
     private final ReferralTrackingService referralTrackingService;
     private final RateLimitService rateLimitService;
+    private final Timer dailyLeaderboardTimer;
+    private final Timer weeklyLeaderboardTimer;
+    private final Timer monthlyLeaderboardTimer;
 
     public ReferralController(UserRepository userRepository,
                               ReferralEventRepository referralEventRepository,
                               ReferralTrackingService referralTrackingService,
-                              RateLimitService rateLimitService) {
+                              RateLimitService rateLimitService,
+                              MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
         this.referralEventRepository = referralEventRepository;
         this.referralTrackingService = referralTrackingService;
         this.rateLimitService = rateLimitService;
+        this.dailyLeaderboardTimer = leaderboardTimer(meterRegistry, "daily");
+        this.weeklyLeaderboardTimer = leaderboardTimer(meterRegistry, "weekly");
+        this.monthlyLeaderboardTimer = leaderboardTimer(meterRegistry, "monthly");
     }
 
     @GetMapping("/share-link")
@@ -50,6 +60,7 @@ public class ReferralController {
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         String shareLink = referralTrackingService.generateShareLink(user, baseUrl, source);
+        referralTrackingService.trackShareEvent(user.getId(), source, null, null);
 
         return ResponseEntity.ok(Map.of(
                 "shareLink", shareLink,
@@ -67,7 +78,7 @@ public class ReferralController {
         User user = userRepository.findByPhone(principal.getUsername())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        referralTrackingService.trackShareEvent(user, source, request);
+        referralTrackingService.trackShareEvent(user.getId(), source, request.getHeader("User-Agent"), request.getRemoteAddr());
 
         return ResponseEntity.accepted().build();
     }
@@ -87,14 +98,15 @@ public class ReferralController {
                 Duration.ofHours(1)
         );
 
-        referralTrackingService.trackClickEvent(code, source, request);
+        referralTrackingService.trackClickEvent(code, source, request.getHeader("User-Agent"), request.getRemoteAddr());
         return ResponseEntity.status(302)
                 .header("Location", "/register?ref=" + code)
                 .build();
     }
 
     @GetMapping("/history")
-    @Transactional
+    @StatementBudget(3)
+    @Transactional(readOnly = true)
     public Page<ReferralEvent> getReferralHistory(
             @AuthenticationPrincipal UserDetails principal,
             @RequestParam(defaultValue = "0") int page,
@@ -108,7 +120,8 @@ public class ReferralController {
     }
 
     @GetMapping("/leaderboard/daily")
-    @Transactional
+    @StatementBudget(4)
+    @Transactional(readOnly = true)
     public ResponseEntity<Page<Map<String, Object>>> getDailyLeaderboard(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
@@ -117,23 +130,12 @@ public class ReferralController {
         Instant start = today.atStartOfDay().toInstant(ZoneOffset.UTC);
         Instant end = today.plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC);
 
-        Pageable pageable = PageRequest.of(page, size);
-        Page<LeaderboardProjection> statsPage = referralEventRepository
-                .getLeaderboardStats(start, end, pageable);
-
-        List<Map<String, Object>> enrichedStats = enrichWithUserDetails(statsPage.getContent(), start, end);
-
-        Page<Map<String, Object>> enrichedPage = new PageImpl<>(
-                enrichedStats,
-                pageable,
-                statsPage.getTotalElements()
-        );
-
-        return ResponseEntity.ok(enrichedPage);
+        return ResponseEntity.ok(dailyLeaderboardTimer.record(() -> leaderboard(start, end, page, size)));
     }
 
     @GetMapping("/leaderboard/weekly")
-    @Transactional
+    @StatementBudget(4)
+    @Transactional(readOnly = true)
     public ResponseEntity<?> getWeeklyLeaderboard(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
@@ -145,23 +147,11 @@ public class ReferralController {
         Instant start = monday.atStartOfDay().toInstant(ZoneOffset.UTC);
         Instant end = sunday.plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC);
 
-        Pageable pageable = PageRequest.of(page, size);
-        Page<LeaderboardProjection> statsPage = referralEventRepository
-                .getLeaderboardStats(start, end, pageable);
-
-        List<Map<String, Object>> enrichedStats = enrichWithUserDetails(statsPage.getContent(), start, end);
-
-        Page<Map<String, Object>> enrichedPage = new PageImpl<>(
-                enrichedStats,
-                pageable,
-                statsPage.getTotalElements()
-        );
-
-        return ResponseEntity.ok(enrichedPage);
+        return ResponseEntity.ok(weeklyLeaderboardTimer.record(() -> leaderboard(start, end, page, size)));
     }
 
     @GetMapping("/total-referralVer")
-    @Transactional
+    @Transactional(readOnly = true)
     public long getTotalReferralsVerified(@AuthenticationPrincipal UserDetails principal){
         User user = userRepository.findByPhone(principal.getUsername())
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -169,7 +159,7 @@ public class ReferralController {
     }
 
     @GetMapping("/userStats")
-    @Transactional
+    @Transactional(readOnly = true)
     public ResponseEntity<?> getTotalReferralsSign(@AuthenticationPrincipal UserDetails principal){
         User user = userRepository.findByPhone(principal.getUsername())
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -182,7 +172,8 @@ public class ReferralController {
     }
 
     @GetMapping("/leaderboard/monthly")
-    @Transactional
+    @StatementBudget(4)
+    @Transactional(readOnly = true)
     public ResponseEntity<?> getMonthlyLeaderboard(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
@@ -191,37 +182,57 @@ public class ReferralController {
         Instant start = today.withDayOfMonth(1).atStartOfDay().toInstant(ZoneOffset.UTC);
         Instant end = today.plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC); // Include today
 
+        return ResponseEntity.ok(monthlyLeaderboardTimer.record(() -> leaderboard(start, end, page, size)));
+    }
+
+    private Page<Map<String, Object>> leaderboard(Instant start, Instant end, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
         Page<LeaderboardProjection> statsPage = referralEventRepository
                 .getLeaderboardStats(start, end, pageable);
         List<Map<String, Object>> enrichedStats = enrichWithUserDetails(statsPage.getContent(), start, end);
-        Page<Map<String, Object>> enrichedPage = new PageImpl<>(
+        return new PageImpl<>(
                 enrichedStats,
                 pageable,
                 statsPage.getTotalElements()
         );
+    }
 
-        return ResponseEntity.ok(enrichedPage);
+    private static Timer leaderboardTimer(MeterRegistry meterRegistry, String window) {
+        return Timer.builder("byvs.referral.leaderboard")
+                .description("Leaderboard page query and enrichment")
+                .tag("window", window)
+                .register(meterRegistry);
     }
 
+    // One users query and one ranking query per page, whatever the page size
     private List<Map<String, Object>> enrichWithUserDetails(List<LeaderboardProjection> stats, Instant start, Instant end) {
         if (stats == null) {
             return new ArrayList<>();
         }
+        List<LeaderboardProjection> rows = stats.stream().filter(Objects::nonNull).toList();
+        if (rows.isEmpty()) {
+            return new ArrayList<>();
+        }
 
-        return stats.stream()
-                .filter(Objects::nonNull)
+        Map<Long, User> users = userRepository.findAllById(rows.stream().map(LeaderboardProjection::getReferrerUserId).toList())
+                .stream()
+                .collect(Collectors.toMap(User::getId, user -> user));
+        long minimum = rows.stream().mapToLong(stat -> stat.getVerifications() != null ? stat.getVerifications() : 0).min().orElse(0);
+        // Same ranks countUsersAbove computed per row
+        LeaderboardRanks ranks = LeaderboardRanks.of(referralEventRepository.countReferrersByVerificationsAbove(start, end, minimum)
+                .stream()
+                .collect(Collectors.toMap(VerificationLevel::getVerifications, VerificationLevel::getReferrers)));
+
+        return rows.stream()
                 .map(stat -> {
-                    User user = userRepository.findById(stat.getReferrerUserId())
-                            .orElseThrow(() -> new RuntimeException("User not found for ID: " + stat.getReferrerUserId()));
+                    User user = users.get(stat.getReferrerUserId());
+                    if (user == null) {
+                        throw new RuntimeException("User not found for ID: " + stat.getReferrerUserId());
+                    }
                     Map<String, Object> userDetails = new HashMap<>();
 
-                    long rank = referralEventRepository.countUsersAbove(
-                            stat.getReferrerUserId(),
-                            start,
-                            end
-                    ) + 1;
-                    userDetails.put("rank", rank);
+                    long verified = stat.getVerifications() != null ? stat.getVerifications() : 0;
+                    userDetails.put("rank", ranks.rankOf(verified));
                     userDetails.put("userId", user.getId());
                     userDetails.put("name", user.getFullName());
                     String referralCode = user.getReferralCode();
@@ -10,12 +10,7 @@ import java.time.Instant;
 import java.util.UUID;
 
 @Entity
-@Table(name = "referral_events", indexes = {
-        @Index(name = "idx_referrer_user", columnList = "referrerUserId"),
-        @Index(name = "idx_referred_user", columnList = "referredUserId"),
-        @Index(name = "idx_event_type", columnList = "eventType"),
-        @Index(name = "idx_occurred_at", columnList = "occurredAt")
-})
+@Table(name = "referral_events")
 @Getter
 @Setter
 @NoArgsConstructor
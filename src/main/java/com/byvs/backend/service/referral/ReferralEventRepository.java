@@ -67,6 +67,17 @@ public interface ReferralEventRepository extends JpaRepository<ReferralEvent, Lo
                          @Param("start") Instant start,
                          @Param("end") Instant end);
 
+    // How many referrers have each verification count above the minimum; ranks a whole leaderboard page at once
+    @Query(value = "SELECT v.verifications AS verifications, COUNT(*) AS referrers FROM (" +
+            "  SELECT COUNT(DISTINCT referred_user_id) AS verifications FROM referral_events " +
+            "  WHERE event_type = 'VERIFICATION' AND occurred_at BETWEEN :start AND :end " +
+            "  GROUP BY referrer_user_id) v " +
+            "WHERE v.verifications > :minimum " +
+            "GROUP BY v.verifications", nativeQuery = true)
+    List<VerificationLevel> countReferrersByVerificationsAbove(@Param("start") Instant start,
+                                                               @Param("end") Instant end,
+                                                               @Param("minimum") long minimum);
+
 }
 
 interface LeaderboardEntry {
@@ -84,4 +95,9 @@ interface LeaderboardProjection {
 interface UserRankProjection {
     Long getUserId();
     Long getVerifiedCount();
-}
\ No newline at end of file
+}
+
+interface VerificationLevel {
+    Long getVerifications();
+    Long getReferrers();
+}
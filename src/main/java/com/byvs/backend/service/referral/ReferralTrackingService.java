@@ -1,44 +1,52 @@
 package com.byvs.backend.service.referral;
 
+import com.byvs.backend.service.coin.CoinCredit;
+import com.byvs.backend.service.coin.CoinLedgerService;
 import com.byvs.backend.service.user.User;
 import com.byvs.backend.service.user.UserRepository;
-import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.UUID;
-
 @Service
 @Slf4j
 public class ReferralTrackingService {
 
     private final ReferralEventRepository referralEventRepository;
     private final UserRepository userRepository;
+    private final VerifiedReferralCounter verifiedReferralCounter;
+    private final CoinLedgerService coinLedgerService;
+    private final int referralBonusCoins;
 
     public ReferralTrackingService(ReferralEventRepository referralEventRepository,
-                                   UserRepository userRepository) {
+                                   UserRepository userRepository,
+                                   VerifiedReferralCounter verifiedReferralCounter,
+                                   CoinLedgerService coinLedgerService,
+                                   @Value("${referral.bonus-coins:0}") int referralBonusCoins) {
         this.referralEventRepository = referralEventRepository;
         this.userRepository = userRepository;
+        this.verifiedReferralCounter = verifiedReferralCounter;
+        this.coinLedgerService = coinLedgerService;
+        this.referralBonusCoins = referralBonusCoins;
     }
 
+    // Only builds the link; the caller tracks the share through this bean's proxy, since a call from
+    // here would skip @Async and @Transactional
     public String generateShareLink(User user, String baseUrl, String source) {
-        // Track share event
-        trackShareEvent(user, source, null);
-
-        // Generate unique tracking link
         return baseUrl + "?ref=" + user.getReferralCode() +
                 (source != null ? "&source=" + source : "");
     }
 
+    // Share and click events are ingested on the event executor; the caller reads what it needs from
+    // the request first, since the request is recycled once the response is sent
+    @Async("eventExecutor")
     @Transactional
-    public void trackShareEvent(User user, String source, HttpServletRequest request) {
-        ReferralEvent event = new ReferralEvent(user.getId(), ReferralEventType.SHARE);
-
-        if (request != null) {
-            event.setUserAgent(request.getHeader("User-Agent"));
-            event.setIpAddress(request.getRemoteAddr());
-        }
+    public void trackShareEvent(Long userId, String source, String userAgent, String ipAddress) {
+        ReferralEvent event = new ReferralEvent(userId, ReferralEventType.SHARE);
+        event.setUserAgent(userAgent);
+        event.setIpAddress(ipAddress);
 
         if (source != null) {
             event.setReferralSource(source);
@@ -47,21 +55,15 @@ public class ReferralTrackingService {
         referralEventRepository.save(event);
     }
 
+    @Async("eventExecutor")
     @Transactional
-    public void trackClickEvent(String referralCode, String source, HttpServletRequest request) {
+    public void trackClickEvent(String referralCode, String source, String userAgent, String ipAddress) {
         User referrer = userRepository.findByReferralCode(referralCode)
                 .orElseThrow(() -> new RuntimeException("Invalid referral code"));
 
         ReferralEvent event = new ReferralEvent(referrer.getId(), ReferralEventType.LINK_CLICK);
-
-        if (request != null) {
-            event.setUserAgent(request.getHeader("User-Agent"));
-            event.setIpAddress(request.getRemoteAddr());
-
-            // Store cookie for attribution if user signs up later
-            String clickId = UUID.randomUUID().toString();
-            // In practice, you'd set this in the response cookie
-        }
+        event.setUserAgent(userAgent);
+        event.setIpAddress(ipAddress);
 
         if (source != null) {
             event.setReferralSource(source);
@@ -123,8 +125,11 @@ public class ReferralTrackingService {
                                 );
                                 event.setReferredUserId(referredUserId);
                                 referralEventRepository.save(event);
-                                referrer.incrementVerifiedReferrals();
-                                userRepository.save(referrer);
+                                verifiedReferralCounter.increment(referrer.getId());
+                                if (referralBonusCoins > 0) {
+                                    coinLedgerService.credit(CoinCredit.referralBonus(
+                                            referrer.getId(), referredUserId, referralBonusCoins));
+                                }
                             }
                         },
                         () -> log.warn("No signup event found for user {}", referredUserId)
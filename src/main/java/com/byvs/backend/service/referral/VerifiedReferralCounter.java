@@ -0,0 +1,150 @@
+package com.byvs.backend.service.referral;
+
+import com.byvs.backend.service.member.MemberViewService;
+import com.byvs.backend.service.user.UserCacheEvictor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@Slf4j
+public class VerifiedReferralCounter {
+
+    private static final String INCREMENT_SQL =
+            "UPDATE app_user SET verified_referrals_count = verified_referrals_count + 1 WHERE id = ?";
+
+    // One chunk of referrers: both stored copies of the count next to the actual number of distinct
+    // verified referees, for users where either copy is off
+    private static final String DRIFT_SQL = """
+            SELECT u.id, u.verified_referrals_count, m.verified_referrals, COALESCE(e.verified, 0)
+            FROM app_user u
+            LEFT JOIN member_view m ON m.user_id = u.id
+            LEFT JOIN (SELECT referrer_user_id, COUNT(DISTINCT referred_user_id) AS verified
+                       FROM referral_events
+                       WHERE event_type = 'VERIFICATION' AND referrer_user_id >= ? AND referrer_user_id < ?
+                       GROUP BY referrer_user_id) e ON e.referrer_user_id = u.id
+            WHERE u.id >= ? AND u.id < ?
+              AND (u.verified_referrals_count <> COALESCE(e.verified, 0)
+                   OR m.verified_referrals <> COALESCE(e.verified, 0))
+            """;
+
+    // Applied as deltas so increments committed between the scan and the fix are kept
+    private static final String CORRECT_SQL =
+            "UPDATE app_user SET verified_referrals_count = verified_referrals_count + ? WHERE id = ?";
+
+    private static final String CORRECT_MEMBER_VIEW_SQL =
+            "UPDATE member_view SET verified_referrals = verified_referrals + ?, updated_at = now() WHERE user_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserCacheEvictor userCacheEvictor;
+    private final MemberViewService memberViewService;
+    private final long chunkSize;
+    private final AtomicLong driftedUsers = new AtomicLong();
+    private final Counter driftTotal;
+    private final Timer reconcileTimer;
+
+    public VerifiedReferralCounter(JdbcTemplate jdbcTemplate,
+                                   TransactionTemplate transactionTemplate,
+                                   UserCacheEvictor userCacheEvictor,
+                                   MemberViewService memberViewService,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${referral.counters.reconcile-chunk-size:5000}") long chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.userCacheEvictor = userCacheEvictor;
+        this.memberViewService = memberViewService;
+        this.chunkSize = chunkSize;
+        meterRegistry.gauge("byvs.referral.counter.drift.users", driftedUsers);
+        this.driftTotal = Counter.builder("byvs.referral.counter.drift")
+                .description("Absolute verified-referral count corrections applied by reconciliation")
+                .register(meterRegistry);
+        this.reconcileTimer = Timer.builder("byvs.referral.counter.reconcile")
+                .register(meterRegistry);
+    }
+
+    // One-row atomic increment: no read-modify-write in Java and no full-row rewrite
+    @Transactional
+    public void increment(Long referrerUserId) {
+        jdbcTemplate.update(INCREMENT_SQL, referrerUserId);
+        userCacheEvictor.evictUser(referrerUserId);
+        memberViewService.incrementVerifiedReferrals(referrerUserId);
+    }
+
+    // Chunks of referral.counters.reconcile-chunk-size user ids, each in a transaction of its own, so no
+    // transaction spans the whole table. The counter and the member view are checked independently
+    @Scheduled(cron = "${referral.counters.reconcile-cron:0 30 3 * * *}")
+    public void reconcile() {
+        reconcileTimer.record(() -> {
+            Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM app_user", Long.class);
+            long drifted = 0;
+            long corrected = 0;
+            for (long from = 0; maxId != null && from <= maxId; from += chunkSize) {
+                Chunk chunk = reconcileChunk(from, from + chunkSize);
+                drifted += chunk.users();
+                corrected += chunk.corrected();
+            }
+            driftedUsers.set(drifted);
+            if (drifted > 0) {
+                driftTotal.increment(corrected);
+                log.warn("Reconciled verified referral counts for {} users ({} total drift)", drifted, corrected);
+            }
+        });
+    }
+
+    Chunk reconcileChunk(long from, long to) {
+        return transactionTemplate.execute(status -> {
+            // One instance reconciles a chunk at a time; the lock is released at commit. Another
+            // instance holding it is fixing the same users, so this one moves on
+            Boolean locked = jdbcTemplate.queryForObject(
+                    "SELECT pg_try_advisory_xact_lock(hashtext('referral-counter-reconcile'), ?)",
+                    Boolean.class, (int) (from / chunkSize));
+            if (!Boolean.TRUE.equals(locked)) {
+                return Chunk.EMPTY;
+            }
+
+            List<Drift> drifts = jdbcTemplate.query(DRIFT_SQL, (rs, rowNum) -> new Drift(
+                    rs.getLong(1), rs.getLong(2), (Long) rs.getObject(3), rs.getLong(4)), from, to, from, to);
+            List<Drift> counters = drifts.stream().filter(drift -> drift.stored() != drift.actual()).toList();
+            List<Drift> views = drifts.stream()
+                    .filter(drift -> drift.viewed() != null && drift.viewed() != drift.actual())
+                    .toList();
+            jdbcTemplate.batchUpdate(CORRECT_SQL, counters, 500, (ps, drift) -> {
+                ps.setLong(1, drift.actual() - drift.stored());
+                ps.setLong(2, drift.userId());
+            });
+            jdbcTemplate.batchUpdate(CORRECT_MEMBER_VIEW_SQL, views, 500, (ps, drift) -> {
+                ps.setLong(1, drift.actual() - drift.viewed());
+                ps.setLong(2, drift.userId());
+            });
+
+            long corrected = 0;
+            for (Drift drift : counters) {
+                corrected += Math.abs(drift.actual() - drift.stored());
+                userCacheEvictor.evictUser(drift.userId());
+            }
+            for (Drift drift : views) {
+                corrected += Math.abs(drift.actual() - drift.viewed());
+                memberViewService.evict(drift.userId());
+            }
+            return new Chunk(drifts.size(), corrected);
+        });
+    }
+
+    record Chunk(long users, long corrected) {
+        static final Chunk EMPTY = new Chunk(0, 0);
+    }
+
+    private record Drift(long userId, long stored, Long viewed, long actual) {
+    }
+}
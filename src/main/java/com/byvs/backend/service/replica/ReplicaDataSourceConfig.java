@@ -0,0 +1,130 @@
+package com.byvs.backend.service.replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.function.ToDoubleFunction;
+
+// Read replica (db.replica.enabled): read-only transactions take their connection from a replica pool,
+// everything else from the primary pool. Both pools are beans of their own, so each has its own Hikari
+// metrics (by pool name), statement metrics (by bean name) and, with virtual threads, concurrency limit;
+// the DataSource the application uses is the lazy routing proxy over them
+@Configuration
+@ConditionalOnProperty(name = "db.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    // Takes every spring.datasource.hikari setting, then the db.replica.hikari ones over them
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties properties, Environment environment,
+                                              @Value("${db.replica.url}") String url,
+                                              @Value("${db.replica.username:}") String username,
+                                              @Value("${db.replica.password:}") String password) {
+        HikariDataSource replica = new HikariDataSource();
+        Binder binder = Binder.get(environment);
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+        binder.bind("db.replica.hikari", Bindable.ofInstance(replica));
+        replica.setDriverClassName(properties.determineDriverClassName());
+        replica.setJdbcUrl(url);
+        if (StringUtils.hasText(username)) {
+            replica.setUsername(username);
+            replica.setPassword(password);
+        }
+        // Read-only transactions mark their connection read-only anyway; this covers any other use
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Bean
+    public ReplicaLagGuard replicaLagGuard(@Qualifier("replicaDataSource") DataSource replica,
+                                           @Value("${db.replica.max-lag:PT5S}") Duration maxLag,
+                                           @Value("${db.replica.read-your-writes:PT5S}") Duration readYourWrites) {
+        return new ReplicaLagGuard(new JdbcTemplate(replica), maxLag, readYourWrites);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagGuard replicaLagGuard,
+                                 ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        // Resolved on first use: the EntityManagerFactory is built on top of this DataSource
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica, replicaLagGuard,
+                entityManagerFactory::getObject));
+    }
+
+    // With open-in-view the session would otherwise hold its first connection, and so the first
+    // transaction's routing, until the end of the request
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionsAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    public MeterBinder replicaRoutingMetrics(DataSource dataSource, ReplicaLagGuard replicaLagGuard) {
+        return registry -> {
+            Gauge.builder("byvs.db.replica.lag", replicaLagGuard, ReplicaLagGuard::getLagSeconds)
+                    .description("Replay lag of the read replica, NaN while it is unavailable")
+                    .baseUnit("seconds")
+                    .register(registry);
+            Gauge.builder("byvs.db.replica.usable", replicaLagGuard, guard -> guard.isUsable() ? 1 : 0)
+                    .description("Whether read-only transactions may use the replica")
+                    .register(registry);
+            ReplicaRoutingDataSource routing = routingOf(dataSource);
+            routed(registry, routing, "replica", "read", ReplicaRoutingDataSource::getReplicaReads);
+            routed(registry, routing, "primary", "read", ReplicaRoutingDataSource::getPrimaryReads);
+            routed(registry, routing, "primary", "write", ReplicaRoutingDataSource::getPrimaryWrites);
+        };
+    }
+
+    private static void routed(MeterRegistry registry, ReplicaRoutingDataSource routing,
+                               String target, String access,
+                               ToDoubleFunction<ReplicaRoutingDataSource> count) {
+        FunctionCounter.builder("byvs.db.routed", routing, count)
+                .description("Transaction connections by the pool they were taken from")
+                .tag("target", target)
+                .tag("access", access)
+                .register(registry);
+    }
+
+    private static ReplicaRoutingDataSource routingOf(DataSource dataSource) {
+        try {
+            return dataSource.unwrap(ReplicaRoutingDataSource.class);
+        } catch (SQLException e) {
+            throw new IllegalStateException("The DataSource does not route to the replica", e);
+        }
+    }
+}
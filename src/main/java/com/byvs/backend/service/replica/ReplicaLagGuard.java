@@ -0,0 +1,132 @@
+package com.byvs.backend.service.replica;
+
+import com.byvs.backend.service.util.TransactionCallbacks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Decides whether a read may go to the replica: only while the replica answers and its replay lag is
+// within db.replica.max-lag, and not for a member who wrote within db.replica.read-your-writes, or within
+// the last lag sample plus that sample's age if longer: the lag may have grown by up to the age since, so
+// a quiet check interval cannot shorten the window. Writes are remembered per instance, so a member's
+// next request only reads their write if it reaches the instance that made it
+@Slf4j
+public class ReplicaLagGuard {
+
+    private record Sample(long lagMillis, long takenAt) {
+    }
+
+    // Zero when the replica has replayed everything it received, which also covers an idle primary,
+    // and when the database is not a standby at all (two independent databases in tests). A standby
+    // without a streaming WAL receiver has replayed everything it received too, but may be arbitrarily
+    // far behind, so it is unavailable (NULL). Only privileged roles see the receiver's status; the row
+    // itself is visible to every role while a receiver runs
+    private static final String LAG_SQL = """
+            SELECT CASE
+                     WHEN NOT pg_is_in_recovery() THEN 0
+                     WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status IS NULL OR status = 'streaming') THEN NULL
+                     WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                     ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+                   END
+            """;
+    private static final long UNAVAILABLE = -1;
+
+    private final JdbcTemplate replica;
+    private final long maxLagMillis;
+    private final long readYourWritesNanos;
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+    private volatile Sample sample = new Sample(UNAVAILABLE, System.nanoTime());
+    private boolean checked;
+
+    public ReplicaLagGuard(JdbcTemplate replica, Duration maxLag, Duration readYourWrites) {
+        this.replica = replica;
+        this.maxLagMillis = maxLag.toMillis();
+        this.readYourWritesNanos = readYourWrites.toNanos();
+    }
+
+    public boolean canRead() {
+        Sample current = sample;
+        if (!usable(current.lagMillis())) {
+            return false;
+        }
+        String user = currentUser();
+        Long wroteAt = user == null ? null : lastWrites.get(user);
+        if (wroteAt == null) {
+            return true;
+        }
+        long now = System.nanoTime();
+        long lagNow = TimeUnit.MILLISECONDS.toNanos(current.lagMillis()) + (now - current.takenAt());
+        return now - wroteAt > Math.max(readYourWritesNanos, lagNow);
+    }
+
+    // For writes made on behalf of a member who is not the authenticated user yet, such as registration
+    public void recordWrite(String user) {
+        TransactionCallbacks.afterCommit(() -> lastWrites.put(user, System.nanoTime()));
+    }
+
+    public void recordCurrentUserWrite() {
+        String user = currentUser();
+        if (user != null) {
+            recordWrite(user);
+        }
+    }
+
+    public boolean isUsable() {
+        return usable(sample.lagMillis());
+    }
+
+    public double getLagSeconds() {
+        long lag = sample.lagMillis();
+        return lag == UNAVAILABLE ? Double.NaN : lag / 1000.0;
+    }
+
+    @Scheduled(fixedDelayString = "${db.replica.lag-check-interval:PT1S}")
+    public void checkLag() {
+        try {
+            Double millis = replica.queryForObject(LAG_SQL, Double.class);
+            record(millis == null ? UNAVAILABLE : Math.round(millis), "not streaming from the primary");
+        } catch (DataAccessException e) {
+            record(UNAVAILABLE, e.getMessage());
+        }
+    }
+
+    void record(long lag, String failure) {
+        boolean wasUsable = usable(sample.lagMillis());
+        sample = new Sample(lag, System.nanoTime());
+        if (!checked || wasUsable != usable(lag)) {
+            checked = true;
+            if (usable(lag)) {
+                log.info("Reading from the replica, lag {}ms", lag);
+            } else if (lag == UNAVAILABLE) {
+                log.warn("Replica unavailable, reading from the primary: {}", failure);
+            } else {
+                log.warn("Replica lag {}ms is over {}ms, reading from the primary", lag, maxLagMillis);
+            }
+        }
+
+        // Past both windows a write no longer matters: the replica is either caught up or not used. The
+        // sample's age added in canRead() grows no faster than the write's own
+        long horizon = System.nanoTime() - Math.max(readYourWritesNanos, TimeUnit.MILLISECONDS.toNanos(maxLagMillis));
+        lastWrites.values().removeIf(wroteAt -> wroteAt - horizon < 0);
+    }
+
+    private boolean usable(long lag) {
+        return lag != UNAVAILABLE && lag <= maxLagMillis;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null || authentication instanceof AnonymousAuthenticationToken
+                ? null
+                : authentication.getName();
+    }
+}
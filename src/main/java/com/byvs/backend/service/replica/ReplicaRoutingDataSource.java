@@ -0,0 +1,107 @@
+package com.byvs.backend.service.replica;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Sends connections for read-only transactions to the replica when the guard allows it; everything else
+// goes to the primary, the target. Used under a LazyConnectionDataSourceProxy, so the choice is made at
+// the first statement, once the transaction and its read-only flag are set up.
+// Rows read from the replica may be older than a write whose cache entries were just evicted, so a
+// transaction on the replica puts nothing in the second-level cache (its session only reads the cache)
+// and marks itself for callers with caches of their own, see isCurrentTransactionOnReplica
+public class ReplicaRoutingDataSource extends DelegatingDataSource {
+
+    private static final Object REPLICA_TRANSACTION = new Object();
+
+    private final DataSource replica;
+    private final ReplicaLagGuard guard;
+    private final Supplier<EntityManagerFactory> entityManagerFactory;
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder primaryReads = new LongAdder();
+    private final LongAdder primaryWrites = new LongAdder();
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagGuard guard,
+                                    Supplier<EntityManagerFactory> entityManagerFactory) {
+        super(primary);
+        this.replica = replica;
+        this.guard = guard;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    // Whether the current transaction reads from the replica; false until its first statement
+    public static boolean isCurrentTransactionOnReplica() {
+        return TransactionSynchronizationManager.hasResource(REPLICA_TRANSACTION);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route().getConnection(username, password);
+    }
+
+    public long getReplicaReads() {
+        return replicaReads.sum();
+    }
+
+    public long getPrimaryReads() {
+        return primaryReads.sum();
+    }
+
+    public long getPrimaryWrites() {
+        return primaryWrites.sum();
+    }
+
+    private DataSource route() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (guard.canRead()) {
+                replicaReads.increment();
+                markReplicaTransaction();
+                return replica;
+            }
+            primaryReads.increment();
+        } else if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            primaryWrites.increment();
+            guard.recordCurrentUserWrite();
+        }
+        return obtainTargetDataSource();
+    }
+
+    private void markReplicaTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(REPLICA_TRANSACTION)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(REPLICA_TRANSACTION, Boolean.TRUE);
+        EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager.getResource(entityManagerFactory.get());
+        Session session = holder == null ? null : holder.getEntityManager().unwrap(Session.class);
+        CacheMode cacheMode = session == null ? null : session.getCacheMode();
+        if (session != null) {
+            session.setCacheMode(CacheMode.GET);
+        }
+        // With open-in-view the session outlives the transaction, so its cache mode is put back
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(REPLICA_TRANSACTION);
+                if (session != null && session.isOpen()) {
+                    session.setCacheMode(cacheMode);
+                }
+            }
+        });
+    }
+}
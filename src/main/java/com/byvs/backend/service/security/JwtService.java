@@ -1,8 +1,11 @@
 package com.byvs.backend.service.security;
 
 
+import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -10,6 +13,7 @@ import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JwtService {
@@ -17,15 +21,23 @@ public class JwtService {
     private final SecretKey key;
     private final String issuer;
     private final long expirationMinutes;
+    // Runs on every authenticated request, so the timers are built once rather than looked up per call
+    private final Timer validTimer;
+    private final Timer expiredTimer;
+    private final Timer invalidTimer;
 
     public JwtService(
             @Value("${security.jwt.secret}") String secret,
             @Value("${security.jwt.issuer}") String issuer,
-            @Value("${security.jwt.expiration-minutes}") long expirationMinutes
+            @Value("${security.jwt.expiration-minutes}") long expirationMinutes,
+            MeterRegistry meterRegistry
     ) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
         this.issuer = issuer;
         this.expirationMinutes = expirationMinutes;
+        this.validTimer = verifyTimer(meterRegistry, "valid");
+        this.expiredTimer = verifyTimer(meterRegistry, "expired");
+        this.invalidTimer = verifyTimer(meterRegistry, "invalid");
     }
 
     public String generate(String subject, String role) {
@@ -42,6 +54,8 @@ public class JwtService {
     }
 
     public JwtVerificationResult verify(String token) {
+        long start = System.nanoTime();
+        Timer outcome = invalidTimer;
         try {
             var parsed = Jwts.parser().verifyWith(key).build().parseSignedClaims(token);
             String subject = parsed.getPayload().getSubject();
@@ -51,11 +65,24 @@ public class JwtService {
             if (!issuer.equals(tokenIssuer)) {
                 return new JwtVerificationResult(false, null, null);
             }
+            outcome = validTimer;
             return new JwtVerificationResult(true, subject, role);
+        } catch (ExpiredJwtException e) {
+            outcome = expiredTimer;
+            return new JwtVerificationResult(false, null, null);
         } catch (Exception e) {
             return new JwtVerificationResult(false, null, null);
+        } finally {
+            outcome.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
     }
 
+    private static Timer verifyTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("byvs.jwt.verify")
+                .description("JWT signature and claims verification")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
     public record JwtVerificationResult(boolean valid, String subject, String role) {}
 }
\ No newline at end of file
@@ -1,16 +1,28 @@
 package com.byvs.backend.service.service;
 
 import com.byvs.backend.service.dto.FeedbackRequest;
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+import com.byvs.backend.service.email.EmailOutbox;
+import com.byvs.backend.service.email.EmailOutboxRepository;
+import com.byvs.backend.service.email.EmailOutboxStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Emails are written to email_outbox in the caller's transaction and delivered by EmailOutboxDispatcher,
+// so nothing is sent for a transaction that rolls back and nothing is lost on restart
 @Service
 @Slf4j
 public class EmailService {
@@ -18,80 +30,137 @@ public class EmailService {
     @Value("${spring.mail.username}")
     private String fromEmail;
 
-    private final JavaMailSender mailSender;
-    private final TemplateEngine templateEngine;
+    private static final String APPROVAL_SUBJECT = "Congratulations! Your Office Bearer Application Approved";
 
-    public EmailService(JavaMailSender mailSender, TemplateEngine templateEngine) {
-        this.mailSender = mailSender;
-        this.templateEngine = templateEngine;
+    private final EmailOutboxRepository outboxRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    public EmailService(EmailOutboxRepository outboxRepository, JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                        MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
     }
-    @Async
-    public void sendWelcomeEmail(String toEmail, String fullName, String membershipId) {
-        Context context = new Context();
-        context.setVariable("name", fullName);
-        context.setVariable("membershipId", membershipId);
 
-        String htmlContent = templateEngine.process("welcome-email", context);
+    public record ApprovalEmail(String toEmail, String district, String state, String position, String fullName) {
+    }
 
-        MimeMessage message = mailSender.createMimeMessage();
-        try {
-            MimeMessageHelper helper = new MimeMessageHelper(message, true);
-            helper.setFrom(fromEmail);
-            helper.setTo(toEmail);
-            helper.setSubject("Welcome to BYVS Family!");
-            helper.setText(htmlContent, true);
-
-            mailSender.send(message);
-        } catch (MessagingException e) {
-            log.error("Email failed, welcome email");
-        }
+    public record TaskReminderEmail(String toEmail, String fullName, String title, String deadline, int rewardCoins,
+                                    String timeLeft) {
     }
-    @Async
+
+    private record OutboxMessage(String recipient, String subject, Map<String, Object> variables) {
+    }
+
+    @Transactional
+    public void sendWelcomeEmail(String toEmail, String fullName, String membershipId) {
+        Map<String, Object> variables = new LinkedHashMap<>();
+        variables.put("name", fullName);
+        variables.put("membershipId", membershipId);
+        enqueue(toEmail, "Welcome to BYVS Family!", "welcome-email", variables);
+    }
+
+    @Transactional
     public void sendOfficeBearerApprovalEmail(String toEmail,String District,String State,String Position, String fullName) {
-        Context context = new Context();
-        context.setVariable("name", fullName);
-        context.setVariable("district", District);
-        context.setVariable("state", State);
-        context.setVariable("position", Position);
+        ApprovalEmail email = new ApprovalEmail(toEmail, District, State, Position, fullName);
+        enqueue(toEmail, APPROVAL_SUBJECT, "office-bearer-approval", approvalVariables(email));
+    }
+
+    // One JDBC batch insert instead of an IDENTITY insert round trip per email
+    @Transactional
+    public void sendOfficeBearerApprovalEmails(List<ApprovalEmail> emails) {
+        enqueueAll("office-bearer-approval", emails.stream()
+                .map(email -> new OutboxMessage(email.toEmail(), APPROVAL_SUBJECT, approvalVariables(email)))
+                .toList());
+    }
 
-        String htmlContent = templateEngine.process("office-bearer-approval", context);
+    @Transactional
+    public void sendTaskReminderEmails(List<TaskReminderEmail> emails) {
+        enqueueAll("task-reminder", emails.stream()
+                .map(email -> new OutboxMessage(email.toEmail(), "Reminder: your task is due in " + email.timeLeft(),
+                        taskReminderVariables(email)))
+                .toList());
+    }
 
-        MimeMessage message = mailSender.createMimeMessage();
-        try {
-            MimeMessageHelper helper = new MimeMessageHelper(message, true);
-            helper.setFrom(fromEmail);
-            helper.setTo(toEmail);
-            helper.setSubject("Congratulations! Your Office Bearer Application Approved");
-            helper.setText(htmlContent, true);
-
-            mailSender.send(message);
-        } catch (MessagingException e) {
-            log.error("Email failed, Send Office Approval");
+    @Transactional
+    public void sendFeedback(FeedbackRequest feedbackRequest) {
+        Map<String, Object> variables = new LinkedHashMap<>();
+        variables.put("name", feedbackRequest.getName());
+        variables.put("email", feedbackRequest.getEmail());
+        variables.put("phone", feedbackRequest.getPhone());
+        variables.put("subject", feedbackRequest.getSubject());
+        variables.put("message", feedbackRequest.getMessage());
+        enqueue(fromEmail, "New Feedback Received", "feedback-email", variables);
+    }
+
+    private Map<String, Object> approvalVariables(ApprovalEmail email) {
+        Map<String, Object> variables = new LinkedHashMap<>();
+        variables.put("name", email.fullName());
+        variables.put("district", email.district());
+        variables.put("state", email.state());
+        variables.put("position", email.position());
+        return variables;
+    }
+
+    private Map<String, Object> taskReminderVariables(TaskReminderEmail email) {
+        Map<String, Object> variables = new LinkedHashMap<>();
+        variables.put("name", email.fullName());
+        variables.put("title", email.title());
+        variables.put("deadline", email.deadline());
+        variables.put("rewardCoins", String.valueOf(email.rewardCoins()));
+        variables.put("timeLeft", email.timeLeft());
+        return variables;
+    }
+
+    private void enqueueAll(String template, List<OutboxMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
         }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        List<Object[]> rows = messages.stream()
+                .map(message -> new Object[]{
+                        template,
+                        message.recipient(),
+                        message.subject(),
+                        writeVariables(message.variables()),
+                        EmailOutboxStatus.PENDING.name(),
+                        now,
+                        now})
+                .toList();
+        jdbcTemplate.batchUpdate("INSERT INTO email_outbox (template, recipient, subject, variables, status, attempts, " +
+                "next_attempt_at, created_at) VALUES (?, ?, ?, ?, ?, 0, ?, ?)", rows);
+        recordEnqueue(sample, template, messages.size());
+        log.debug("Queued {} {} emails", messages.size(), template);
     }
 
-    @Async
-    public void sendFeedback(FeedbackRequest feedbackRequest) {
-        MimeMessage message = mailSender.createMimeMessage();
+    private void enqueue(String recipient, String subject, String template, Map<String, Object> variables) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        EmailOutbox email = new EmailOutbox();
+        email.setRecipient(recipient);
+        email.setSubject(subject);
+        email.setTemplate(template);
+        email.setVariables(writeVariables(variables));
+        email.setNextAttemptAt(Instant.now());
+        outboxRepository.save(email);
+        recordEnqueue(sample, template, 1);
+        log.debug("Queued {} email for {}", template, recipient);
+    }
+
+    // Tagged by template only: a handful of fixed values
+    private void recordEnqueue(Timer.Sample sample, String template, int count) {
+        sample.stop(meterRegistry.timer("byvs.email.enqueue", "template", template));
+        meterRegistry.counter("byvs.email.enqueued", "template", template).increment(count);
+    }
+
+    private String writeVariables(Map<String, Object> variables) {
         try {
-            MimeMessageHelper helper = new MimeMessageHelper(message, true);
-            helper.setFrom(fromEmail);
-            helper.setTo(fromEmail);
-            helper.setSubject("New Feedback Received");
-
-            Context context = new Context();
-            context.setVariable("name", feedbackRequest.getName());
-            context.setVariable("email", feedbackRequest.getEmail());
-            context.setVariable("phone", feedbackRequest.getPhone());
-            context.setVariable("subject", feedbackRequest.getSubject());
-            context.setVariable("message", feedbackRequest.getMessage());
-
-            String htmlContent = templateEngine.process("feedback-email", context);
-            helper.setText(htmlContent, true);
-
-            mailSender.send(message);
-        } catch (MessagingException e) {
-            System.err.println("Failed to send feedback email: " + e.getMessage());
+            return objectMapper.writeValueAsString(variables);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Email variables are not serializable", e);
         }
     }
-}
\ No newline at end of file
+}
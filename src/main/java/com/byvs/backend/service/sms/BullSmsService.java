@@ -1,17 +1,32 @@
 package com.byvs.backend.service.sms;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 import org.springframework.web.client.RestTemplate;
+import java.net.URI;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class BullSmsService {
 
     private final RestTemplate restTemplate = new RestTemplate();
+    private final Pattern failurePattern;
+    private final Timer otpSuccess;
+    private final Timer otpFailure;
+    private final Timer bulkSuccess;
+    private final Timer bulkFailure;
 
     @Value("${bulksms.api.url}")
     private String apiUrl;
@@ -34,6 +49,25 @@ public class BullSmsService {
     @Value("${bulksms.temp.id}")
     private String tempId;
 
+    // DLT registers each template for one message text, so announcements need their own and never the OTP one
+    private final String announcementTempId;
+
+    public BullSmsService(MeterRegistry meterRegistry,
+                          @Value("${bulksms.failure-pattern:(?i)error|fail|invalid|insufficient|denied}") String failurePattern,
+                          @Value("${bulksms.announcement.temp.id:}") String announcementTempId) {
+        this.failurePattern = Pattern.compile(failurePattern);
+        this.announcementTempId = announcementTempId;
+        if (!isAnnouncementEnabled()) {
+            log.warn("bulksms.announcement.temp.id is not set, SMS announcements are disabled");
+        }
+        this.otpSuccess = gatewayTimer(meterRegistry, "otp", "success");
+        this.otpFailure = gatewayTimer(meterRegistry, "otp", "failure");
+        this.bulkSuccess = gatewayTimer(meterRegistry, "bulk", "success");
+        this.bulkFailure = gatewayTimer(meterRegistry, "bulk", "failure");
+    }
+
+    // Sent on the SMS executor so /send answers 202 without waiting on the gateway
+    @Async("smsExecutor")
     public void sendOtpSms(String mobileNumber, String otp) {
         try {
 
@@ -55,11 +89,71 @@ public class BullSmsService {
                     "&tempid=" + tempId;
 
             log.info("Sending OTP to mobile: {}", cleanedMobileNumber);
-            String response = restTemplate.getForObject(finalUrl, String.class);
+            String response = timed(otpSuccess, otpFailure, () -> accepted(restTemplate.getForObject(finalUrl, String.class)));
             log.info("BulkSMS API response: {}", response);
 
         } catch (Exception e) {
             log.error("Failed to send OTP to {}: {}", mobileNumber, e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    // The gateway accepts a comma-separated list of numbers per request; failures, including a 200
+    // whose body reports an error, are thrown so callers can retry or resume the batch
+    public String sendBulkSms(List<String> mobileNumbers, String message) {
+        if (!isAnnouncementEnabled()) {
+            throw new IllegalStateException("SMS announcements are disabled, bulksms.announcement.temp.id is not set");
+        }
+        String numbers = mobileNumbers.stream()
+                .map(number -> number.startsWith("+91") ? number.substring(3) : number)
+                .collect(Collectors.joining(","));
+
+        // Passed as a URI so RestTemplate does not expand or re-encode the already encoded message
+        URI finalUrl = URI.create(apiUrl +
+                "user=" + user +
+                "&key=" + key +
+                "&mobile=" + numbers +
+                "&message=" + URLEncoder.encode(message, StandardCharsets.UTF_8).replace("+", "%20") +
+                "&senderid=" + senderId +
+                "&accusage=" + accUsage +
+                "&entityid=" + entityId +
+                "&tempid=" + announcementTempId);
+
+        log.info("Sending bulk SMS to {} numbers", mobileNumbers.size());
+        String response = timed(bulkSuccess, bulkFailure, () -> accepted(restTemplate.getForObject(finalUrl, String.class)));
+        log.debug("BulkSMS API response: {}", response);
+        return response;
+    }
+
+    public boolean isAnnouncementEnabled() {
+        return StringUtils.hasText(announcementTempId);
+    }
+
+    // The gateway answers 200 for rejected sends too, with the reason in the body
+    private String accepted(String response) {
+        if (!StringUtils.hasText(response) || failurePattern.matcher(response).find()) {
+            throw new IllegalStateException("BulkSMS rejected the request: " + response);
+        }
+        return response;
+    }
+
+    private static String timed(Timer success, Timer failure, Supplier<String> call) {
+        long start = System.nanoTime();
+        try {
+            String response = call.get();
+            success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return response;
+        } catch (RuntimeException e) {
+            failure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private static Timer gatewayTimer(MeterRegistry meterRegistry, String operation, String outcome) {
+        return Timer.builder("byvs.sms.gateway")
+                .description("SMS gateway round trip")
+                .tag("provider", "bulksms")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,63 @@
+package com.byvs.backend.service.task;
+
+import com.byvs.backend.service.coin.CoinCredit;
+import com.byvs.backend.service.coin.CoinLedgerService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Marks a task completed and credits its reward in the same transaction. The conditional UPDATE only
+// matches an open task before its deadline, and the ledger key is the task id, so a repeated request credits nothing
+@Service
+@Slf4j
+public class TaskCompletionService {
+
+    public enum Outcome {
+        COMPLETED,
+        ALREADY_COMPLETED,
+        EXPIRED,
+        NOT_FOUND
+    }
+
+    public record Result(Long taskId, Outcome outcome, int rewardCoins, long balance) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CoinLedgerService coinLedgerService;
+
+    public TaskCompletionService(JdbcTemplate jdbcTemplate, CoinLedgerService coinLedgerService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.coinLedgerService = coinLedgerService;
+    }
+
+    @Transactional
+    public Result complete(Long taskId, Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Integer> reward = jdbcTemplate.query(
+                "UPDATE task SET completed = true, completed_at = ? WHERE id = ? AND assigned_to_id = ? " +
+                        "AND completed IS NOT TRUE AND expired_at IS NULL AND (deadline IS NULL OR deadline > ?) " +
+                        "RETURNING reward_coins",
+                (rs, rowNum) -> rs.getInt(1),
+                now, taskId, userId, now);
+
+        if (reward.isEmpty()) {
+            List<Outcome> state = jdbcTemplate.query(
+                    "SELECT completed IS TRUE FROM task WHERE id = ? AND assigned_to_id = ?",
+                    (rs, rowNum) -> rs.getBoolean(1) ? Outcome.ALREADY_COMPLETED : Outcome.EXPIRED,
+                    taskId, userId);
+            Outcome outcome = state.isEmpty() ? Outcome.NOT_FOUND : state.get(0);
+            return new Result(taskId, outcome, 0, coinLedgerService.getBalance(userId));
+        }
+
+        int coins = reward.get(0);
+        if (coins > 0) {
+            coinLedgerService.credit(CoinCredit.taskCompletion(userId, taskId, coins));
+        }
+        log.info("Task {} completed by user {}, credited {} coins", taskId, userId, coins);
+        return new Result(taskId, Outcome.COMPLETED, coins, coinLedgerService.getBalance(userId));
+    }
+}
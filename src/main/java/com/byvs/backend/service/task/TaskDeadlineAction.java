@@ -0,0 +1,36 @@
+package com.byvs.backend.service.task;
+
+import java.time.Duration;
+
+// Each action fires once per task at deadline minus its lead time; the column records that it has
+public enum TaskDeadlineAction {
+    DAY_REMINDER(Duration.ofHours(24), "day_reminder_sent_at", "24 hours"),
+    HOUR_REMINDER(Duration.ofHours(1), "hour_reminder_sent_at", "1 hour"),
+    EXPIRY(Duration.ZERO, "expired_at", null);
+
+    private final Duration leadTime;
+    private final String firedColumn;
+    private final String timeLeft;
+
+    TaskDeadlineAction(Duration leadTime, String firedColumn, String timeLeft) {
+        this.leadTime = leadTime;
+        this.firedColumn = firedColumn;
+        this.timeLeft = timeLeft;
+    }
+
+    public Duration getLeadTime() {
+        return leadTime;
+    }
+
+    public String getFiredColumn() {
+        return firedColumn;
+    }
+
+    public String getTimeLeft() {
+        return timeLeft;
+    }
+
+    public boolean isReminder() {
+        return this != EXPIRY;
+    }
+}
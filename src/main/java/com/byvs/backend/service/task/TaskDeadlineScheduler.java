@@ -0,0 +1,381 @@
+package com.byvs.backend.service.task;
+
+import com.byvs.backend.service.service.EmailService;
+import com.byvs.backend.service.util.HierarchicalTimingWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Fires task reminders and expiry from a hierarchical timing wheel instead of polling the task table.
+// A timer is one (action, deadline) pair, so a fan-out of many tasks sharing a deadline is a single
+// timer, and only deadlines inside the lookahead window are loaded, capped at max-pending. Firing is
+// idempotent: each action sets its own column on the task in the same statement that selects it, and
+// a deadline is loaded again while any of its tasks has not had the action, so a task created after
+// its deadline's timer fired still gets it. The fired-through time is persisted, so a restart reloads
+// from there instead of from the beginning; the first start, with nothing persisted, expires every task
+// already overdue before writing one. It fires overdue deadlines on startup as well, so
+// scheduling.enabled=false leaves it out altogether
+@Component
+@ConditionalOnProperty(name = "scheduling.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class TaskDeadlineScheduler {
+
+    private static final String WATERMARK_NAME = "task-deadlines";
+    private static final DateTimeFormatter DEADLINE_FORMAT = DateTimeFormatter.ofPattern("dd MMM yyyy, hh:mm a");
+
+    // Loose index scan over the partial open-task deadline index: one index probe per distinct deadline
+    // rather than one row per task. Tasks the action has fired for are filtered on the heap; they are
+    // only in the window for the grace period after firing
+    private static final String DISTINCT_DEADLINES_SQL = """
+            WITH RECURSIVE d(deadline) AS (
+                (SELECT deadline FROM task t
+                 WHERE deadline > ? AND deadline <= ? AND completed IS NOT TRUE AND expired_at IS NULL AND %1$s
+                 ORDER BY deadline LIMIT 1)
+                UNION ALL
+                SELECT (SELECT t.deadline FROM task t
+                        WHERE t.deadline > d.deadline AND t.deadline <= ? AND t.completed IS NOT TRUE AND t.expired_at IS NULL
+                          AND %1$s
+                        ORDER BY t.deadline LIMIT 1)
+                FROM d WHERE d.deadline IS NOT NULL
+            )
+            SELECT deadline FROM d WHERE deadline IS NOT NULL LIMIT ?
+            """;
+
+    private static final String REMIND_SQL = """
+            WITH claimed AS (
+                UPDATE task SET %1$s = ? WHERE id IN (
+                    SELECT id FROM task
+                    WHERE deadline = ANY(?) AND deadline > ? AND %1$s IS NULL
+                      AND completed IS NOT TRUE AND expired_at IS NULL AND assigned_to_id IS NOT NULL
+                    ORDER BY id LIMIT ? FOR UPDATE)
+                RETURNING id, title, deadline, reward_coins, assigned_to_id
+            )
+            SELECT c.id, c.title, c.deadline, c.reward_coins, u.full_name, p.email
+            FROM claimed c
+            JOIN app_user u ON u.id = c.assigned_to_id
+            LEFT JOIN user_profile p ON p.user_id = u.id
+            """;
+
+    private static final String EXPIRE_SQL = """
+            UPDATE task SET expired_at = ? WHERE id IN (
+                SELECT id FROM task
+                WHERE %s AND completed IS NOT TRUE AND expired_at IS NULL
+                ORDER BY id LIMIT ? FOR UPDATE)
+            """;
+
+    private record Timer(TaskDeadlineAction action, LocalDateTime deadline) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EmailService emailService;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<TaskDeadlineAction, NavigableSet<LocalDateTime>> scheduled = new EnumMap<>(TaskDeadlineAction.class);
+    private final Map<TaskDeadlineAction, LocalDateTime> loadedThrough = new EnumMap<>(TaskDeadlineAction.class);
+    private final Map<TaskDeadlineAction, Counter> firedCounters = new EnumMap<>(TaskDeadlineAction.class);
+    private final List<Timer> retry = new ArrayList<>();
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final long tickMillis;
+    private final Duration lookahead;
+    private final Duration grace;
+    private final Duration persistInterval;
+    private final int maxPending;
+    private final int batchSize;
+
+    private volatile HierarchicalTimingWheel<Timer> wheel;
+    private LocalDateTime persistedWatermark;
+    private Instant lastPersistedAt = Instant.EPOCH;
+
+    public TaskDeadlineScheduler(JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 EmailService emailService,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${task.deadlines.tick:PT1S}") Duration tick,
+                                 @Value("${task.deadlines.lookahead:PT15M}") Duration lookahead,
+                                 @Value("${task.deadlines.grace:PT2M}") Duration grace,
+                                 @Value("${task.deadlines.watermark-interval:PT30S}") Duration persistInterval,
+                                 @Value("${task.deadlines.max-pending:100000}") int maxPending,
+                                 @Value("${task.deadlines.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.emailService = emailService;
+        this.tickMillis = tick.toMillis();
+        this.lookahead = lookahead;
+        this.grace = grace;
+        this.persistInterval = persistInterval;
+        this.maxPending = maxPending;
+        this.batchSize = batchSize;
+        for (TaskDeadlineAction action : TaskDeadlineAction.values()) {
+            scheduled.put(action, new TreeSet<>());
+            firedCounters.put(action, Counter.builder("byvs.task.deadline.fired")
+                    .tag("action", action.name())
+                    .description("Tasks reminded or expired by the deadline scheduler")
+                    .register(meterRegistry));
+        }
+        meterRegistry.gauge("byvs.task.deadline.pending", pending);
+        meterRegistry.gauge("byvs.task.deadline.lag.seconds", lagSeconds);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        List<LocalDateTime> stored = jdbcTemplate.queryForList(
+                "SELECT fired_through FROM task_deadline_watermark WHERE name = ?", LocalDateTime.class, WATERMARK_NAME);
+        LocalDateTime watermark = stored.isEmpty() ? LocalDateTime.now() : stored.get(0);
+        if (stored.isEmpty()) {
+            // Nothing before the first watermark is ever loaded, so tasks overdue by then are expired here
+            long expired = expire("deadline <= ?", connection -> Timestamp.valueOf(watermark));
+            firedCounters.get(TaskDeadlineAction.EXPIRY).increment(expired);
+            persistWatermark(watermark);
+            log.info("Task deadline scheduler starting for the first time, expired {} overdue tasks", expired);
+        }
+        lock.lock();
+        try {
+            persistedWatermark = watermark;
+            for (TaskDeadlineAction action : TaskDeadlineAction.values()) {
+                loadedThrough.put(action, watermark);
+            }
+            wheel = new HierarchicalTimingWheel<>(tickMillis, 3, toMillis(watermark));
+        } finally {
+            lock.unlock();
+        }
+        log.info("Task deadline scheduler resuming from {}", watermark);
+        refresh();
+    }
+
+    // Rescans the window from just before the watermark to now + lookahead so tasks created since the
+    // last scan are picked up; deadlines already on the wheel are skipped
+    @Scheduled(fixedDelayString = "${task.deadlines.refresh-interval:PT30S}")
+    public void refresh() {
+        if (wheel == null) {
+            return;
+        }
+        List<Timer> due = new ArrayList<>();
+        lock.lock();
+        try {
+            LocalDateTime from = fromMillis(wheel.currentTimeMillis()).minus(grace);
+            LocalDateTime target = LocalDateTime.now().plus(lookahead);
+            for (TaskDeadlineAction action : TaskDeadlineAction.values()) {
+                load(action, from, target, due);
+            }
+            pending.set(wheel.size());
+        } finally {
+            lock.unlock();
+        }
+        fire(due);
+    }
+
+    @Scheduled(fixedDelayString = "${task.deadlines.tick:PT1S}")
+    public void tick() {
+        if (wheel == null) {
+            return;
+        }
+        List<Timer> due = new ArrayList<>();
+        long firedThrough;
+        lock.lock();
+        try {
+            due.addAll(retry);
+            retry.clear();
+            // Never run past a deadline range that has not been loaded yet
+            LocalDateTime bound = LocalDateTime.now();
+            for (LocalDateTime through : loadedThrough.values()) {
+                if (through.isBefore(bound)) {
+                    bound = through;
+                }
+            }
+            wheel.advanceTo(toMillis(bound), due::add);
+            firedThrough = wheel.currentTimeMillis();
+            pending.set(wheel.size());
+        } finally {
+            lock.unlock();
+        }
+
+        boolean fired = fire(due);
+        LocalDateTime watermark = fromMillis(firedThrough);
+        lagSeconds.set(Math.max(0, Duration.between(watermark, LocalDateTime.now()).toSeconds()));
+        if (fired && watermark.isAfter(persistedWatermark)
+                && (!due.isEmpty() || Instant.now().isAfter(lastPersistedAt.plus(persistInterval)))) {
+            persistWatermark(watermark);
+        }
+    }
+
+    private void load(TaskDeadlineAction action, LocalDateTime from, LocalDateTime target, List<Timer> due) {
+        NavigableSet<LocalDateTime> known = scheduled.get(action);
+        Duration lead = action.getLeadTime();
+        String unfired = action.isReminder()
+                ? "t." + action.getFiredColumn() + " IS NULL AND t.assigned_to_id IS NOT NULL"
+                : "TRUE";
+        List<LocalDateTime> deadlines = jdbcTemplate.queryForList(DISTINCT_DEADLINES_SQL.formatted(unfired), LocalDateTime.class,
+                from.plus(lead), target.plus(lead), target.plus(lead), maxPending + known.size());
+
+        LocalDateTime through = deadlines.size() < maxPending + known.size()
+                ? target
+                : deadlines.get(deadlines.size() - 1).minus(lead);
+        for (LocalDateTime deadline : deadlines) {
+            if (known.contains(deadline)) {
+                continue;
+            }
+            if (wheel.size() >= maxPending) {
+                // Everything before this deadline is on the wheel; the rest is loaded as timers fire
+                through = deadline.minus(lead).minusNanos(1000);
+                log.warn("Task deadline scheduler is at capacity ({} timers), {} loaded through {}",
+                        maxPending, action, through);
+                break;
+            }
+            known.add(deadline);
+            Timer timer = new Timer(action, deadline);
+            wheel.add(toMillis(deadline.minus(lead)), timer, due::add);
+        }
+        if (through.isAfter(loadedThrough.get(action))) {
+            loadedThrough.put(action, through);
+        }
+    }
+
+    // Returns false if any batch failed; failed timers are retried on the next tick and the watermark
+    // is held back until they succeed
+    private boolean fire(List<Timer> due) {
+        if (due.isEmpty()) {
+            return true;
+        }
+        Map<TaskDeadlineAction, List<LocalDateTime>> byAction = new EnumMap<>(TaskDeadlineAction.class);
+        for (Timer timer : due) {
+            byAction.computeIfAbsent(timer.action(), action -> new ArrayList<>()).add(timer.deadline());
+        }
+        boolean ok = true;
+        for (Map.Entry<TaskDeadlineAction, List<LocalDateTime>> entry : byAction.entrySet()) {
+            TaskDeadlineAction action = entry.getKey();
+            try {
+                long count = action.isReminder()
+                        ? remind(action, entry.getValue())
+                        : expire(entry.getValue());
+                firedCounters.get(action).increment(count);
+                forget(action, entry.getValue());
+                if (count > 0) {
+                    log.info("{} fired for {} tasks across {} deadlines", action, count, entry.getValue().size());
+                }
+            } catch (RuntimeException e) {
+                ok = false;
+                log.error("Failed to fire {} for {} deadlines, retrying", action, entry.getValue().size(), e);
+                lock.lock();
+                try {
+                    entry.getValue().forEach(deadline -> retry.add(new Timer(action, deadline)));
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+        return ok;
+    }
+
+    // Each batch claims tasks and queues their emails in one transaction
+    private long remind(TaskDeadlineAction action, List<LocalDateTime> deadlines) {
+        String sql = REMIND_SQL.formatted(action.getFiredColumn());
+        long total = 0;
+        int claimed;
+        do {
+            claimed = transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                List<EmailService.TaskReminderEmail> emails = new ArrayList<>();
+                List<Long> taskIds = jdbcTemplate.query(connection -> {
+                    PreparedStatement ps = connection.prepareStatement(sql);
+                    ps.setObject(1, now);
+                    ps.setArray(2, connection.createArrayOf("timestamp", toTimestamps(deadlines)));
+                    ps.setObject(3, now);
+                    ps.setInt(4, batchSize);
+                    return ps;
+                }, (rs, rowNum) -> {
+                    String email = rs.getString(6);
+                    if (email != null && !email.isBlank()) {
+                        emails.add(new EmailService.TaskReminderEmail(email, rs.getString(5), rs.getString(2),
+                                rs.getObject(3, LocalDateTime.class).format(DEADLINE_FORMAT),
+                                rs.getInt(4), action.getTimeLeft()));
+                    }
+                    return rs.getLong(1);
+                });
+                emailService.sendTaskReminderEmails(emails);
+                return taskIds.size();
+            });
+            total += claimed;
+        } while (claimed == batchSize);
+        return total;
+    }
+
+    private long expire(List<LocalDateTime> deadlines) {
+        return expire("deadline = ANY(?)", connection -> connection.createArrayOf("timestamp", toTimestamps(deadlines)));
+    }
+
+    private long expire(String deadlineMatch, ConnectionCallback<Object> deadlineArgument) {
+        String sql = EXPIRE_SQL.formatted(deadlineMatch);
+        long total = 0;
+        int expired;
+        do {
+            expired = transactionTemplate.execute(status -> jdbcTemplate.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement(sql);
+                ps.setObject(1, LocalDateTime.now());
+                ps.setObject(2, deadlineArgument.doInConnection(connection));
+                ps.setInt(3, batchSize);
+                return ps;
+            }));
+            total += expired;
+        } while (expired == batchSize);
+        return total;
+    }
+
+    private void persistWatermark(LocalDateTime watermark) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update("""
+                INSERT INTO task_deadline_watermark (name, fired_through) VALUES (?, ?)
+                ON CONFLICT (name) DO UPDATE
+                    SET fired_through = GREATEST(task_deadline_watermark.fired_through, EXCLUDED.fired_through)
+                """, WATERMARK_NAME, watermark));
+        persistedWatermark = watermark;
+        lastPersistedAt = Instant.now();
+    }
+
+    // Once fired, a deadline is only loaded again for tasks that have not had the action yet
+    private void forget(TaskDeadlineAction action, List<LocalDateTime> deadlines) {
+        lock.lock();
+        try {
+            deadlines.forEach(scheduled.get(action)::remove);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static Timestamp[] toTimestamps(List<LocalDateTime> deadlines) {
+        return deadlines.stream().map(Timestamp::valueOf).toArray(Timestamp[]::new);
+    }
+
+    private long toMillis(LocalDateTime time) {
+        return time.atZone(zone).toInstant().toEpochMilli();
+    }
+
+    private LocalDateTime fromMillis(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), zone);
+    }
+}
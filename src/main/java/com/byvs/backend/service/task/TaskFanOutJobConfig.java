@@ -0,0 +1,61 @@
+package com.byvs.backend.service.task;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+
+@Configuration
+public class TaskFanOutJobConfig {
+
+    public static final String JOB = "taskFanOutJob";
+
+    @Bean
+    @StepScope
+    public TaskFanOutTasklet taskFanOutTasklet(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${task.fan-out.slice-size:5000}") int sliceSize,
+            @Value("#{jobParameters['title']}") String title,
+            @Value("#{jobParameters['description']}") String description,
+            @Value("#{jobParameters['rewardCoins']}") Long rewardCoins,
+            @Value("#{jobParameters['deadline']}") LocalDateTime deadline,
+            @Value("#{jobParameters['role']}") String role,
+            @Value("#{jobParameters['district']}") String district,
+            @Value("#{jobParameters['state']}") String state,
+            @Value("#{jobParameters['assignedById']}") Long assignedById,
+            @Value("#{jobParameters['maxUserId']}") Long maxUserId,
+            @Value("#{jobParameters['createdAt']}") LocalDateTime createdAt) {
+        TaskFanOutRequest request = new TaskFanOutRequest(title, description, rewardCoins.intValue(), deadline,
+                TaskFanOutTarget.valueOf(role), district, state);
+        return new TaskFanOutTasklet(jdbcTemplate, meterRegistry, sliceSize, request, assignedById, maxUserId, createdAt);
+    }
+
+    // The step runs in the JPA transaction manager so each slice insert commits together with the
+    // step context holding its last user id
+    @Bean
+    public Step taskFanOutStep(JobRepository jobRepository, PlatformTransactionManager transactionManager,
+                               TaskFanOutTasklet tasklet) {
+        return new StepBuilder("taskFanOutStep", jobRepository)
+                .tasklet(tasklet, transactionManager)
+                .build();
+    }
+
+    @Bean(name = JOB)
+    public Job taskFanOutJob(JobRepository jobRepository, @Qualifier("taskFanOutStep") Step step) {
+        return new JobBuilder(JOB, jobRepository)
+                .start(step)
+                .build();
+    }
+}
@@ -0,0 +1,34 @@
+package com.byvs.backend.service.task;
+
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+
+public record TaskFanOutRequest(
+        @NotBlank(message = "Title is required")
+        @Size(max = 255, message = "Title must be at most 255 characters")
+        String title,
+
+        @NotBlank(message = "Description is required")
+        @Size(max = 255, message = "Description must be at most 255 characters")
+        String description,
+
+        @NotNull(message = "Reward coins is required")
+        @Min(value = 1, message = "Reward coins must be at least 1")
+        Integer rewardCoins,
+
+        @NotNull(message = "Deadline is required")
+        @Future(message = "Deadline must be in the future")
+        LocalDateTime deadline,
+
+        @NotNull(message = "Target role is required")
+        TaskFanOutTarget role,
+
+        String district,
+
+        String state
+) {}
@@ -0,0 +1,99 @@
+package com.byvs.backend.service.task;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionException;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+@Slf4j
+public class TaskFanOutService {
+
+    private final JobLauncher jobLauncher;
+    private final JobExplorer jobExplorer;
+    private final JdbcTemplate jdbcTemplate;
+    private final Job taskFanOutJob;
+
+    public TaskFanOutService(JobLauncher jobLauncher,
+                             JobExplorer jobExplorer,
+                             JdbcTemplate jdbcTemplate,
+                             @Qualifier(TaskFanOutJobConfig.JOB) Job taskFanOutJob) {
+        this.jobLauncher = jobLauncher;
+        this.jobExplorer = jobExplorer;
+        this.jdbcTemplate = jdbcTemplate;
+        this.taskFanOutJob = taskFanOutJob;
+    }
+
+    public JobExecution launch(TaskFanOutRequest request, Long assignedById) {
+        if (!StringUtils.hasText(request.district()) && !StringUtils.hasText(request.state())) {
+            throw new IllegalArgumentException("District or state is required");
+        }
+        // Users who sign up after launch are not targeted, which keeps restarts deterministic
+        Long maxUserId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM app_user", Long.class);
+        JobParametersBuilder parameters = new JobParametersBuilder()
+                .addString("role", request.role().name())
+                .addLong("maxUserId", maxUserId)
+                .addLocalDateTime("createdAt", LocalDateTime.now())
+                .addString("title", request.title(), false)
+                .addString("description", request.description(), false)
+                .addLong("rewardCoins", request.rewardCoins().longValue(), false)
+                .addLocalDateTime("deadline", request.deadline(), false)
+                .addLong("assignedById", assignedById, false);
+        if (StringUtils.hasText(request.district())) {
+            parameters.addString("district", request.district());
+        }
+        if (StringUtils.hasText(request.state())) {
+            parameters.addString("state", request.state());
+        }
+        try {
+            JobExecution execution = jobLauncher.run(taskFanOutJob, parameters.toJobParameters());
+            log.info("Launched task fan-out {} for role={} district={} state={}",
+                    execution.getId(), request.role(), request.district(), request.state());
+            return execution;
+        } catch (JobExecutionException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    public Optional<JobExecution> find(Long executionId) {
+        return Optional.ofNullable(jobExplorer.getJobExecution(executionId))
+                .filter(execution -> TaskFanOutJobConfig.JOB.equals(execution.getJobInstance().getJobName()));
+    }
+
+    public Map<String, Object> describe(JobExecution execution) {
+        long inserted = 0;
+        for (StepExecution step : execution.getStepExecutions()) {
+            inserted += step.getWriteCount();
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("executionId", execution.getId());
+        body.put("role", execution.getJobParameters().getString("role"));
+        body.put("district", execution.getJobParameters().getString("district"));
+        body.put("state", execution.getJobParameters().getString("state"));
+        body.put("status", execution.getStatus().name());
+        body.put("exitCode", execution.getExitStatus().getExitCode());
+        body.put("startTime", execution.getStartTime());
+        body.put("endTime", execution.getEndTime());
+        body.put("tasksCreated", inserted);
+        if (execution.getStartTime() != null) {
+            LocalDateTime end = execution.getEndTime() != null ? execution.getEndTime() : LocalDateTime.now();
+            long millis = Math.max(Duration.between(execution.getStartTime(), end).toMillis(), 1);
+            body.put("tasksPerSecond", inserted * 1000 / millis);
+        }
+        return body;
+    }
+}
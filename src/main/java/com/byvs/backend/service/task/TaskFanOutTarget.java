@@ -0,0 +1,8 @@
+package com.byvs.backend.service.task;
+
+public enum TaskFanOutTarget {
+    // Every member with a profile in the district/state
+    MEMBER,
+    // Approved office bearers of the district/state
+    OFFICE_BEARER
+}
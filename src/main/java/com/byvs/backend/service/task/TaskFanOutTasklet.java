@@ -0,0 +1,106 @@
+package com.byvs.backend.service.task;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Materializes one task row per target user with set-based INSERT ... SELECT, one user-id slice per
+// chunk transaction. The last user id is saved in the step context in the same transaction as the
+// insert, so a restarted job continues after the last committed slice without duplicating tasks
+public class TaskFanOutTasklet implements Tasklet {
+
+    static final String LAST_USER_ID = "lastUserId";
+
+    private static final String INSERT = """
+            , inserted AS (
+                INSERT INTO task (title, description, reward_coins, created_at, deadline, assigned_by_id, assigned_to_id, completed)
+                SELECT ?, ?, ?, ?, ?, ?, t.id, false FROM targets t
+                RETURNING assigned_to_id
+            )
+            SELECT COUNT(*) AS inserted, MAX(assigned_to_id) AS last_user_id FROM inserted""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Timer sliceTimer;
+    private final MeterRegistry meterRegistry;
+    private final int sliceSize;
+    private final TaskFanOutRequest request;
+    private final Long assignedById;
+    private final Long maxUserId;
+    private final LocalDateTime createdAt;
+
+    public TaskFanOutTasklet(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry, int sliceSize,
+                             TaskFanOutRequest request, Long assignedById, Long maxUserId, LocalDateTime createdAt) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.sliceTimer = Timer.builder("byvs.task.fanout.slice")
+                .description("Time to insert one slice of fan-out tasks")
+                .register(meterRegistry);
+        this.sliceSize = sliceSize;
+        this.request = request;
+        this.assignedById = assignedById;
+        this.maxUserId = maxUserId;
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+        ExecutionContext context = chunkContext.getStepContext().getStepExecution().getExecutionContext();
+        long afterUserId = context.getLong(LAST_USER_ID, 0L);
+
+        List<Object> args = new ArrayList<>();
+        String sql = targets(afterUserId, args) + INSERT;
+        args.add(request.title());
+        args.add(request.description());
+        args.add(request.rewardCoins());
+        args.add(createdAt);
+        args.add(request.deadline());
+        args.add(assignedById);
+
+        Map<String, Object> result = sliceTimer.record(() -> jdbcTemplate.queryForMap(sql, args.toArray()));
+        long inserted = ((Number) result.get("inserted")).longValue();
+        if (inserted == 0) {
+            return RepeatStatus.FINISHED;
+        }
+        context.putLong(LAST_USER_ID, ((Number) result.get("last_user_id")).longValue());
+        contribution.incrementWriteCount(inserted);
+        meterRegistry.counter("byvs.task.fanout.rows", "target", request.role().name()).increment(inserted);
+        return inserted < sliceSize ? RepeatStatus.FINISHED : RepeatStatus.CONTINUABLE;
+    }
+
+    private String targets(long afterUserId, List<Object> args) {
+        StringBuilder sql = new StringBuilder("WITH targets AS (");
+        String alias;
+        if (request.role() == TaskFanOutTarget.OFFICE_BEARER) {
+            alias = "a";
+            sql.append("SELECT DISTINCT a.user_id AS id FROM office_bearer_application a " +
+                    "WHERE a.approved = true AND a.user_id > ? AND a.user_id <= ?");
+        } else {
+            alias = "p";
+            sql.append("SELECT DISTINCT p.user_id AS id FROM user_profile p WHERE p.user_id > ? AND p.user_id <= ?");
+        }
+        args.add(afterUserId);
+        args.add(maxUserId);
+        if (StringUtils.hasText(request.district())) {
+            sql.append(" AND ").append(alias).append(".district = ?");
+            args.add(request.district());
+        }
+        if (StringUtils.hasText(request.state())) {
+            sql.append(" AND ").append(alias).append(".state = ?");
+            args.add(request.state());
+        }
+        sql.append(" ORDER BY id LIMIT ?)");
+        args.add(sliceSize);
+        return sql.toString();
+    }
+}
@@ -0,0 +1,106 @@
+package com.byvs.backend.service.user;
+
+import jakarta.annotation.PreDestroy;
+import com.byvs.backend.service.member.MemberViewService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Coalesces last-login timestamps per user in memory and writes them in batches;
+// persisted values lag by at most user.last-login.flush-interval. The User second-level cache entry is left
+// alone (evicting it on every flush would empty the cache for exactly the active users), so nothing may write
+// last_login_at back from it; the serialized member views of each flushed batch are invalidated
+@Component
+@Slf4j
+public class LastLoginWriteBehind {
+
+    private final Map<Long, Instant> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MemberViewService memberViewService;
+    private final int batchSize;
+
+    public LastLoginWriteBehind(JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                MemberViewService memberViewService,
+                                @Value("${user.last-login.flush-batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.memberViewService = memberViewService;
+        this.batchSize = batchSize;
+    }
+
+    public void record(Long userId, Instant lastLoginAt) {
+        pending.merge(userId, lastLoginAt, (current, next) -> next.isAfter(current) ? next : current);
+    }
+
+    @Scheduled(fixedDelayString = "${user.last-login.flush-interval:PT15S}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<Map.Entry<Long, Instant>> drained = drain();
+            for (int from = 0; from < drained.size(); from += batchSize) {
+                List<Map.Entry<Long, Instant>> chunk = drained.subList(from, Math.min(from + batchSize, drained.size()));
+                try {
+                    transactionTemplate.executeWithoutResult(status -> write(chunk));
+                } catch (RuntimeException e) {
+                    log.error("Failed to flush {} last-login timestamps, will retry", chunk.size(), e);
+                    chunk.forEach(entry -> record(entry.getKey(), entry.getValue()));
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        if (!pending.isEmpty()) {
+            log.warn("Dropping {} last-login timestamps that could not be flushed on shutdown", pending.size());
+        }
+    }
+
+    private List<Map.Entry<Long, Instant>> drain() {
+        if (pending.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Map.Entry<Long, Instant>> drained = new ArrayList<>(pending.size());
+        for (Long userId : pending.keySet()) {
+            Instant lastLoginAt = pending.remove(userId);
+            if (lastLoginAt != null) {
+                drained.add(Map.entry(userId, lastLoginAt));
+            }
+        }
+        return drained;
+    }
+
+    private void write(List<Map.Entry<Long, Instant>> chunk) {
+        String values = String.join(", ", Collections.nCopies(chunk.size(), "(?::bigint, ?::timestamptz)"));
+        Object[] args = new Object[chunk.size() * 2];
+        for (int i = 0; i < chunk.size(); i++) {
+            args[i * 2] = chunk.get(i).getKey();
+            args[i * 2 + 1] = OffsetDateTime.ofInstant(chunk.get(i).getValue(), ZoneOffset.UTC);
+        }
+
+        jdbcTemplate.update("UPDATE app_user AS u SET last_login_at = GREATEST(u.last_login_at, v.last_login_at) " +
+                "FROM (VALUES " + values + ") AS v(id, last_login_at) WHERE u.id = v.id", args);
+        jdbcTemplate.update("UPDATE member_view AS m SET last_login_at = GREATEST(m.last_login_at, v.last_login_at) " +
+                "FROM (VALUES " + values + ") AS v(id, last_login_at) WHERE m.user_id = v.id", args);
+        memberViewService.evictAll(chunk.stream().map(Map.Entry::getKey).toList());
+    }
+}
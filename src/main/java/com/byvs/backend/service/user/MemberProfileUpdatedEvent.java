@@ -0,0 +1,4 @@
+package com.byvs.backend.service.user;
+
+public record MemberProfileUpdatedEvent(Long userId) {
+}
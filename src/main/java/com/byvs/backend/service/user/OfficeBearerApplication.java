@@ -16,7 +16,7 @@ public class OfficeBearerApplication {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private User user;
 
     private String district;
@@ -25,6 +25,7 @@ public class OfficeBearerApplication {
     private String socialWorkDescription;
     private String position;
     private LocalDateTime appliedAt;
+    @Column(nullable = false)
     private Boolean approved = false;
     private LocalDateTime approvedAt;
 }
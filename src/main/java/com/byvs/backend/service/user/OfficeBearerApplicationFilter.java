@@ -0,0 +1,7 @@
+package com.byvs.backend.service.user;
+
+import java.time.LocalDateTime;
+
+public record OfficeBearerApplicationFilter(boolean approved, String district, String state, String position,
+                                            LocalDateTime appliedFrom, LocalDateTime appliedTo) {
+}
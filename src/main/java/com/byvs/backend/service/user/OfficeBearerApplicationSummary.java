@@ -0,0 +1,21 @@
+package com.byvs.backend.service.user;
+
+import java.time.LocalDateTime;
+
+// Admin queue row; keeps the `user` key of the entity response but only with the fields the queue shows
+public record OfficeBearerApplicationSummary(Long id, String district, String state, String position,
+                                             String contactDetails, String socialWorkDescription,
+                                             LocalDateTime appliedAt, Boolean approved, LocalDateTime approvedAt,
+                                             Applicant user) {
+
+    public record Applicant(Long id, String fullName, String phone) {
+    }
+
+    public OfficeBearerApplicationSummary(Long id, String district, String state, String position,
+                                          String contactDetails, String socialWorkDescription,
+                                          LocalDateTime appliedAt, Boolean approved, LocalDateTime approvedAt,
+                                          Long userId, String fullName, String phone) {
+        this(id, district, state, position, contactDetails, socialWorkDescription, appliedAt, approved, approvedAt,
+                userId != null ? new Applicant(userId, fullName, phone) : null);
+    }
+}
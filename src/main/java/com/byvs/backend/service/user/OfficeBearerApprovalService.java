@@ -0,0 +1,185 @@
+package com.byvs.backend.service.user;
+
+import com.byvs.backend.service.service.EmailService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Approves many applications with one UPDATE ... RETURNING, loads every approved member's profile in
+// one query and queues the approval emails as one batch insert, all in a single short transaction.
+// Delivery happens later in EmailOutboxDispatcher, so no connection is held for SMTP
+@Service
+@Slf4j
+public class OfficeBearerApprovalService {
+
+    public enum Outcome {
+        APPROVED,
+        ALREADY_APPROVED,
+        NOT_FOUND
+    }
+
+    public record ItemResult(Long applicationId, Outcome outcome, Long userId, String district, boolean emailQueued) {
+    }
+
+    private record Approved(Long applicationId, Long userId, String district, String state, String position) {
+    }
+
+    private record Recipient(String email, String district, String state, String fullName) {
+    }
+
+    private static final String RETURNING = " RETURNING id, user_id, district, state, position";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxBatchSize;
+
+    public OfficeBearerApprovalService(JdbcTemplate jdbcTemplate,
+                                       TransactionTemplate transactionTemplate,
+                                       EmailService emailService,
+                                       ApplicationEventPublisher eventPublisher,
+                                       @Value("${office-bearer.bulk-approval.max-size:500}") int maxBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.emailService = emailService;
+        this.eventPublisher = eventPublisher;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public List<ItemResult> approveByIds(Collection<Long> ids) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        if (requested.isEmpty() || requested.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Between 1 and " + maxBatchSize + " application ids are required");
+        }
+        return transactionTemplate.execute(status -> {
+            List<Approved> approved = jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(
+                        "UPDATE office_bearer_application SET approved = true, approved_at = ? " +
+                                "WHERE id = ANY(?) AND approved = false" + RETURNING);
+                ps.setObject(1, LocalDateTime.now());
+                ps.setArray(2, connection.createArrayOf("bigint", requested.toArray()));
+                return ps;
+            }, (rs, rowNum) -> mapApproved(rs));
+
+            Map<Long, ItemResult> approvedResults = completeApproval(approved);
+            List<Long> remaining = requested.stream()
+                    .filter(id -> !approvedResults.containsKey(id))
+                    .toList();
+            Set<Long> existing = remaining.isEmpty() ? Set.of() : new LinkedHashSet<>(jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(
+                        "SELECT id FROM office_bearer_application WHERE id = ANY(?)");
+                ps.setArray(1, connection.createArrayOf("bigint", remaining.toArray()));
+                return ps;
+            }, (rs, rowNum) -> rs.getLong(1)));
+
+            List<ItemResult> results = new ArrayList<>(requested.size());
+            for (Long id : requested) {
+                ItemResult result = approvedResults.get(id);
+                if (result == null) {
+                    Outcome outcome = existing.contains(id) ? Outcome.ALREADY_APPROVED : Outcome.NOT_FOUND;
+                    result = new ItemResult(id, outcome, null, null, false);
+                }
+                results.add(result);
+            }
+            return results;
+        });
+    }
+
+    // Pending applications are claimed with SKIP LOCKED so concurrent approvals of the same district
+    // split the work instead of waiting on each other
+    public List<ItemResult> approveByFilter(String district, String state, int limit) {
+        if (!StringUtils.hasText(district)) {
+            throw new IllegalArgumentException("District is required");
+        }
+        int batchSize = Math.min(Math.max(limit, 1), maxBatchSize);
+        StringBuilder sql = new StringBuilder(
+                "UPDATE office_bearer_application SET approved = true, approved_at = ? WHERE id IN (" +
+                        "SELECT id FROM office_bearer_application WHERE approved = false AND district = ?");
+        List<Object> args = new ArrayList<>();
+        args.add(LocalDateTime.now());
+        args.add(district);
+        if (StringUtils.hasText(state)) {
+            sql.append(" AND state = ?");
+            args.add(state);
+        }
+        sql.append(" ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED)").append(RETURNING);
+        args.add(batchSize);
+
+        return transactionTemplate.execute(status -> {
+            List<Approved> approved = jdbcTemplate.query(sql.toString(), (rs, rowNum) -> mapApproved(rs), args.toArray());
+            return new ArrayList<>(completeApproval(approved).values());
+        });
+    }
+
+    private Map<Long, ItemResult> completeApproval(List<Approved> approved) {
+        Map<Long, ItemResult> results = new LinkedHashMap<>();
+        if (approved.isEmpty()) {
+            return results;
+        }
+        Map<Long, Recipient> recipients = loadRecipients(approved.stream().map(Approved::userId).distinct().toList());
+
+        List<EmailService.ApprovalEmail> emails = new ArrayList<>(approved.size());
+        for (Approved application : approved) {
+            Recipient recipient = recipients.get(application.userId());
+            boolean hasEmail = recipient != null && StringUtils.hasText(recipient.email());
+            if (hasEmail) {
+                emails.add(new EmailService.ApprovalEmail(recipient.email(), recipient.district(), recipient.state(),
+                        application.position(), recipient.fullName()));
+            }
+            results.put(application.applicationId(), new ItemResult(application.applicationId(), Outcome.APPROVED,
+                    application.userId(), application.district(), hasEmail));
+        }
+        emailService.sendOfficeBearerApprovalEmails(emails);
+
+        Set<String> districts = approved.stream()
+                .map(Approved::district)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        eventPublisher.publishEvent(new OfficeBearerApprovedEvent(List.copyOf(results.keySet()), districts));
+        log.info("Bulk approved {} office bearer applications, queued {} emails", approved.size(), emails.size());
+        return results;
+    }
+
+    private Map<Long, Recipient> loadRecipients(List<Long> userIds) {
+        Map<Long, Recipient> recipients = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "SELECT u.id, u.full_name, p.email, p.district, p.state FROM app_user u " +
+                            "LEFT JOIN user_profile p ON p.user_id = u.id WHERE u.id = ANY(?)");
+            ps.setArray(1, connection.createArrayOf("bigint", userIds.toArray()));
+            return ps;
+        }, rs -> {
+            recipients.put(rs.getLong(1), new Recipient(rs.getString(3), rs.getString(4), rs.getString(5), rs.getString(2)));
+        });
+        return recipients;
+    }
+
+    private static Approved mapApproved(ResultSet rs) throws SQLException {
+        return new Approved(rs.getLong("id"), rs.getLong("user_id"), rs.getString("district"),
+                rs.getString("state"), rs.getString("position"));
+    }
+}
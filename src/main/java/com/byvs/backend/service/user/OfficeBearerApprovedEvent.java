@@ -0,0 +1,7 @@
+package com.byvs.backend.service.user;
+
+import java.util.Collection;
+import java.util.Set;
+
+public record OfficeBearerApprovedEvent(Collection<Long> applicationIds, Set<String> districts) {
+}
@@ -0,0 +1,101 @@
+package com.byvs.backend.service.user;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+// In-memory read model of approved office bearers by district. Loaded at startup, reloaded per district
+// after an approval or an office bearer's profile edit commits, and fully refreshed periodically.
+// Approvals and edits reload only the instance that handled them; other instances pick them up at
+// their next full refresh, so office-bearer.directory.refresh-interval bounds how stale they can be
+@Component
+@Slf4j
+public class OfficeBearerDirectory {
+
+    private final OfficeBearerRepository officeBearerRepository;
+    private final Map<String, List<OfficeBearerDirectoryEntry>> byDistrict = new ConcurrentHashMap<>();
+    // Serializes reloads so a full refresh that read before an approval cannot overwrite its district reload
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    public OfficeBearerDirectory(OfficeBearerRepository officeBearerRepository) {
+        this.officeBearerRepository = officeBearerRepository;
+    }
+
+    public List<OfficeBearerDirectoryEntry> get(String district) {
+        return byDistrict.getOrDefault(district, List.of());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        reloadAll();
+    }
+
+    @Scheduled(initialDelayString = "${office-bearer.directory.refresh-interval:PT2M}",
+            fixedDelayString = "${office-bearer.directory.refresh-interval:PT2M}")
+    public void refresh() {
+        reloadAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onApproved(OfficeBearerApprovedEvent event) {
+        event.districts().forEach(this::reloadDistrict);
+    }
+
+    // Names and phones come from app_user, so an office bearer's edit reloads the districts they are listed in
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProfileUpdated(MemberProfileUpdatedEvent event) {
+        districtsOf(event.userId()).forEach(this::reloadDistrict);
+    }
+
+    public void reloadAll() {
+        reloadLock.lock();
+        try {
+            Map<String, List<OfficeBearerDirectoryEntry>> loaded = officeBearerRepository.findDirectoryRows().stream()
+                    .filter(row -> row.district() != null)
+                    .collect(Collectors.groupingBy(OfficeBearerDirectoryRow::district,
+                            Collectors.mapping(OfficeBearerDirectoryRow::toEntry, Collectors.toUnmodifiableList())));
+            byDistrict.putAll(loaded);
+            byDistrict.keySet().retainAll(loaded.keySet());
+            log.info("Loaded office bearer directory: {} districts", loaded.size());
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    public void reloadDistrict(String district) {
+        if (district == null) {
+            return;
+        }
+        reloadLock.lock();
+        try {
+            List<OfficeBearerDirectoryEntry> entries = officeBearerRepository.findDirectoryRows(district).stream()
+                    .map(OfficeBearerDirectoryRow::toEntry)
+                    .toList();
+            if (entries.isEmpty()) {
+                byDistrict.remove(district);
+            } else {
+                byDistrict.put(district, entries);
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private Set<String> districtsOf(Long userId) {
+        return byDistrict.entrySet().stream()
+                .filter(district -> district.getValue().stream()
+                        .anyMatch(entry -> userId.equals(entry.userData().id())))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,8 @@
+package com.byvs.backend.service.user;
+
+// Public directory row; replaces serializing the User entity in the approved office bearers list
+public record OfficeBearerDirectoryEntry(String position, Member userData) {
+
+    public record Member(Long id, String fullName, String phone, String avatarUrl) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.byvs.backend.service.user;
+
+public record OfficeBearerDirectoryRow(String district, String position, Long userId, String fullName,
+                                       String phone, String avatarUrl) {
+
+    OfficeBearerDirectoryEntry toEntry() {
+        return new OfficeBearerDirectoryEntry(
+                position != null ? position : "Unknown",
+                new OfficeBearerDirectoryEntry.Member(userId, fullName, phone, avatarUrl));
+    }
+}
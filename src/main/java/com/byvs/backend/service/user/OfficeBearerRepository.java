@@ -2,14 +2,19 @@ package com.byvs.backend.service.user;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
 
-public interface OfficeBearerRepository extends JpaRepository<OfficeBearerApplication,Long> {
+public interface OfficeBearerRepository extends JpaRepository<OfficeBearerApplication,Long>, OfficeBearerSearchRepository {
+    @EntityGraph(attributePaths = "user")
     Page<OfficeBearerApplication> findByApprovedTrue(Pageable pageable);
 
+    @EntityGraph(attributePaths = "user")
     Page<OfficeBearerApplication> findByApprovedFalse(Pageable pageable);
 
     Optional<OfficeBearerApplication> findByDistrict(String district);
@@ -18,9 +23,19 @@ public interface OfficeBearerRepository extends JpaRepository<OfficeBearerApplic
 
     boolean existsByUserAndApprovedTrue(User user);
 
+    // The status endpoint returns the application with its user
+    @EntityGraph(attributePaths = "user")
     Optional<OfficeBearerApplication> findByUser(User user);
 
     Optional<OfficeBearerApplication> findByUserAndApprovedTrue(User user);
     List<OfficeBearerApplication> findByDistrictAndApprovedTrue(String district);
+
+    @Query("select new com.byvs.backend.service.user.OfficeBearerDirectoryRow(a.district, a.position, u.id, u.fullName, u.phone, u.avatarUrl) " +
+            "from OfficeBearerApplication a join a.user u where a.approved = true order by a.id")
+    List<OfficeBearerDirectoryRow> findDirectoryRows();
+
+    @Query("select new com.byvs.backend.service.user.OfficeBearerDirectoryRow(a.district, a.position, u.id, u.fullName, u.phone, u.avatarUrl) " +
+            "from OfficeBearerApplication a join a.user u where a.approved = true and a.district = :district order by a.id")
+    List<OfficeBearerDirectoryRow> findDirectoryRows(@Param("district") String district);
 }
 
@@ -0,0 +1,9 @@
+package com.byvs.backend.service.user;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface OfficeBearerSearchRepository {
+
+    Page<OfficeBearerApplicationSummary> search(OfficeBearerApplicationFilter filter, Pageable pageable);
+}
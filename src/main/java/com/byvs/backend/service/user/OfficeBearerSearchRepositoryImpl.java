@@ -0,0 +1,92 @@
+package com.byvs.backend.service.user;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Transactional(readOnly = true)
+public class OfficeBearerSearchRepositoryImpl implements OfficeBearerSearchRepository {
+
+    private static final Map<String, String> SORTABLE = Map.of(
+            "appliedAt", "a.appliedAt",
+            "approvedAt", "a.approvedAt",
+            "district", "a.district",
+            "state", "a.state",
+            "position", "a.position",
+            "id", "a.id");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<OfficeBearerApplicationSummary> search(OfficeBearerApplicationFilter filter, Pageable pageable) {
+        // approved is inlined as a literal so PostgreSQL can match the partial indexes from V2 even on generic plans
+        StringBuilder where = new StringBuilder(filter.approved() ? " where a.approved = true" : " where a.approved = false");
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        if (StringUtils.hasText(filter.district())) {
+            where.append(" and a.district = :district");
+            parameters.put("district", filter.district());
+        }
+        if (StringUtils.hasText(filter.state())) {
+            where.append(" and a.state = :state");
+            parameters.put("state", filter.state());
+        }
+        if (StringUtils.hasText(filter.position())) {
+            where.append(" and a.position = :position");
+            parameters.put("position", filter.position());
+        }
+        if (filter.appliedFrom() != null) {
+            where.append(" and a.appliedAt >= :appliedFrom");
+            parameters.put("appliedFrom", filter.appliedFrom());
+        }
+        if (filter.appliedTo() != null) {
+            where.append(" and a.appliedAt < :appliedTo");
+            parameters.put("appliedTo", filter.appliedTo());
+        }
+
+        TypedQuery<OfficeBearerApplicationSummary> query = entityManager.createQuery(
+                "select new com.byvs.backend.service.user.OfficeBearerApplicationSummary(" +
+                        "a.id, a.district, a.state, a.position, a.contactDetails, a.socialWorkDescription, " +
+                        "a.appliedAt, a.approved, a.approvedAt, u.id, u.fullName, u.phone) " +
+                        "from OfficeBearerApplication a left join a.user u" + where + orderBy(pageable.getSort()),
+                OfficeBearerApplicationSummary.class);
+        parameters.forEach(query::setParameter);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        List<OfficeBearerApplicationSummary> content = query.getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> {
+            TypedQuery<Long> count = entityManager.createQuery(
+                    "select count(a) from OfficeBearerApplication a" + where, Long.class);
+            parameters.forEach(count::setParameter);
+            return count.getSingleResult();
+        });
+    }
+
+    private static String orderBy(Sort sort) {
+        StringBuilder order = new StringBuilder();
+        for (Sort.Order sortOrder : sort) {
+            String path = SORTABLE.get(sortOrder.getProperty());
+            if (path == null) {
+                throw new IllegalArgumentException("Unsupported sort property: " + sortOrder.getProperty());
+            }
+            order.append(order.isEmpty() ? " order by " : ", ")
+                    .append(path)
+                    .append(sortOrder.isAscending() ? " asc" : " desc");
+        }
+        // Stable paging when the sort key has duplicates
+        return order.append(order.isEmpty() ? " order by a.id desc" : ", a.id desc").toString();
+    }
+}
@@ -22,11 +22,16 @@ public class Task {
     private LocalDateTime createdAt;
     private LocalDateTime deadline;
 
-    @ManyToOne
+    // Lazy: an eager to-one costs a select per distinct user whenever tasks are loaded as entities
+    @ManyToOne(fetch = FetchType.LAZY)
     private User assignedBy; // Admin who assigned the task
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private User assignedTo;
 
     private Boolean completed = false;
+    private LocalDateTime completedAt;
+    private LocalDateTime dayReminderSentAt;
+    private LocalDateTime hourReminderSentAt;
+    private LocalDateTime expiredAt;
 }
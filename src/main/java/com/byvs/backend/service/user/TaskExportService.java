@@ -0,0 +1,67 @@
+package com.byvs.backend.service.user;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.stream.Stream;
+
+// Writes every task as a JSON array straight from a database cursor, so the full list is never held in memory.
+// The cursor's transaction is bounded by task.export.timeout: the query runs with it as its statement timeout,
+// and a slow client that keeps the cursor open past it gets a truncated body rather than holding the connection
+@Service
+public class TaskExportService {
+
+    private final TaskRepository taskRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter taskWriter;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Duration timeout;
+
+    public TaskExportService(TaskRepository taskRepository, ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${task.export.timeout:PT30S}") Duration timeout) {
+        this.taskRepository = taskRepository;
+        this.objectMapper = objectMapper;
+        this.taskWriter = objectMapper.writerFor(TaskSummary.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setTimeout((int) Math.max(1, timeout.toSeconds()));
+        this.timeout = timeout;
+    }
+
+    public void writeAll(OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            long deadline = System.nanoTime() + timeout.toNanos();
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<TaskSummary> tasks = taskRepository.streamSummaries()) {
+                    tasks.forEach(task -> {
+                        if (System.nanoTime() - deadline > 0) {
+                            throw new TransactionTimedOutException("Task export did not finish within " + timeout);
+                        }
+                        try {
+                            taskWriter.writeValue(generator, task);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+            });
+            generator.writeEndArray();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
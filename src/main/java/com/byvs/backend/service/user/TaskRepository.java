@@ -1,10 +1,32 @@
 package com.byvs.backend.service.user;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface TaskRepository extends JpaRepository<Task,Long> {
-    List<Task> findByAssignedTo(User user);
+    String SUMMARY = "select new com.byvs.backend.service.user.TaskSummary(t.id, t.title, t.description, t.rewardCoins, " +
+            "t.createdAt, t.deadline, t.completed, b.id, b.fullName, a.id, a.fullName) " +
+            "from Task t left join t.assignedBy b left join t.assignedTo a";
+
+    @Query(SUMMARY + " where a.id = :userId order by t.deadline, t.id")
+    List<TaskSummary> findSummariesByAssignedToId(@Param("userId") Long userId);
+
+    @Query(value = SUMMARY, countQuery = "select count(t) from Task t")
+    Page<TaskSummary> findSummaries(Pageable pageable);
 
+    // Must be consumed inside a transaction; rows are fetched from a cursor in chunks of the fetch size
+    @Query(SUMMARY + " order by t.id")
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    Stream<TaskSummary> streamSummaries();
 }
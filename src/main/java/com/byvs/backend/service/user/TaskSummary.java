@@ -0,0 +1,28 @@
+package com.byvs.backend.service.user;
+
+import java.time.LocalDateTime;
+
+// Task row for listings: the assigner and assignee are reduced to id and name instead of full User rows
+public record TaskSummary(Long id, String title, String description, Integer rewardCoins, LocalDateTime createdAt,
+                          LocalDateTime deadline, Boolean completed, Person assignedBy, Person assignedTo) {
+
+    public record Person(Long id, String fullName) {
+    }
+
+    public TaskSummary(Long id, String title, String description, Integer rewardCoins, LocalDateTime createdAt,
+                       LocalDateTime deadline, Boolean completed, Long assignedById, String assignedByName,
+                       Long assignedToId, String assignedToName) {
+        this(id, title, description, rewardCoins, createdAt, deadline, completed,
+                assignedById != null ? new Person(assignedById, assignedByName) : null,
+                assignedToId != null ? new Person(assignedToId, assignedToName) : null);
+    }
+
+    public static TaskSummary of(Task task) {
+        User by = task.getAssignedBy();
+        User to = task.getAssignedTo();
+        return new TaskSummary(task.getId(), task.getTitle(), task.getDescription(), task.getRewardCoins(),
+                task.getCreatedAt(), task.getDeadline(), task.getCompleted(),
+                by != null ? by.getId() : null, by != null ? by.getFullName() : null,
+                to != null ? to.getId() : null, to != null ? to.getFullName() : null);
+    }
+}
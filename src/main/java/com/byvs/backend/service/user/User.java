@@ -4,23 +4,30 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.Instant;
 
 @Entity
-@Table(name = "app_user", indexes = {
-        @Index(name = "idx_user_phone", columnList = "phone"),
-        @Index(name = "idx_user_referral_code", columnList = "referral_code")
-})
+@Table(name = "app_user")
 @Getter
 @Setter
 @NoArgsConstructor
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "app_user")
+@NaturalIdCache(region = "app_user_phone")
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     // Encrypted or hashed in DB via column-level encryption / pgcrypto; store normalized E.164
+    @NaturalId(mutable = true)
     @Column(name = "phone", nullable = false, unique = true, length = 32)
     private String phone;
 
@@ -42,15 +49,12 @@ public class User {
     @Column(name = "last_login_at")
     private Instant lastLoginAt;
 
-    @Column(name = "verified_referrals_count", columnDefinition = "integer default 0")
+    // Never written by entity updates; VerifiedReferralCounter changes it with atomic SQL increments
+    @Column(name = "verified_referrals_count", columnDefinition = "integer default 0", updatable = false)
     private int verifiedReferralsCount = 0;
 
     @Column(name = "avatar_url")
     private String avatarUrl;
-
-    public void incrementVerifiedReferrals() {
-        this.verifiedReferralsCount++;
-    }
 }
 
 
@@ -0,0 +1,34 @@
+package com.byvs.backend.service.user;
+
+import com.byvs.backend.service.util.TransactionCallbacks;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.springframework.stereotype.Component;
+
+// Drops second-level cache entries once the writing transaction has committed
+@Component
+@RequiredArgsConstructor
+public class UserCacheEvictor {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public void evictUser(Long userId) {
+        TransactionCallbacks.afterCommit(() -> cache().evictEntityData(User.class, userId));
+    }
+
+    public void evictPhoneLookups() {
+        TransactionCallbacks.afterCommit(() -> cache().evictNaturalIdData(User.class));
+    }
+
+    public void evictProfile(Long profileId) {
+        if (profileId == null) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> cache().evictEntityData(UserProfile.class, profileId));
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.getCache().unwrap(Cache.class);
+    }
+}
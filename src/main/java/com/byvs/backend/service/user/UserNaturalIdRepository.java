@@ -0,0 +1,9 @@
+package com.byvs.backend.service.user;
+
+import java.util.Optional;
+
+public interface UserNaturalIdRepository {
+    Optional<User> findByPhone(String phone);
+
+    Optional<User> findByReferralCode(String referralCode);
+}
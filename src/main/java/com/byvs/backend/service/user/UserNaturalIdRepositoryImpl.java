@@ -0,0 +1,40 @@
+package com.byvs.backend.service.user;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+// Resolves users through the natural-id caches instead of a JPQL query per lookup
+@Transactional(readOnly = true)
+public class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // The phone is mutable: a lookup cached before a change, or cached again by a replica read that had
+    // not seen it, resolves to a member who no longer has the phone. Then the cached lookups are dropped
+    // and the phone is looked up directly
+    @Override
+    public Optional<User> findByPhone(String phone) {
+        Session session = entityManager.unwrap(Session.class);
+        Optional<User> user = session.bySimpleNaturalId(User.class).loadOptional(phone);
+        if (user.isEmpty() || phone.equals(user.get().getPhone())) {
+            return user;
+        }
+        session.getSessionFactory().getCache().evictNaturalIdData(User.class);
+        return session.createSelectionQuery("from User where phone = :phone", User.class)
+                .setParameter("phone", phone)
+                .uniqueResultOptional();
+    }
+
+    @Override
+    public Optional<User> findByReferralCode(String referralCode) {
+        Session session = entityManager.unwrap(Session.class);
+        return session.bySimpleNaturalId(UserReferralCode.class)
+                .loadOptional(referralCode)
+                .map(code -> session.get(User.class, code.getId()));
+    }
+}
@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Type;
 
 import java.time.LocalDateTime;
@@ -13,6 +15,8 @@ import java.time.LocalDateTime;
 @Setter
 @NoArgsConstructor
 @Table(name = "user_profile")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user_profile")
 public class UserProfile {
 
     @Id
@@ -61,6 +65,8 @@ public class UserProfile {
 
     @Column(name = "membership_id")
     private String membershipId;
+
+    // Lazy only with bytecode enhancement (see pom.xml); keeps the photo out of profile reads and the L2 cache
     @Lob
     @Basic(fetch = FetchType.LAZY)
     @Column(name = "photo", columnDefinition = "BYTEA")
@@ -74,4 +80,8 @@ public class UserProfile {
 
     @Column(name = "photo_height")
     private Integer photoHeight;
+
+    // SHA-256 of the photo bytes; lets rendered ID cards be cached without reading the photo
+    @Column(name = "photo_hash", length = 64)
+    private String photoHash;
 }
\ No newline at end of file
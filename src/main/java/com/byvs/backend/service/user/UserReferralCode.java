@@ -0,0 +1,28 @@
+package com.byvs.backend.service.user;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
+// Read-only view of app_user so referral codes get their own natural-id cache; Hibernate allows one natural id per entity
+@Entity
+@Immutable
+@Table(name = "app_user")
+@Getter
+@NoArgsConstructor
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "app_user_referral_code")
+@NaturalIdCache(region = "app_user_referral_code_id")
+public class UserReferralCode {
+    @Id
+    private Long id;
+
+    @NaturalId
+    @Column(name = "referral_code", nullable = false, length = 16)
+    private String referralCode;
+}
@@ -1,15 +1,16 @@
 package com.byvs.backend.service.user;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.time.Instant;
 
-public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByPhone(String phone);
-    Optional<User> findByReferralCode(String referralCode);
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository {
     boolean existsByReferralCode(String referralCode);
 
     boolean existsByPhone(String phone);
@@ -19,10 +20,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("UPDATE User u SET u.verified = true WHERE u.phone = :phone")
     void markAsVerified(String phone);
 
-    @Transactional
-    @Modifying
-    @Query("UPDATE User u SET u.lastLoginAt = CURRENT_TIMESTAMP WHERE u.id = :userId")
-    void updateLastLogin(Long userId);
+    // Read from the row rather than the second-level cache, which LastLoginWriteBehind does not refresh;
+    // the share lock holds a concurrent flush back until the caller commits
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT u.lastLoginAt FROM User u WHERE u.id = :id")
+    Instant findLastLoginAt(@Param("id") Long id);
 }
 
 
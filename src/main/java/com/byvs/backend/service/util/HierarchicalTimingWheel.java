@@ -0,0 +1,152 @@
+package com.byvs.backend.service.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Hashed hierarchical timing wheel: 64 slots per level, each level's slot spanning a full turn of the
+// level below. Adding a timer and firing a tick are O(1); a timer is moved down at most once per level.
+// Timers beyond the top level wait in its farthest slot and are re-placed when that slot comes round.
+// A cancelled timer stays in its slot and is dropped when the slot comes round. Not thread-safe,
+// callers serialize access
+public class HierarchicalTimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    public static final class Timer<T> {
+
+        private final long tick;
+        private final T item;
+        private boolean done;
+
+        private Timer(long tick, T item) {
+            this.tick = tick;
+            this.item = item;
+        }
+
+        public T item() {
+            return item;
+        }
+    }
+
+    private final long tickMillis;
+    private final List<Timer<T>>[][] levels;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMillis, int levelCount, long startMillis) {
+        if (tickMillis <= 0 || levelCount < 1 || levelCount > 8) {
+            throw new IllegalArgumentException("Tick must be positive and levels between 1 and 8");
+        }
+        this.tickMillis = tickMillis;
+        this.levels = new List[levelCount][SLOTS];
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // End of the last tick that has fired; every timer at or before this time has been handed out
+    public long currentTimeMillis() {
+        return currentTick * tickMillis;
+    }
+
+    // Timers at or before the current time are handed to expired straight away
+    public Timer<T> add(long fireAtMillis, T item, Consumer<T> expired) {
+        Timer<T> timer = new Timer<>(Math.floorDiv(fireAtMillis + tickMillis - 1, tickMillis), item);
+        if (timer.tick <= currentTick) {
+            timer.done = true;
+            expired.accept(item);
+            return timer;
+        }
+        place(timer);
+        size++;
+        return timer;
+    }
+
+    // False if the timer has already fired or been cancelled. To reschedule, cancel and add again
+    public boolean cancel(Timer<T> timer) {
+        if (timer.done) {
+            return false;
+        }
+        timer.done = true;
+        size--;
+        return true;
+    }
+
+    // Fires every slot up to nowMillis in tick order; cascades run before the level-0 slot of the same tick
+    public void advanceTo(long nowMillis, Consumer<T> expired) {
+        long target = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < target) {
+            if (size == 0) {
+                currentTick = target;
+                return;
+            }
+            currentTick++;
+            for (int level = levels.length - 1; level >= 1; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(level, (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK), expired);
+                }
+            }
+            List<Timer<T>> due = take(0, (int) (currentTick & SLOT_MASK));
+            if (due != null) {
+                for (Timer<T> timer : due) {
+                    fire(timer, expired);
+                }
+            }
+        }
+    }
+
+    private void cascade(int level, int slot, Consumer<T> expired) {
+        List<Timer<T>> timers = take(level, slot);
+        if (timers == null) {
+            return;
+        }
+        for (Timer<T> timer : timers) {
+            if (timer.done) {
+                continue;
+            }
+            if (timer.tick <= currentTick) {
+                fire(timer, expired);
+            } else {
+                place(timer);
+            }
+        }
+    }
+
+    private void fire(Timer<T> timer, Consumer<T> expired) {
+        if (!timer.done) {
+            timer.done = true;
+            size--;
+            expired.accept(timer.item);
+        }
+    }
+
+    private void place(Timer<T> timer) {
+        long delay = timer.tick - currentTick;
+        int level = 0;
+        while (level < levels.length - 1 && delay >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        long slotTick = delay >= 1L << (SLOT_BITS * (level + 1))
+                ? currentTick + (1L << (SLOT_BITS * (level + 1))) - 1
+                : timer.tick;
+        int slot = (int) ((slotTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        List<Timer<T>> timers = levels[level][slot];
+        if (timers == null) {
+            timers = new ArrayList<>();
+            levels[level][slot] = timers;
+        }
+        timers.add(timer);
+    }
+
+    private List<Timer<T>> take(int level, int slot) {
+        List<Timer<T>> timers = levels[level][slot];
+        levels[level][slot] = null;
+        return timers;
+    }
+}
@@ -0,0 +1,80 @@
+package com.byvs.backend.service.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Runs ImageCompressionUtil on the image executor, so concurrent uploads share a fixed number of
+// cores instead of each request thread decoding and scaling at once. The caller waits for the result;
+// a full executor surfaces as TaskRejectedException
+@Service
+public class ImageCompressionService {
+
+    private final AsyncTaskExecutor imageExecutor;
+    private final Duration timeout;
+    private final Timer successTimer;
+    private final Timer failureTimer;
+
+    public ImageCompressionService(@Qualifier("imageExecutor") AsyncTaskExecutor imageExecutor,
+                                   @Value("${executor.image.timeout:PT30S}") Duration timeout,
+                                   MeterRegistry meterRegistry) {
+        this.imageExecutor = imageExecutor;
+        this.timeout = timeout;
+        this.successTimer = compressTimer(meterRegistry, "success");
+        this.failureTimer = compressTimer(meterRegistry, "failure");
+    }
+
+    // The upload is read on the request thread: after a timeout the worker may still be decoding, and
+    // the container can delete the multipart temp file once the request completes
+    public byte[] compress(MultipartFile file, float compressionQuality, int maxWidth, int maxHeight) throws IOException {
+        byte[] content = file.getBytes();
+        String filename = file.getOriginalFilename();
+        Future<byte[]> result = imageExecutor.submit(() -> compressTimed(content, filename, compressionQuality, maxWidth, maxHeight));
+        try {
+            return result.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            throw new IOException("Image compression timed out after " + timeout.toMillis() + "ms", e);
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for image compression", e);
+        }
+    }
+
+    // Times the compression itself; waiting for an image thread shows up in byvs.executor.wait
+    private byte[] compressTimed(byte[] content, String filename, float compressionQuality, int maxWidth, int maxHeight) throws IOException {
+        long start = System.nanoTime();
+        Timer outcome = failureTimer;
+        try {
+            byte[] compressed = ImageCompressionUtil.compressAndSave(content, filename, compressionQuality, maxWidth, maxHeight);
+            outcome = successTimer;
+            return compressed;
+        } finally {
+            outcome.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Timer compressTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("byvs.image.compress")
+                .description("Decode, scale and JPEG-encode one uploaded photo")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -8,6 +8,7 @@ import javax.imageio.ImageWriter;
 import javax.imageio.stream.ImageOutputStream;
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Iterator;
@@ -15,10 +16,14 @@ import java.util.Iterator;
 public class ImageCompressionUtil {
 
     public static byte[] compressAndSave(MultipartFile file, float compressionQuality, int maxWidth, int maxHeight) throws IOException {
+        return compressAndSave(file.getBytes(), file.getOriginalFilename(), compressionQuality, maxWidth, maxHeight);
+    }
+
+    public static byte[] compressAndSave(byte[] content, String filename, float compressionQuality, int maxWidth, int maxHeight) throws IOException {
         if (compressionQuality < 0 || compressionQuality > 1) {
             throw new IllegalArgumentException("Compression quality must be between 0 and 1");
         }
-        BufferedImage originalImage = ImageIO.read(file.getInputStream());
+        BufferedImage originalImage = ImageIO.read(new ByteArrayInputStream(content));
         if (originalImage == null) {
             throw new IOException("Unsupported image format");
         }
@@ -41,7 +46,7 @@ public class ImageCompressionUtil {
         graphics.drawImage(originalImage, 0, 0, newWidth, newHeight, null);
         graphics.dispose();
 
-        String formatName = getImageFormat(file.getOriginalFilename());
+        String formatName = getImageFormat(filename);
         ByteArrayOutputStream compressedOutputStream = new ByteArrayOutputStream();
 
         try (ImageOutputStream imageOutputStream = ImageIO.createImageOutputStream(compressedOutputStream)) {
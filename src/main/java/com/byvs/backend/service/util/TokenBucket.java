@@ -0,0 +1,53 @@
+package com.byvs.backend.service.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Blocking token bucket: refills at a fixed rate up to capacity, so callers may burst up to
+// capacity and are then held to the refill rate
+public final class TokenBucket {
+
+    private final long capacity;
+    private final double permitsPerNanosecond;
+    private final ReentrantLock lock = new ReentrantLock();
+    private double available;
+    private long refilledAt;
+
+    public TokenBucket(long capacity, double permitsPerSecond) {
+        if (capacity <= 0 || permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("Capacity and rate must be positive");
+        }
+        this.capacity = capacity;
+        this.permitsPerNanosecond = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.available = capacity;
+        this.refilledAt = System.nanoTime();
+    }
+
+    public void acquire(long permits) throws InterruptedException {
+        long remaining = permits;
+        while (remaining > 0) {
+            // Requests larger than the bucket are taken in capacity-sized pieces
+            long wanted = Math.min(remaining, capacity);
+            long waitNanos;
+            lock.lock();
+            try {
+                refill();
+                if (available >= wanted) {
+                    available -= wanted;
+                    remaining -= wanted;
+                    continue;
+                }
+                waitNanos = (long) Math.ceil((wanted - available) / permitsPerNanosecond);
+            } finally {
+                lock.unlock();
+            }
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        available = Math.min(capacity, available + (now - refilledAt) * permitsPerNanosecond);
+        refilledAt = now;
+    }
+}
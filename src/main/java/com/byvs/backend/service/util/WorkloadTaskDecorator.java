@@ -0,0 +1,80 @@
+package com.byvs.backend.service.util;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Meters one workload's executor from the tasks themselves, so pooled and virtual-thread executors
+// report the same gauges: tasks waiting to start, tasks running, and per-task wait and run time
+public class WorkloadTaskDecorator implements TaskDecorator {
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final Timer waitTimer;
+    private final Timer runTimer;
+
+    public WorkloadTaskDecorator(String workload, MeterRegistry meterRegistry) {
+        Gauge.builder("byvs.executor.queued", queued, AtomicInteger::get)
+                .tag("workload", workload)
+                .description("Tasks submitted but not yet started")
+                .register(meterRegistry);
+        Gauge.builder("byvs.executor.active", active, AtomicInteger::get)
+                .tag("workload", workload)
+                .description("Tasks running")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("byvs.executor.wait")
+                .tag("workload", workload)
+                .description("Time from submission to start")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("byvs.executor.run")
+                .tag("workload", workload)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        queued.incrementAndGet();
+        return new MeteredTask(runnable, System.nanoTime());
+    }
+
+    public final class MeteredTask implements Runnable {
+
+        private final Runnable delegate;
+        private final long submittedAt;
+        private final AtomicBoolean started = new AtomicBoolean();
+
+        private MeteredTask(Runnable delegate, long submittedAt) {
+            this.delegate = delegate;
+            this.submittedAt = submittedAt;
+        }
+
+        @Override
+        public void run() {
+            if (!started.compareAndSet(false, true)) {
+                return;
+            }
+            long startedAt = System.nanoTime();
+            queued.decrementAndGet();
+            active.incrementAndGet();
+            waitTimer.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+            try {
+                delegate.run();
+            } finally {
+                active.decrementAndGet();
+                runTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        // Called for a rejected task that will never run
+        public void discard() {
+            if (started.compareAndSet(false, true)) {
+                queued.decrementAndGet();
+            }
+        }
+    }
+}
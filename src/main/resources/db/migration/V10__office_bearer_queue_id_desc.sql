@@ -0,0 +1,17 @@
+-- The admin queue breaks ties with a.id desc (newest first, like the sort keys), so the V2 indexes
+-- declared id ascending could not return a page in order without a sort. Rebuilt with id DESC
+DROP INDEX IF EXISTS idx_oba_pending_district_applied;
+CREATE INDEX IF NOT EXISTS idx_oba_pending_district_applied
+    ON office_bearer_application (district, applied_at DESC, id DESC) WHERE approved = false;
+
+DROP INDEX IF EXISTS idx_oba_pending_state_applied;
+CREATE INDEX IF NOT EXISTS idx_oba_pending_state_applied
+    ON office_bearer_application (state, applied_at DESC, id DESC) WHERE approved = false;
+
+DROP INDEX IF EXISTS idx_oba_pending_applied;
+CREATE INDEX IF NOT EXISTS idx_oba_pending_applied
+    ON office_bearer_application (applied_at DESC, id DESC) WHERE approved = false;
+
+DROP INDEX IF EXISTS idx_oba_approved_district;
+CREATE INDEX IF NOT EXISTS idx_oba_approved_district
+    ON office_bearer_application (district, approved_at DESC, id DESC) WHERE approved = true;
@@ -0,0 +1,159 @@
+-- Baseline of the schema previously created by hibernate ddl-auto=update.
+-- Idempotent so it can run against databases that were created that way (baseline-version=0).
+
+CREATE TABLE IF NOT EXISTS app_user (
+    is_verified boolean not null,
+    verified_referrals_count integer default 0,
+    created_at timestamp(6) with time zone not null,
+    id bigint generated by default as identity,
+    last_login_at timestamp(6) with time zone,
+    referral_code varchar(16) not null unique,
+    referred_by_code varchar(16),
+    phone varchar(32) not null unique,
+    full_name varchar(128),
+    avatar_url varchar(255),
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS email_outbox (
+    attempts integer not null,
+    created_at timestamp(6) with time zone not null,
+    id bigint generated by default as identity,
+    next_attempt_at timestamp(6) with time zone not null,
+    sent_at timestamp(6) with time zone,
+    status varchar(16) not null check (status in ('PENDING','SENT','FAILED')),
+    template varchar(64) not null,
+    last_error varchar(1000),
+    recipient varchar(255) not null,
+    subject varchar(255) not null,
+    variables text not null,
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS member_view (
+    age integer,
+    joined_at timestamp(6),
+    last_login_at timestamp(6) with time zone,
+    updated_at timestamp(6) with time zone not null,
+    user_id bigint not null,
+    verified_referrals bigint not null,
+    referral_code varchar(16),
+    phone varchar(32),
+    full_name varchar(128),
+    block_name varchar(255),
+    district varchar(255),
+    email varchar(255),
+    institution_address varchar(255),
+    institution_name varchar(255),
+    membership_id varchar(255),
+    profession varchar(255),
+    state varchar(255),
+    village_town_city varchar(255),
+    whatsapp_number varchar(255),
+    primary key (user_id)
+);
+
+CREATE TABLE IF NOT EXISTS office_bearer_application (
+    approved boolean,
+    applied_at timestamp(6),
+    approved_at timestamp(6),
+    id bigint generated by default as identity,
+    user_id bigint,
+    contact_details varchar(255),
+    district varchar(255),
+    position varchar(255),
+    social_work_description varchar(255),
+    state varchar(255),
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS referral_events (
+    id bigint generated by default as identity,
+    occurred_at timestamp(6) with time zone not null,
+    referred_user_id bigint,
+    referrer_user_id bigint not null,
+    event_type varchar(32) not null check (event_type in ('SHARE','LINK_CLICK','SIGNUP','VERIFICATION')),
+    ip_address varchar(255),
+    referral_source varchar(255),
+    tracking_id varchar(255) not null unique,
+    user_agent varchar(255),
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS task (
+    completed boolean,
+    reward_coins integer,
+    assigned_by_id bigint,
+    assigned_to_id bigint,
+    created_at timestamp(6),
+    deadline timestamp(6),
+    id bigint generated by default as identity,
+    description varchar(255),
+    title varchar(255),
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS user_profile (
+    age integer,
+    photo_height integer,
+    photo_width integer,
+    id bigint generated by default as identity,
+    joined_at timestamp(6),
+    user_id bigint,
+    block_name varchar(255),
+    district varchar(255),
+    email varchar(255),
+    institution_address varchar(255),
+    institution_name varchar(255),
+    membership_id varchar(255),
+    photo_content_type varchar(255),
+    photo_path varchar(255),
+    profession varchar(255),
+    state varchar(255),
+    village_town_city varchar(255),
+    whatsapp_number varchar(255),
+    photo BYTEA,
+    primary key (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_user_phone ON app_user (phone);
+
+CREATE INDEX IF NOT EXISTS idx_user_referral_code ON app_user (referral_code);
+
+CREATE INDEX IF NOT EXISTS idx_email_outbox_due ON email_outbox (status, next_attempt_at);
+
+CREATE INDEX IF NOT EXISTS idx_referrer_user ON referral_events (referrer_user_id);
+
+CREATE INDEX IF NOT EXISTS idx_referred_user ON referral_events (referred_user_id);
+
+CREATE INDEX IF NOT EXISTS idx_event_type ON referral_events (event_type);
+
+CREATE INDEX IF NOT EXISTS idx_occurred_at ON referral_events (occurred_at);
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fk90w3xht1p0g75ss5kcyym9lci') THEN
+        ALTER TABLE office_bearer_application ADD CONSTRAINT FK90w3xht1p0g75ss5kcyym9lci FOREIGN KEY (user_id) REFERENCES app_user;
+    END IF;
+END $$;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fk8w21c6hx5spctecrcdw5i42v7') THEN
+        ALTER TABLE task ADD CONSTRAINT FK8w21c6hx5spctecrcdw5i42v7 FOREIGN KEY (assigned_by_id) REFERENCES app_user;
+    END IF;
+END $$;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fkb58h5uq2nvv7jnvmpltbqv841') THEN
+        ALTER TABLE task ADD CONSTRAINT FKb58h5uq2nvv7jnvmpltbqv841 FOREIGN KEY (assigned_to_id) REFERENCES app_user;
+    END IF;
+END $$;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fkpdmw33px6fmevqhcy2lpstu4w') THEN
+        ALTER TABLE user_profile ADD CONSTRAINT FKpdmw33px6fmevqhcy2lpstu4w FOREIGN KEY (user_id) REFERENCES app_user;
+    END IF;
+END $$;
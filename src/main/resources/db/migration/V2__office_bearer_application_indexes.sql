@@ -0,0 +1,21 @@
+-- The admin queue and bulk approval filter on approved = false; make the flag non-null so the
+-- partial indexes below match every pending row
+UPDATE office_bearer_application SET approved = false WHERE approved IS NULL;
+ALTER TABLE office_bearer_application ALTER COLUMN approved SET DEFAULT false;
+ALTER TABLE office_bearer_application ALTER COLUMN approved SET NOT NULL;
+
+-- Pending queue: by district or state, newest applications first, and unfiltered by date
+CREATE INDEX IF NOT EXISTS idx_oba_pending_district_applied
+    ON office_bearer_application (district, applied_at DESC, id) WHERE approved = false;
+CREATE INDEX IF NOT EXISTS idx_oba_pending_state_applied
+    ON office_bearer_application (state, applied_at DESC, id) WHERE approved = false;
+CREATE INDEX IF NOT EXISTS idx_oba_pending_applied
+    ON office_bearer_application (applied_at DESC, id) WHERE approved = false;
+
+-- Approved list and the office bearer directory, both keyed by district
+CREATE INDEX IF NOT EXISTS idx_oba_approved_district
+    ON office_bearer_application (district, approved_at DESC, id) WHERE approved = true;
+
+-- existsByUserAnd..., findByUser and the join from app_user
+CREATE INDEX IF NOT EXISTS idx_oba_user
+    ON office_bearer_application (user_id);
@@ -0,0 +1,3 @@
+-- Member task list (assigned_to, ordered by deadline) and the admin task pages (newest first)
+CREATE INDEX IF NOT EXISTS idx_task_assigned_to_deadline ON task (assigned_to_id, deadline, id);
+CREATE INDEX IF NOT EXISTS idx_task_created_at ON task (created_at DESC, id DESC);
@@ -0,0 +1,5 @@
+-- Profile lookups by user and the district/state targeting used by announcements and task fan-out,
+-- both of which walk user_id in order within a district or state
+CREATE INDEX IF NOT EXISTS idx_user_profile_user_id ON user_profile (user_id);
+CREATE INDEX IF NOT EXISTS idx_user_profile_district_user ON user_profile (district, user_id);
+CREATE INDEX IF NOT EXISTS idx_user_profile_state_user ON user_profile (state, user_id);
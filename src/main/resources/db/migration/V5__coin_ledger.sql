@@ -0,0 +1,48 @@
+-- Append-only reward coin ledger. coin_balance is the running total per user, maintained by the same
+-- statement that appends; coin_checkpoint holds the total of entries moved to coin_ledger_archive
+ALTER TABLE task ADD COLUMN IF NOT EXISTS completed_at timestamp(6);
+
+CREATE TABLE IF NOT EXISTS coin_ledger (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    amount integer not null,
+    reason varchar(32) not null,
+    reference_id bigint,
+    idempotency_key varchar(128) not null,
+    created_at timestamp(6) not null,
+    primary key (id),
+    constraint uk_coin_ledger_idempotency_key unique (idempotency_key),
+    constraint fk_coin_ledger_user foreign key (user_id) references app_user
+);
+
+CREATE INDEX IF NOT EXISTS idx_coin_ledger_user ON coin_ledger (user_id, id DESC);
+CREATE INDEX IF NOT EXISTS idx_coin_ledger_created_at ON coin_ledger (created_at, id);
+
+CREATE TABLE IF NOT EXISTS coin_ledger_archive (
+    id bigint not null,
+    user_id bigint not null,
+    amount integer not null,
+    reason varchar(32) not null,
+    reference_id bigint,
+    idempotency_key varchar(128) not null,
+    created_at timestamp(6) not null,
+    primary key (id),
+    constraint uk_coin_ledger_archive_idempotency_key unique (idempotency_key)
+);
+
+CREATE TABLE IF NOT EXISTS coin_balance (
+    user_id bigint not null,
+    balance bigint not null,
+    updated_at timestamp(6) not null,
+    primary key (user_id),
+    constraint fk_coin_balance_user foreign key (user_id) references app_user
+);
+
+CREATE TABLE IF NOT EXISTS coin_checkpoint (
+    user_id bigint not null,
+    balance bigint not null,
+    entry_count bigint not null,
+    last_entry_id bigint not null,
+    checkpointed_at timestamp(6) not null,
+    primary key (user_id)
+);
@@ -0,0 +1,19 @@
+-- Deadline reminders and expiry. Each action stamps its own column, which makes firing idempotent;
+-- the watermark records how far the scheduler has fired so a restart resumes from there
+ALTER TABLE task ADD COLUMN IF NOT EXISTS day_reminder_sent_at timestamp(6);
+ALTER TABLE task ADD COLUMN IF NOT EXISTS hour_reminder_sent_at timestamp(6);
+ALTER TABLE task ADD COLUMN IF NOT EXISTS expired_at timestamp(6);
+
+-- Open tasks by deadline; the scheduler walks distinct deadlines of this index
+CREATE INDEX IF NOT EXISTS idx_task_open_deadline ON task (deadline)
+    WHERE completed IS NOT TRUE AND expired_at IS NULL;
+
+CREATE TABLE IF NOT EXISTS task_deadline_watermark (
+    name varchar(64) not null,
+    fired_through timestamp(6) not null,
+    primary key (name)
+);
+
+-- Tasks already past their deadline are expired once here; the scheduler handles everything after
+UPDATE task SET expired_at = LOCALTIMESTAMP
+WHERE deadline < LOCALTIMESTAMP AND completed IS NOT TRUE AND expired_at IS NULL;
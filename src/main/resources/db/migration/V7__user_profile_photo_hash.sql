@@ -0,0 +1,5 @@
+-- Photo fingerprint used in ID card render cache keys
+ALTER TABLE user_profile ADD COLUMN IF NOT EXISTS photo_hash varchar(64);
+
+UPDATE user_profile SET photo_hash = encode(sha256(photo), 'hex')
+WHERE photo IS NOT NULL AND photo_hash IS NULL;
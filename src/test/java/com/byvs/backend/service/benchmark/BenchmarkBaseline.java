@@ -0,0 +1,104 @@
+package com.byvs.backend.service.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Compares a JMH JSON result with a stored baseline and fails when a benchmark got worse by more than
+// the threshold and the two error intervals do not overlap. Run by the benchmark profile after the
+// suites; -Djmh.baseline.update=true stores the current result as the new baseline instead.
+// Baselines are only comparable on the same machine and JDK
+public final class BenchmarkBaseline {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private BenchmarkBaseline() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 4) {
+            throw new IllegalArgumentException("Usage: BenchmarkBaseline <result.json> <baseline.json> <threshold> <update>");
+        }
+        Path result = Path.of(args[0]);
+        Path baseline = Path.of(args[1]);
+        double threshold = Double.parseDouble(args[2]);
+        boolean update = Boolean.parseBoolean(args[3]);
+
+        if (!Files.isRegularFile(result)) {
+            System.out.println("No benchmark result at " + result + ", nothing to compare");
+            return;
+        }
+        if (update) {
+            Files.createDirectories(baseline.toAbsolutePath().getParent());
+            Files.copy(result, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Stored " + result + " as the baseline " + baseline);
+            return;
+        }
+        if (!Files.isRegularFile(baseline)) {
+            System.out.println("No baseline at " + baseline + "; record one with -Djmh.baseline.update=true");
+            return;
+        }
+
+        Map<String, Score> before = read(baseline);
+        Map<String, Score> after = read(result);
+        int regressions = 0;
+        System.out.printf(Locale.ROOT, "%-70s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, Score> entry : after.entrySet()) {
+            Score current = entry.getValue();
+            Score previous = before.get(entry.getKey());
+            if (previous == null) {
+                System.out.printf(Locale.ROOT, "%-70s %14s %14.3f %9s%n", entry.getKey(), "-", current.score(), "new");
+                continue;
+            }
+            double change = (current.score() - previous.score()) / previous.score();
+            boolean regressed = current.worseThan(previous, threshold);
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf(Locale.ROOT, "%-70s %14.3f %14.3f %+8.1f%%%s%n", entry.getKey(), previous.score(),
+                    current.score(), change * 100, regressed ? "  REGRESSION" : "");
+        }
+        if (regressions > 0) {
+            System.out.printf(Locale.ROOT, "%d benchmark(s) regressed by more than %.0f%% against %s%n",
+                    regressions, threshold * 100, baseline);
+            System.exit(1);
+        }
+    }
+
+    // Keyed by class and method plus parameters, e.g. "RateLimitBenchmark.checkRateLimit {keys=64}"
+    private static Map<String, Score> read(Path file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : MAPPER.readTree(file.toFile())) {
+            Map<String, String> params = new TreeMap<>();
+            run.path("params").properties().forEach(param -> params.put(param.getKey(), param.getValue().asText()));
+            JsonNode metric = run.path("primaryMetric");
+            String benchmark = run.path("benchmark").asText();
+            String name = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+            scores.put(name + (params.isEmpty() ? "" : " " + params),
+                    new Score(run.path("mode").asText(), metric.path("score").asDouble(),
+                            metric.path("scoreError").asDouble(0)));
+        }
+        return scores;
+    }
+
+    private record Score(String mode, double score, double error) {
+
+        // Throughput is better when higher; every time-based mode is better when lower
+        boolean worseThan(Score baseline, double threshold) {
+            double error = Double.isNaN(this.error) ? 0 : this.error;
+            double baselineError = Double.isNaN(baseline.error) ? 0 : baseline.error;
+            if ("thrpt".equals(mode)) {
+                return score < baseline.score * (1 - threshold) && score + error < baseline.score - baselineError;
+            }
+            return score > baseline.score * (1 + threshold) && score - error > baseline.score + baselineError;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.byvs.backend.service.benchmark;
+
+import com.byvs.backend.service.email.CompiledEmailTemplates;
+import jakarta.mail.internet.MimeMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Messages per second for building one email: Thymeleaf + multipart MIME (previous path)
+// against compiled templates + single-part MIME. saveChanges() is left out: it resolves the
+// local host name for Message-ID and costs the same on both paths
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailRenderBenchmark {
+
+    @Param({"welcome-email", "office-bearer-approval"})
+    public String template;
+
+    private SpringTemplateEngine templateEngine;
+    private CompiledEmailTemplates compiledTemplates;
+    private JavaMailSenderImpl mailSender;
+    private Map<String, Object> variables;
+    private long sequence;
+
+    @Setup
+    public void setUp() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+        compiledTemplates = new CompiledEmailTemplates(templateEngine, new DefaultResourceLoader(),
+                "classpath:/templates/", ".html");
+        if (compiledTemplates.get(template).isEmpty()) {
+            throw new IllegalStateException("Template " + template + " did not compile");
+        }
+        // Never connects; used like EmailRenderer, for messages that share the sender's file type map
+        mailSender = new JavaMailSenderImpl();
+        variables = new LinkedHashMap<>();
+    }
+
+    @Benchmark
+    public MimeMessage thymeleaf() throws Exception {
+        Context context = new Context();
+        context.setVariables(nextVariables());
+        String html = templateEngine.process(template, context);
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true);
+        fill(helper, html);
+        return message;
+    }
+
+    @Benchmark
+    public MimeMessage compiled() throws Exception {
+        String html = compiledTemplates.render(template, nextVariables());
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, false, "UTF-8");
+        fill(helper, html);
+        return message;
+    }
+
+    private Map<String, Object> nextVariables() {
+        long n = sequence++;
+        variables.put("name", "Member " + n);
+        variables.put("membershipId", "BYVS" + String.format("%08d", n));
+        variables.put("district", "Lucknow");
+        variables.put("state", "Uttar Pradesh");
+        variables.put("position", "District President");
+        return variables;
+    }
+
+    private static void fill(MimeMessageHelper helper, String html) throws Exception {
+        helper.setFrom("noreply@byvs.org");
+        helper.setTo("member@example.com");
+        helper.setSubject("Welcome to BYVS Family!");
+        helper.setText(html, true);
+    }
+}
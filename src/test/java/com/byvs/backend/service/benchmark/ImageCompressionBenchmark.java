@@ -0,0 +1,72 @@
+package com.byvs.backend.service.benchmark;
+
+import com.byvs.backend.service.util.ImageCompressionUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Profile photo compression as AuthController calls it (quality 0.7, fit into 800x600) for phone-camera
+// sized uploads. The source is a gradient with shapes and noise so the decoder and encoder see
+// photo-like entropy rather than a flat fill
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImageCompressionBenchmark {
+
+    @Param({"640x480", "1920x1080", "4032x3024"})
+    public String size;
+
+    @Param({"jpg", "png"})
+    public String format;
+
+    private MockMultipartFile upload;
+
+    @Setup
+    public void setUp() throws Exception {
+        String[] dimensions = size.split("x");
+        int width = Integer.parseInt(dimensions[0]);
+        int height = Integer.parseInt(dimensions[1]);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setPaint(new GradientPaint(0, 0, new Color(0x2c3e50), width, height, new Color(0xf1c40f)));
+        g.fillRect(0, 0, width, height);
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            g.setColor(new Color(random.nextInt(0xffffff)));
+            g.fillOval(random.nextInt(width), random.nextInt(height), random.nextInt(width / 4 + 1), random.nextInt(height / 4 + 1));
+        }
+        g.dispose();
+        for (int i = 0; i < width * height / 8; i++) {
+            int x = random.nextInt(width);
+            int y = random.nextInt(height);
+            image.setRGB(x, y, image.getRGB(x, y) ^ random.nextInt(0x0f0f0f));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg".equals(format) ? "jpeg" : format, out);
+        upload = new MockMultipartFile("photo", "photo." + format, "image/" + ("jpg".equals(format) ? "jpeg" : format), out.toByteArray());
+    }
+
+    @Benchmark
+    public byte[] compressAndSave() throws Exception {
+        return ImageCompressionUtil.compressAndSave(upload, 0.7f, 800, 600);
+    }
+}
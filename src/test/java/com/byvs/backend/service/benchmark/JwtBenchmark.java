@@ -0,0 +1,58 @@
+package com.byvs.backend.service.benchmark;
+
+import com.byvs.backend.service.security.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Token issue (OTP login) and verification (every authenticated request), plus a token with a broken
+// signature, the path taken by forged or corrupted bearer headers
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtService jwtService;
+    private String token;
+    private String tampered;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService("benchmark-secret-benchmark-secret-benchmark-secret-0123456789",
+                "referral-app", 60, new SimpleMeterRegistry());
+        token = jwtService.generate("+919000000000", "USER");
+        char last = token.charAt(token.length() - 1);
+        tampered = token.substring(0, token.length() - 1) + (last == 'A' ? 'B' : 'A');
+        if (!jwtService.verify(token).valid() || jwtService.verify(tampered).valid()) {
+            throw new IllegalStateException("Benchmark tokens do not verify as expected");
+        }
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtService.generate("+919000000000", "USER");
+    }
+
+    @Benchmark
+    public JwtService.JwtVerificationResult verify() {
+        return jwtService.verify(token);
+    }
+
+    @Benchmark
+    public JwtService.JwtVerificationResult verifyTampered() {
+        return jwtService.verify(tampered);
+    }
+}
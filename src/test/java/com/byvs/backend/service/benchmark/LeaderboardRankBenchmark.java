@@ -0,0 +1,63 @@
+package com.byvs.backend.service.benchmark;
+
+import com.byvs.backend.service.referral.LeaderboardRanks;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Ranking one leaderboard page once its grouped counts are loaded: build LeaderboardRanks and rank
+// every row. levels is the number of distinct verification counts above the page's lowest, which
+// grows with how deep the page is
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LeaderboardRankBenchmark {
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    @Param({"50", "5000"})
+    public int levels;
+
+    private Map<Long, Long> referrersByVerifications;
+    private long[] page;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        referrersByVerifications = new HashMap<>();
+        for (long level = 1; referrersByVerifications.size() < levels; level += 1 + random.nextInt(3)) {
+            referrersByVerifications.put(level, 1L + random.nextInt(50));
+        }
+        page = new long[pageSize];
+        for (int i = 0; i < pageSize; i++) {
+            page[i] = random.nextInt(levels * 2);
+        }
+    }
+
+    @Benchmark
+    public long rankPage() {
+        LeaderboardRanks ranks = LeaderboardRanks.of(referrersByVerifications);
+        long sum = 0;
+        for (long verifications : page) {
+            sum += ranks.rankOf(verifications);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,72 @@
+package com.byvs.backend.service.benchmark;
+
+import com.byvs.backend.service.otp.OtpService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// OTP issue and issue-then-verify per second, from 4 threads sharing one OtpService as requests do.
+// Phones cycle through a fixed pool per thread so the cache and rate-limit map stay at a steady size;
+// the per-phone limit is lifted so no call is refused
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class OtpBenchmark {
+
+    private static final int PHONES_PER_THREAD = 20_000;
+
+    private OtpService otpService;
+
+    @Setup
+    public void setUp() {
+        otpService = new OtpService(5, Integer.MAX_VALUE, new SimpleMeterRegistry());
+    }
+
+    @State(Scope.Thread)
+    public static class Phones {
+        private static final AtomicInteger THREADS = new AtomicInteger();
+
+        String[] phones;
+        int next;
+
+        @Setup
+        public void setUp() {
+            long first = 9_000_000_000L + (long) THREADS.getAndIncrement() * PHONES_PER_THREAD;
+            phones = new String[PHONES_PER_THREAD];
+            for (int i = 0; i < PHONES_PER_THREAD; i++) {
+                phones[i] = "+91" + (first + i);
+            }
+        }
+
+        String next() {
+            return phones[next++ % PHONES_PER_THREAD];
+        }
+    }
+
+    @Benchmark
+    public String generateAndStore(Phones phones) {
+        return otpService.generateAndStore(phones.next());
+    }
+
+    @Benchmark
+    public boolean generateAndVerify(Phones phones) {
+        String phone = phones.next();
+        return otpService.verifyAndInvalidate(phone, otpService.generateAndStore(phone));
+    }
+}
@@ -0,0 +1,130 @@
+package com.byvs.backend.service.benchmark;
+
+import ch.qos.logback.classic.Logger;
+import com.byvs.backend.service.otp.OtpService;
+import com.byvs.backend.service.sms.BullSmsService;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Time for a burst of concurrent OTP sends (the /auth/send path: OtpService, then BullSmsService
+// over RestTemplate) against a local gateway stub with fixed latency. "platform" runs them on a
+// 200-thread pool, Tomcat's default; "virtual" on one virtual thread each. The virtual case needs
+// Java 21: mvn -Pbenchmark -DskipTests integration-test -Djmh.args="OtpSendBenchmark"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OtpSendBenchmark {
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"1000"})
+    public int concurrentSends;
+
+    // At low latency the burst is bound by client CPU, not threads, on small machines
+    @Param({"50", "500"})
+    public long gatewayLatencyMillis;
+
+    private HttpServer gateway;
+    private ScheduledExecutorService gatewayThreads;
+    private AsyncTaskExecutor executor;
+    private OtpService otpService;
+    private BullSmsService smsService;
+    private final AtomicLong phones = new AtomicLong(9_000_000_000L);
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // Responses are delayed on a scheduler rather than by sleeping handler threads, so the stub
+        // itself is not limited by threads in either mode
+        byte[] body = "{\"status\":\"success\"}".getBytes(StandardCharsets.UTF_8);
+        gatewayThreads = Executors.newScheduledThreadPool(4);
+        gateway = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 4096);
+        gateway.createContext("/", exchange -> gatewayThreads.schedule(() -> {
+            try (exchange) {
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            }
+            return null;
+        }, gatewayLatencyMillis, TimeUnit.MILLISECONDS));
+        gateway.start();
+        ((Logger) LoggerFactory.getLogger(BullSmsService.class)).setLevel(ch.qos.logback.classic.Level.WARN);
+
+        // Every send uses a fresh number, so the per-phone limit never trips
+        otpService = new OtpService(5, 3, new SimpleMeterRegistry());
+        smsService = new BullSmsService(new SimpleMeterRegistry(), "(?i)error|fail", "bench");
+        ReflectionTestUtils.setField(smsService, "apiUrl", "http://localhost:" + gateway.getAddress().getPort() + "/send?");
+        for (String field : new String[]{"user", "key", "senderId", "accUsage", "entityId", "tempId"}) {
+            ReflectionTestUtils.setField(smsService, field, "bench");
+        }
+
+        if ("virtual".equals(threads)) {
+            SimpleAsyncTaskExecutor virtual = new SimpleAsyncTaskExecutor("otp-");
+            virtual.setVirtualThreads(true);
+            executor = virtual;
+        } else {
+            ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+            pool.setCorePoolSize(200);
+            pool.setMaxPoolSize(200);
+            pool.setThreadNamePrefix("otp-");
+            pool.initialize();
+            executor = pool;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        }
+        gateway.stop(0);
+        gatewayThreads.shutdownNow();
+    }
+
+    @Benchmark
+    public long burst() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(concurrentSends);
+        long first = phones.getAndAdd(concurrentSends);
+        for (int i = 0; i < concurrentSends; i++) {
+            String phone = "+91" + (first + i);
+            executor.execute(() -> {
+                try {
+                    smsService.sendOtpSms(phone, otpService.generateAndStore(phone));
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        return first;
+    }
+}
@@ -0,0 +1,64 @@
+package com.byvs.backend.service.benchmark;
+
+import com.byvs.backend.service.referral.RateLimitService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Rate-limit checks per second from 8 threads sharing one RateLimitService. keys=1 is every caller
+// on the same key (one client hammering /track/click); larger key sets spread the compute() calls
+// over the map. The limit is never reached, so every call takes the counting path
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class RateLimitBenchmark {
+
+    private static final Duration PERIOD = Duration.ofHours(1);
+
+    @Param({"1", "64", "10000"})
+    public int keys;
+
+    private RateLimitService rateLimitService;
+    private String[] keyNames;
+
+    @Setup
+    public void setUp() {
+        rateLimitService = new RateLimitService();
+        keyNames = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            keyNames[i] = "click:10.0." + (i / 256) + "." + (i % 256);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Caller {
+        int next;
+
+        @Setup
+        public void setUp() {
+            next = ThreadLocalRandom.current().nextInt(1 << 20);
+        }
+    }
+
+    @Benchmark
+    public void checkRateLimit(Caller caller) {
+        rateLimitService.checkRateLimit(keyNames[caller.next++ % keys], Integer.MAX_VALUE, PERIOD);
+    }
+}
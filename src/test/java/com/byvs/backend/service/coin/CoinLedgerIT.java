@@ -0,0 +1,152 @@
+package com.byvs.backend.service.coin;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Appends, replays and compaction against PostgreSQL, for members of its own. With a zero retention
+// every compaction archives the whole ledger.
+// mvn -Pit verify; the database is set in application-it.properties
+@SpringBootTest(properties = {
+        "coin.ledger.compaction.cron=-",
+        "coin.ledger.compaction.retention=PT0S",
+        "coin.ledger.compaction.batch-size=50"
+})
+@ActiveProfiles("it")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CoinLedgerIT {
+
+    @Autowired
+    private CoinLedgerService coinLedgerService;
+
+    @Autowired
+    private CoinLedgerCompactor coinLedgerCompactor;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final String run = UUID.randomUUID().toString();
+    private List<Long> users;
+
+    @BeforeAll
+    void createUsers() {
+        long phone = ThreadLocalRandom.current().nextLong(10_000_000L, 90_000_000L);
+        users = transactionTemplate.execute(status -> List.of(createUser(phone), createUser(phone + 1), createUser(phone + 2)));
+    }
+
+    @AfterAll
+    void removeUsers() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String table : List.of("coin_ledger", "coin_ledger_archive", "coin_balance", "coin_checkpoint")) {
+                users.forEach(user -> jdbcTemplate.update("DELETE FROM " + table + " WHERE user_id = ?", user));
+            }
+            users.forEach(user -> jdbcTemplate.update("DELETE FROM app_user WHERE id = ?", user));
+        });
+    }
+
+    @Test
+    void appliesEachKeyOnce() {
+        Long user = users.get(0);
+        CoinCredit first = credit(user, 10, "first");
+        CoinCredit second = credit(user, 5, "second");
+
+        assertThat(coinLedgerService.credit(first)).isTrue();
+        assertThat(coinLedgerService.credit(first)).isFalse();
+        Set<String> applied = coinLedgerService.creditAll(List.of(first, second, second, credit(user, 0, "zero")));
+
+        assertThat(applied).containsExactly(second.idempotencyKey());
+        assertThat(coinLedgerService.getBalance(user)).isEqualTo(15);
+        assertThat(coinLedgerService.getRecentEntries(user, 10))
+                .extracting(CoinLedgerEntry::amount)
+                .containsExactly(5, 10);
+    }
+
+    @Test
+    void compactionKeepsBalancesAndIdempotency() {
+        Long user = users.get(1);
+        List<CoinCredit> credits = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            credits.add(credit(user, i % 7 + 1, "compacted-" + i));
+        }
+        coinLedgerService.creditAll(credits);
+        long balance = coinLedgerService.getBalance(user);
+
+        coinLedgerCompactor.compact();
+
+        assertThat(count("coin_ledger", user)).isZero();
+        assertThat(count("coin_ledger_archive", user)).isEqualTo(120);
+        assertThat(jdbcTemplate.queryForObject("SELECT entry_count FROM coin_checkpoint WHERE user_id = ?", Long.class, user))
+                .isEqualTo(120);
+        assertBalanceMatchesLedger(user, balance);
+
+        // An archived key is still recognised, and new entries add to the checkpoint total
+        assertThat(coinLedgerService.creditAll(credits)).isEmpty();
+        assertThat(coinLedgerService.credit(credit(user, 3, "after"))).isTrue();
+        assertBalanceMatchesLedger(user, balance + 3);
+        assertThat(coinLedgerService.getRecentEntries(user, 10)).hasSize(1);
+    }
+
+    @Test
+    void replaysRacingCompactionNeverCreditTwice() throws Exception {
+        Long user = users.get(2);
+        int rounds = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < rounds; i++) {
+                CoinCredit credit = credit(user, 1, "race-" + i);
+                coinLedgerService.credit(credit);
+                CompletableFuture<?> replay = CompletableFuture.runAsync(() -> coinLedgerService.credit(credit), executor);
+                CompletableFuture<?> compaction = CompletableFuture.runAsync(coinLedgerCompactor::compact, executor);
+                CompletableFuture.allOf(replay, compaction).get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(count("coin_ledger", user) + count("coin_ledger_archive", user)).isEqualTo(rounds);
+        assertBalanceMatchesLedger(user, rounds);
+    }
+
+    private void assertBalanceMatchesLedger(Long user, long expected) {
+        assertThat(coinLedgerService.getBalance(user)).isEqualTo(expected);
+        Long recorded = jdbcTemplate.queryForObject("""
+                SELECT COALESCE((SELECT balance FROM coin_checkpoint WHERE user_id = ?), 0)
+                     + COALESCE((SELECT SUM(amount) FROM coin_ledger WHERE user_id = ?), 0)
+                """, Long.class, user, user);
+        assertThat(recorded).isEqualTo(expected);
+    }
+
+    private long count(String table, Long user) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE user_id = ?", Long.class, user);
+    }
+
+    private CoinCredit credit(Long user, int amount, String key) {
+        return new CoinCredit(user, amount, CoinReason.TASK_COMPLETION, null, "it:" + run + ":" + user + ":" + key);
+    }
+
+    private Long createUser(long phone) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO app_user (is_verified, verified_referrals_count, created_at, referral_code, phone, full_name)
+                VALUES (true, 0, now(), ?, ?, 'Coin Ledger') RETURNING id
+                """, Long.class, "C" + phone, "+9172" + phone);
+    }
+}
@@ -0,0 +1,141 @@
+package com.byvs.backend.service.document;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The pre-render job against PostgreSQL, and conditional downloads of what it rendered. The render
+// cache is a directory of its own, removed afterwards.
+// mvn -Pit verify; the database is set in application-it.properties
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("it")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DocumentPrerenderIT {
+
+    private static final Path CACHE_DIR = createCacheDir();
+
+    @DynamicPropertySource
+    static void renderCache(DynamicPropertyRegistry registry) {
+        registry.add("render.cache.dir", CACHE_DIR::toString);
+    }
+
+    @Autowired
+    private DocumentPrerenderScheduler scheduler;
+
+    @Autowired
+    private MemberDocumentService documentService;
+
+    @Autowired
+    private RenderCache renderCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final String phone = "+9173" + ThreadLocalRandom.current().nextLong(10_000_000L, 100_000_000L);
+    private Long userId;
+
+    @BeforeAll
+    void approveOfficeBearer() {
+        userId = transactionTemplate.execute(status -> {
+            Long id = jdbcTemplate.queryForObject("""
+                    INSERT INTO app_user (is_verified, verified_referrals_count, created_at, referral_code, phone, full_name)
+                    VALUES (true, 0, now(), ?, ?, 'Prerender Member') RETURNING id
+                    """, Long.class, "D" + phone.substring(5), phone);
+            jdbcTemplate.update("""
+                    INSERT INTO user_profile (user_id, district, state, joined_at, membership_id)
+                    VALUES (?, 'Lucknow', 'Uttar Pradesh', now(), ?)
+                    """, id, "BYVS" + String.format("%08d", id));
+            jdbcTemplate.update("""
+                    INSERT INTO office_bearer_application (approved, applied_at, approved_at, user_id, district, state, position)
+                    VALUES (true, now() - interval '1 day', LOCALTIMESTAMP, ?, 'Lucknow', 'Uttar Pradesh', 'Secretary')
+                    """, id);
+            return id;
+        });
+    }
+
+    @AfterAll
+    void removeOfficeBearer() throws IOException {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM office_bearer_application WHERE user_id = ?", userId);
+            jdbcTemplate.update("DELETE FROM user_profile WHERE user_id = ?", userId);
+            jdbcTemplate.update("DELETE FROM app_user WHERE id = ?", userId);
+        });
+        FileSystemUtils.deleteRecursively(CACHE_DIR);
+    }
+
+    @Test
+    void prerendersApprovedOfficeBearersAndServesConditionalDownloads() throws Exception {
+        // The job runs on the batch executor
+        scheduler.launch();
+        await().atMost(Duration.ofSeconds(30)).untilAsserted(() -> {
+            for (DocumentType type : DocumentType.values()) {
+                DocumentData data = documentService.load(userId, type).orElseThrow();
+                for (DocumentFormat format : DocumentFormat.values()) {
+                    assertThat(renderCache.get(type, documentService.cacheKey(data, format), format))
+                            .as("%s %s", type, format)
+                            .isPresent();
+                }
+            }
+        });
+
+        DocumentData certificate = documentService.load(userId, DocumentType.CERTIFICATE).orElseThrow();
+        String etag = documentService.etag(certificate, DocumentFormat.PDF);
+        mockMvc.perform(download())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        mockMvc.perform(download().header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        mockMvc.perform(download().header(HttpHeaders.IF_NONE_MATCH, "W/" + etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(download().header(HttpHeaders.IF_NONE_MATCH, "\"stale\", " + etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(download().header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andExpect(status().isOk());
+    }
+
+    private MockHttpServletRequestBuilder download() {
+        return get("/api/membership/certificate/download").with(user(phone));
+    }
+
+    private static Path createCacheDir() {
+        try {
+            return Files.createTempDirectory("byvs-prerender-it");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.byvs.backend.service.document;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class DocumentRendererTest {
+
+    private final DocumentRenderer renderer = new DocumentRenderer();
+
+    private final IdCardData card = new IdCardData(1L, 1L, "राम कुमार", "BYVS00000001", "Lucknow", "Uttar Pradesh",
+            "01-01-2026", "District President", "hash");
+    private final CertificateData certificate = new CertificateData(1L, "Ram Kumar", "Lucknow", "Uttar Pradesh",
+            null, "02-01-2026");
+
+    @Test
+    void idCardPngIsACardAt300Dpi() throws IOException {
+        BufferedImage image = decode(renderer.render(card, null, DocumentFormat.PNG));
+
+        assertThat(image.getWidth()).isEqualTo(1012);
+        assertThat(image.getHeight()).isEqualTo(638);
+    }
+
+    @Test
+    void certificatePngIsA4LandscapeAt150Dpi() throws IOException {
+        BufferedImage image = decode(renderer.render(certificate, null, DocumentFormat.PNG));
+
+        assertThat(image.getWidth()).isEqualTo(1754);
+        assertThat(image.getHeight()).isEqualTo(1240);
+    }
+
+    @Test
+    void pdfsHaveOnePageOfTheDocumentsSize() throws IOException {
+        try (PDDocument pdf = Loader.loadPDF(renderer.render(card, null, DocumentFormat.PDF))) {
+            PDRectangle page = pdf.getPage(0).getMediaBox();
+            assertThat(pdf.getNumberOfPages()).isEqualTo(1);
+            assertThat(page.getWidth()).isCloseTo(242.6f, within(0.1f));
+            assertThat(page.getHeight()).isCloseTo(153.0f, within(0.1f));
+            assertThat(pdf.getDocumentInformation().getTitle()).isEqualTo("Membership Card");
+        }
+        try (PDDocument pdf = Loader.loadPDF(renderer.render(certificate, null, DocumentFormat.PDF))) {
+            PDRectangle page = pdf.getPage(0).getMediaBox();
+            assertThat(page.getWidth()).isCloseTo(PDRectangle.A4.getHeight(), within(0.1f));
+            assertThat(page.getHeight()).isCloseTo(PDRectangle.A4.getWidth(), within(0.1f));
+        }
+    }
+
+    @Test
+    void photoIsDrawnIntoTheFrame() throws IOException {
+        BufferedImage photo = new BufferedImage(40, 60, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = photo.createGraphics();
+        g.setColor(Color.GREEN);
+        g.fillRect(0, 0, 40, 60);
+        g.dispose();
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(photo, "png", png);
+
+        BufferedImage withPhoto = decode(renderer.render(card, png.toByteArray(), DocumentFormat.PNG));
+        BufferedImage placeholder = decode(renderer.render(card, null, DocumentFormat.PNG));
+
+        // Centre of the photo frame
+        assertThat(new Color(withPhoto.getRGB(155, 310))).isEqualTo(Color.GREEN);
+        assertThat(new Color(placeholder.getRGB(155, 310))).isNotEqualTo(Color.GREEN);
+    }
+
+    @Test
+    void unreadablePhotoFallsBackToThePlaceholder() throws IOException {
+        byte[] broken = renderer.render(card, new byte[]{1, 2, 3}, DocumentFormat.PNG);
+        byte[] placeholder = renderer.render(card, null, DocumentFormat.PNG);
+
+        assertThat(broken).isEqualTo(placeholder);
+    }
+
+    @Test
+    void renderingIsDeterministic() {
+        assertThat(renderer.render(certificate, null, DocumentFormat.PNG))
+                .isEqualTo(renderer.render(certificate, null, DocumentFormat.PNG));
+    }
+
+    private static BufferedImage decode(byte[] png) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        assertThat(image).isNotNull();
+        return image;
+    }
+}
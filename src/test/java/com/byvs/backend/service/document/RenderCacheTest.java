@@ -0,0 +1,75 @@
+package com.byvs.backend.service.document;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RenderCacheTest {
+
+    private static final String KEY = "ab12cd34";
+
+    @TempDir
+    Path root;
+
+    @Test
+    void storesEntriesUnderTypeAndKeyPrefix() throws IOException {
+        RenderCache cache = new RenderCache(root, Duration.ofDays(30));
+
+        Path path = cache.put(DocumentType.ID_CARD, KEY, DocumentFormat.PNG, new byte[]{1, 2, 3});
+
+        assertThat(path).isEqualTo(root.resolve(DocumentType.ID_CARD.getFileName()).resolve("ab").resolve(KEY + ".png"));
+        assertThat(Files.readAllBytes(path)).containsExactly(1, 2, 3);
+        assertThat(cache.get(DocumentType.ID_CARD, KEY, DocumentFormat.PNG)).contains(path);
+        assertThat(cache.get(DocumentType.ID_CARD, KEY, DocumentFormat.PDF)).isEmpty();
+        assertThat(cache.get(DocumentType.CERTIFICATE, KEY, DocumentFormat.PNG)).isEmpty();
+    }
+
+    @Test
+    void replacesEntriesWithoutLeavingTemporaryFiles() throws IOException {
+        RenderCache cache = new RenderCache(root, Duration.ofDays(30));
+
+        cache.put(DocumentType.CERTIFICATE, KEY, DocumentFormat.PDF, new byte[]{1});
+        Path path = cache.put(DocumentType.CERTIFICATE, KEY, DocumentFormat.PDF, new byte[]{2});
+
+        assertThat(Files.readAllBytes(path)).containsExactly(2);
+        try (Stream<Path> files = Files.list(path.getParent())) {
+            assertThat(files).containsExactly(path);
+        }
+    }
+
+    @Test
+    void evictsEntriesUnusedForMaxAge() throws IOException {
+        RenderCache cache = new RenderCache(root, Duration.ofDays(30));
+        Path old = cache.put(DocumentType.ID_CARD, "0ld0", DocumentFormat.PNG, new byte[]{1});
+        Path fresh = cache.put(DocumentType.ID_CARD, KEY, DocumentFormat.PNG, new byte[]{1});
+        Files.setLastModifiedTime(old, FileTime.from(Instant.now().minus(Duration.ofDays(31))));
+
+        cache.evict();
+
+        assertThat(old).doesNotExist();
+        assertThat(fresh).exists();
+    }
+
+    @Test
+    void hitsKeepEntriesAlive() throws IOException {
+        RenderCache cache = new RenderCache(root, Duration.ofDays(30));
+        Path path = cache.put(DocumentType.ID_CARD, KEY, DocumentFormat.PNG, new byte[]{1});
+        Instant used = Instant.now().minus(Duration.ofDays(29));
+        Files.setLastModifiedTime(path, FileTime.from(used));
+
+        cache.get(DocumentType.ID_CARD, KEY, DocumentFormat.PNG);
+        cache.evict();
+
+        assertThat(path).exists();
+        assertThat(Files.getLastModifiedTime(path).toInstant()).isAfter(used.plus(Duration.ofDays(28)));
+    }
+}
@@ -0,0 +1,85 @@
+package com.byvs.backend.service.email;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompiledEmailTemplatesTest {
+
+    private SpringTemplateEngine templateEngine;
+    private CompiledEmailTemplates templates;
+
+    @BeforeEach
+    void setUp() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+        templates = new CompiledEmailTemplates(templateEngine, new DefaultResourceLoader(),
+                "classpath:/templates/", ".html");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"welcome-email", "office-bearer-approval", "task-reminder", "announcement-email"})
+    void compiledTemplatesRenderLikeThymeleaf(String template) {
+        CompiledEmailTemplate compiled = templates.get(template).orElseThrow();
+        assertThat(compiled.getVariables()).isNotEmpty();
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        compiled.getVariables().forEach(variable -> values.put(variable, "<i-" + variable + "> & 'राम' \"x\""));
+        String html = templates.render(template, values);
+        assertThat(html).isEqualTo(thymeleaf(template, values));
+        assertThat(html).doesNotContain("<i-").contains("&lt;i-");
+    }
+
+    @Test
+    void templatesWithConditionalsAreLeftToThymeleaf() {
+        assertThat(templates.get("feedback-email")).isEmpty();
+
+        Map<String, Object> values = Map.of("name", "A & B", "email", "a@b.c", "phone", "",
+                "subject", "Hi", "message", "<script>");
+        assertThat(templates.render("feedback-email", values)).isEqualTo(thymeleaf("feedback-email", values));
+    }
+
+    @Test
+    void missingValuesFallBackToThymeleaf() {
+        Map<String, Object> values = new HashMap<>();
+        values.put("name", null);
+        values.put("membershipId", "BYVS00000001");
+        assertThat(templates.get("welcome-email").orElseThrow().accepts(values)).isFalse();
+        assertThat(templates.render("welcome-email", values)).isEqualTo(thymeleaf("welcome-email", values));
+    }
+
+    @Test
+    void compilesEachTemplateOnce() {
+        assertThat(templates.get("welcome-email").orElseThrow()).isSameAs(templates.get("welcome-email").orElseThrow());
+    }
+
+    @Test
+    void escapesLikeThymeleafText() {
+        StringBuilder out = new StringBuilder();
+        CompiledEmailTemplate.escapeHtml("A & B <x> \"q\" 'a' राम", out);
+        assertThat(out).hasToString("A &amp; B &lt;x&gt; &quot;q&quot; &#39;a&#39; राम");
+    }
+
+    private String thymeleaf(String template, Map<String, ?> values) {
+        Context context = new Context();
+        values.forEach(context::setVariable);
+        return templateEngine.process(template, context);
+    }
+}
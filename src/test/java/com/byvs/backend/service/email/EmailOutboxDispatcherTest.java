@@ -0,0 +1,74 @@
+package com.byvs.backend.service.email;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EmailOutboxDispatcherTest {
+
+    private final EmailOutboxRepository repository = mock(EmailOutboxRepository.class);
+    private final AsyncTaskExecutor executor = mock(AsyncTaskExecutor.class);
+    private final List<Runnable> submitted = new ArrayList<>();
+    private final EmailOutboxDispatcher dispatcher;
+
+    EmailOutboxDispatcherTest() {
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(repository.lockDue(any(), anyInt())).thenReturn(List.of());
+        dispatcher = new EmailOutboxDispatcher(repository, mock(EmailRenderer.class), mock(JavaMailSender.class),
+                transactionTemplate, new SimpleMeterRegistry(), executor,
+                50, 8, Duration.ofMinutes(5), Duration.ofSeconds(30), Duration.ofHours(1));
+    }
+
+    @Test
+    void skipsTicksWhileAPassIsInFlight() {
+        doAnswer(invocation -> submitted.add(invocation.getArgument(0))).when(executor).execute(any());
+
+        dispatcher.dispatch();
+        dispatcher.dispatch();
+        assertThat(submitted).hasSize(1);
+
+        submitted.get(0).run();
+        dispatcher.dispatch();
+        assertThat(submitted).hasSize(2);
+    }
+
+    @Test
+    void failedPassesDoNotBlockLaterTicks() {
+        doAnswer(invocation -> submitted.add(invocation.getArgument(0))).when(executor).execute(any());
+        when(repository.lockDue(any(), anyInt())).thenThrow(new IllegalStateException("database down"));
+
+        dispatcher.dispatch();
+        assertThatThrownBy(submitted.get(0)::run).isInstanceOf(IllegalStateException.class);
+        dispatcher.dispatch();
+        assertThat(submitted).hasSize(2);
+    }
+
+    @Test
+    void rejectedSubmissionsDoNotBlockLaterTicks() {
+        doThrow(new TaskRejectedException("full")).when(executor).execute(any());
+        assertThatThrownBy(dispatcher::dispatch).isInstanceOf(TaskRejectedException.class);
+
+        doAnswer(invocation -> submitted.add(invocation.getArgument(0))).when(executor).execute(any());
+        dispatcher.dispatch();
+        assertThat(submitted).hasSize(1);
+    }
+}
@@ -0,0 +1,156 @@
+package com.byvs.backend.service.email;
+
+import com.byvs.backend.service.service.EmailService;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import jakarta.mail.Message;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+// Outbox delivery against a GreenMail SMTP server: emails are queued with the caller's transaction and
+// delivered by the dispatcher, and an SMTP outage is retried after the backoff.
+// mvn -Pit verify; the database is set in application-it.properties
+@SpringBootTest(properties = {
+        "email.outbox.poll-interval=PT1H",
+        "email.outbox.initial-backoff=PT1S"
+})
+@ActiveProfiles("it")
+class EmailOutboxIT {
+
+    private static final int SMTP_PORT = freePort();
+    private static GreenMail smtp = startSmtp();
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private EmailOutboxDispatcher dispatcher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void smtp(DynamicPropertyRegistry registry) {
+        registry.add("spring.mail.port", () -> SMTP_PORT);
+    }
+
+    @AfterAll
+    static void stopSmtp() {
+        smtp.stop();
+    }
+
+    @Test
+    void emailsQueuedInATransactionAreDeliveredAfterCommit() {
+        String recipient = recipient();
+        transactionTemplate.executeWithoutResult(status ->
+                emailService.sendWelcomeEmail(recipient, "Outbox Member", "BYVS00000001"));
+        assertThat(row(recipient)).containsEntry("status", "PENDING");
+
+        deliver(recipient);
+        assertThat(row(recipient)).containsEntry("status", "SENT").containsEntry("attempts", 1);
+        assertThat(received(recipient)).singleElement()
+                .satisfies(message -> assertThat(message.getSubject()).isEqualTo("Welcome to BYVS Family!"));
+    }
+
+    @Test
+    void rolledBackTransactionsQueueNothing() {
+        String recipient = recipient();
+        transactionTemplate.executeWithoutResult(status -> {
+            emailService.sendWelcomeEmail(recipient, "Outbox Member", "BYVS00000002");
+            status.setRollbackOnly();
+        });
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM email_outbox WHERE recipient = ?",
+                Long.class, recipient)).isZero();
+    }
+
+    @Test
+    void failedDeliveriesAreRetriedAfterTheBackoff() {
+        String recipient = recipient();
+        transactionTemplate.executeWithoutResult(status ->
+                emailService.sendWelcomeEmail(recipient, "Outbox Member", "BYVS00000003"));
+        smtp.stop();
+        try {
+            await().atMost(Duration.ofSeconds(10)).pollInterval(Duration.ofMillis(200)).untilAsserted(() -> {
+                dispatcher.dispatch();
+                assertThat(row(recipient)).containsEntry("attempts", 1);
+            });
+            Map<String, Object> failed = row(recipient);
+            assertThat(failed).containsEntry("status", "PENDING");
+            assertThat(failed.get("last_error")).isNotNull();
+        } finally {
+            smtp = startSmtp();
+        }
+
+        deliver(recipient);
+        assertThat(row(recipient)).containsEntry("status", "SENT").containsEntry("attempts", 2);
+        assertThat(received(recipient)).hasSize(1);
+    }
+
+    private void deliver(String recipient) {
+        await().atMost(Duration.ofSeconds(15)).pollInterval(Duration.ofMillis(200)).untilAsserted(() -> {
+            dispatcher.dispatch();
+            assertThat(row(recipient)).containsEntry("status", "SENT");
+        });
+    }
+
+    private Map<String, Object> row(String recipient) {
+        return jdbcTemplate.queryForMap(
+                "SELECT status, attempts, last_error FROM email_outbox WHERE recipient = ?", recipient);
+    }
+
+    private static MimeMessage[] received(String recipient) {
+        return Arrays.stream(smtp.getReceivedMessages())
+                .filter(message -> recipientOf(message).equals(recipient))
+                .toArray(MimeMessage[]::new);
+    }
+
+    private static String recipientOf(MimeMessage message) {
+        try {
+            return message.getRecipients(Message.RecipientType.TO)[0].toString();
+        } catch (jakarta.mail.MessagingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String recipient() {
+        return "outbox-" + UUID.randomUUID() + "@byvs.local";
+    }
+
+    private static GreenMail startSmtp() {
+        GreenMail greenMail = new GreenMail(new ServerSetup(SMTP_PORT, "127.0.0.1", ServerSetup.PROTOCOL_SMTP));
+        greenMail.withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication());
+        greenMail.start();
+        return greenMail;
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
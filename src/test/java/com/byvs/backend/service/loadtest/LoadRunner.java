@@ -0,0 +1,130 @@
+package com.byvs.backend.service.loadtest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+// Runs a fixed number of requests from a fixed number of workers (a closed model: each worker sends
+// its next request when the previous one answers) and reports latency from the client side, with
+// the pool's connection wait from the application's Hikari meters and heap/GC sampled alongside
+final class LoadRunner {
+
+    private static final long SAMPLE_MILLIS = 100;
+
+    private final MeterRegistry meterRegistry;
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    LoadRunner(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @FunctionalInterface
+    interface Request {
+        // Sends request number `index` and returns its HTTP status
+        int send(int index) throws Exception;
+    }
+
+    ScenarioReport run(String scenario, int requests, int concurrency, Request request) throws InterruptedException {
+        long[] latencies = new long[requests];
+        Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        AtomicInteger next = new AtomicInteger();
+        AtomicLong heapPeak = new AtomicLong();
+        AtomicInteger pendingPeak = new AtomicInteger();
+        AtomicInteger activePeak = new AtomicInteger();
+
+        long acquiresBefore = acquireTimers().mapToLong(Timer::count).sum();
+        double acquireNanosBefore = acquireTimers().mapToDouble(timer -> timer.totalTime(TimeUnit.NANOSECONDS)).sum();
+        double timeoutsBefore = meterRegistry.find("hikaricp.connections.timeout").counters().stream().mapToDouble(Counter::count).sum();
+        long gcCountBefore = gcCount();
+        long gcMillisBefore = gcMillis();
+
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> {
+            heapPeak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+            pendingPeak.accumulateAndGet(gauge("hikaricp.connections.pending"), Math::max);
+            activePeak.accumulateAndGet(gauge("hikaricp.connections.active"), Math::max);
+        }, 0, SAMPLE_MILLIS, TimeUnit.MILLISECONDS);
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        long started = System.nanoTime();
+        for (int w = 0; w < concurrency; w++) {
+            workers.execute(() -> {
+                int index;
+                while ((index = next.getAndIncrement()) < requests) {
+                    long sent = System.nanoTime();
+                    int status;
+                    try {
+                        status = request.send(index);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (Exception e) {
+                        // Connection refused, reset or timed out before any status
+                        status = -1;
+                    }
+                    latencies[index] = System.nanoTime() - sent;
+                    statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(1, TimeUnit.HOURS);
+        long elapsed = System.nanoTime() - started;
+        sampler.shutdownNow();
+
+        long acquires = acquireTimers().mapToLong(Timer::count).sum() - acquiresBefore;
+        double acquireNanos = acquireTimers().mapToDouble(timer -> timer.totalTime(TimeUnit.NANOSECONDS)).sum() - acquireNanosBefore;
+        Arrays.sort(latencies);
+        Map<Integer, Long> statusCounts = new TreeMap<>();
+        statuses.forEach((status, count) -> statusCounts.put(status, count.sum()));
+        return new ScenarioReport(scenario, requests, concurrency, elapsed / 1e9, requests / (elapsed / 1e9),
+                percentile(latencies, 0.50), percentile(latencies, 0.95), percentile(latencies, 0.99),
+                percentile(latencies, 1.0), statusCounts,
+                acquires, acquires == 0 ? 0 : acquireNanos / acquires / 1e6,
+                // The pool's max is over a recent window rather than this scenario, so only shown when it acquired
+                acquires == 0 ? 0 : acquireTimers().mapToDouble(timer -> timer.max(TimeUnit.MILLISECONDS)).max().orElse(0),
+                (long) (meterRegistry.find("hikaricp.connections.timeout").counters().stream().mapToDouble(Counter::count).sum() - timeoutsBefore),
+                pendingPeak.get(), activePeak.get(), heapPeak.get() / (1024 * 1024),
+                gcCount() - gcCountBefore, gcMillis() - gcMillisBefore);
+    }
+
+    private Stream<Timer> acquireTimers() {
+        return meterRegistry.find("hikaricp.connections.acquire").timers().stream();
+    }
+
+    private int gauge(String name) {
+        return (int) meterRegistry.find(name).gauges().stream().mapToDouble(Gauge::value).sum();
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private static long gcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+}
@@ -0,0 +1,249 @@
+package com.byvs.backend.service.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Boots the application against a local PostgreSQL with the SMS gateway and SMTP server stubbed, then
+// drives the scenarios that size an instance: registrations with photos, an OTP send/verify storm,
+// a referral click flood and leaderboard polling. Results are printed and written as JSON; a scenario
+// fails only when its success rate or p99 latency is far off (loadtest.min-success, loadtest.max-p99-millis).
+// mvn -Ploadtest verify [-Dloadtest.users=500 -Dloadtest.concurrency=32 ...]; the database is the it
+// profile's, IT_DATABASE_URL, _USER and _PASSWORD in application-it.properties
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"it", "loadtest"})
+class LoadTestIT {
+
+    private static final int USERS = Integer.getInteger("loadtest.users", 500);
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 32);
+    private static final int CLICKS = Integer.getInteger("loadtest.clicks", 5000);
+    private static final int POLLS = Integer.getInteger("loadtest.polls", 3000);
+    private static final int REFERRERS = 20;
+    // Distinct client addresses for the click flood; each may click 10 times an hour
+    private static final int CLICK_SOURCES = Integer.getInteger("loadtest.click-sources", 2000);
+    private static final Duration SMS_LATENCY = Duration.ofMillis(Long.getLong("loadtest.sms-latency-millis", 200));
+    private static final double MIN_SUCCESS = Double.parseDouble(System.getProperty("loadtest.min-success", "0.99"));
+    private static final double MAX_P99_MILLIS = Double.parseDouble(System.getProperty("loadtest.max-p99-millis", "10000"));
+    private static final Path REPORT = Path.of(System.getProperty("loadtest.report", "target/loadtest-report.json"));
+
+    private static final StubSmsGateway SMS = StubSmsGateway.start(SMS_LATENCY);
+    private static final GreenMail SMTP = startSmtp();
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final ObjectMapper json = new ObjectMapper();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void stubs(DynamicPropertyRegistry registry) {
+        registry.add("bulksms.api.url", SMS::url);
+        registry.add("spring.mail.port", () -> SMTP.getSmtp().getPort());
+    }
+
+    @AfterAll
+    static void stopStubs() {
+        SMS.close();
+        SMTP.stop();
+    }
+
+    @Test
+    void scenarios() throws Exception {
+        LoadRunner runner = new LoadRunner(meterRegistry);
+        List<ScenarioReport> reports = new ArrayList<>();
+        byte[] photo = photo();
+        // Numbers are unique per run (up to 10000 users), so runs can repeat against the same database
+        long firstPhone = 6_000_000_000L + (Instant.now().getEpochSecond() % 100_000) * 10_000;
+
+        // Referrers are registered first, unmeasured, so later sign-ups and clicks have codes to use.
+        // Click tracking sits behind authentication, so the flood carries the first referrer's token
+        List<String> referrerPhones = new ArrayList<>();
+        String token = null;
+        for (int i = 0; i < REFERRERS; i++) {
+            String phone = phone(firstPhone + USERS + i);
+            HttpResponse<String> response = http.send(registration(phone, photo, null).build(), HttpResponse.BodyHandlers.ofString());
+            assertThat(response.statusCode()).as(response.body()).isEqualTo(200);
+            if (token == null) {
+                token = json.readTree(response.body()).path("token").asText();
+            }
+            referrerPhones.add(phone);
+        }
+        String authorization = "Bearer " + token;
+        List<String> codes = jdbcTemplate.queryForList("SELECT referral_code FROM app_user WHERE phone IN ("
+                + String.join(",", referrerPhones.stream().map(phone -> "'" + phone + "'").toList()) + ")", String.class);
+        assertThat(codes).hasSize(REFERRERS);
+
+        reports.add(runner.run("register-with-photo", USERS, CONCURRENCY, i ->
+                register(phone(firstPhone + i), photo, i % 2 == 0 ? codes.get(i % REFERRERS) : null)));
+
+        reports.add(runner.run("otp-send", USERS, CONCURRENCY, i ->
+                post("/auth/otp/send", Map.of("phone", phone(firstPhone + i)))));
+
+        String[] otps = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            otps[i] = SMS.awaitOtp(Long.toString(firstPhone + i), Duration.ofSeconds(60));
+        }
+        reports.add(runner.run("otp-verify", USERS, CONCURRENCY, i ->
+                post("/auth/otp/verify", Map.of("phone", phone(firstPhone + i), "otp", otps[i] != null ? otps[i] : "000000"))));
+
+        reports.add(runner.run("click-flood", CLICKS, CONCURRENCY, i -> send(HttpRequest.newBuilder(
+                        uri("/referrals/track/click?source=WHATSAPP&code=" + codes.get(ThreadLocalRandom.current().nextInt(REFERRERS))))
+                .header("X-Forwarded-For", clientAddress(ThreadLocalRandom.current().nextInt(CLICK_SOURCES)))
+                .header("User-Agent", "Mozilla/5.0 (Linux; Android 14) loadtest")
+                .header("Authorization", authorization)
+                .GET())));
+
+        String[] windows = {"daily", "weekly", "monthly"};
+        reports.add(runner.run("leaderboard-poll", POLLS, CONCURRENCY, i -> send(HttpRequest.newBuilder(
+                uri("/referrals/leaderboard/" + windows[i % windows.length] + "?page=" + (i / windows.length) % 3 + "&size=20")).GET())));
+
+        System.out.println();
+        System.out.println(ScenarioReport.header());
+        reports.forEach(report -> System.out.println(report.row()));
+        System.out.printf("SMS gateway requests: %d, emails received: %d%n", SMS.requests(), SMTP.getReceivedMessages().length);
+        Files.createDirectories(REPORT.toAbsolutePath().getParent());
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("at", Instant.now().toString());
+        document.put("users", USERS);
+        document.put("concurrency", CONCURRENCY);
+        document.put("smsLatencyMillis", SMS_LATENCY.toMillis());
+        document.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        document.put("maxHeapMegabytes", Runtime.getRuntime().maxMemory() / (1024 * 1024));
+        document.put("scenarios", reports);
+        json.writerWithDefaultPrettyPrinter().writeValue(REPORT.toFile(), document);
+        System.out.println("Report written to " + REPORT.toAbsolutePath());
+
+        // Loose limits, so a broken build fails while the figures themselves stay for reading; the p99
+        // ceiling has room for photo registrations on a small machine
+        for (ScenarioReport report : reports) {
+            assertThat(report.statuses()).as(report.scenario()).doesNotContainKey(-1);
+            assertThat(report.successRate()).as("%s success rate, statuses %s", report.scenario(), report.statuses())
+                    .isGreaterThanOrEqualTo(MIN_SUCCESS);
+            assertThat(report.p99Millis()).as("%s p99 ms", report.scenario()).isLessThanOrEqualTo(MAX_P99_MILLIS);
+        }
+    }
+
+    private int register(String phone, byte[] photo, String referralCode) throws Exception {
+        return send(registration(phone, photo, referralCode));
+    }
+
+    private HttpRequest.Builder registration(String phone, byte[] photo, String referralCode) throws IOException {
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("fullName", "Load Test " + phone.substring(phone.length() - 6));
+        request.put("age", 21);
+        request.put("phone", phone);
+        request.put("email", "member" + phone.substring(1) + "@example.com");
+        request.put("whatsappNumber", phone);
+        request.put("villageTownCity", "Lucknow");
+        request.put("blockName", "Chinhat");
+        request.put("district", "Lucknow");
+        request.put("state", "Uttar Pradesh");
+        request.put("profession", "Student");
+        request.put("institutionName", "University of Lucknow");
+        request.put("institutionAddress", "University Road, Lucknow");
+        request.put("referralCode", referralCode);
+
+        String boundary = "loadtest" + Long.toHexString(ThreadLocalRandom.current().nextLong());
+        ByteArrayOutputStream body = new ByteArrayOutputStream(photo.length + 2048);
+        body.writeBytes(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"request\"\r\n"
+                + "Content-Type: application/json\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(json.writeValueAsBytes(request));
+        body.writeBytes(("\r\n--" + boundary + "\r\nContent-Disposition: form-data; name=\"photo\"; filename=\"photo.jpg\"\r\n"
+                + "Content-Type: image/jpeg\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(photo);
+        body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return HttpRequest.newBuilder(uri("/auth/otp"))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()));
+    }
+
+    private int post(String path, Map<String, String> body) throws Exception {
+        return send(HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(json.writeValueAsBytes(body))));
+    }
+
+    private int send(HttpRequest.Builder request) throws Exception {
+        return http.send(request.timeout(Duration.ofSeconds(60)).build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static String phone(long number) {
+        return "+91" + number;
+    }
+
+    private static String clientAddress(int source) {
+        return "100.64." + (source / 256) + "." + (source % 256);
+    }
+
+    // A phone-camera sized JPEG (1600x1200) with photo-like detail; the same bytes for every upload
+    private static byte[] photo() throws IOException {
+        BufferedImage image = new BufferedImage(1600, 1200, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setPaint(new GradientPaint(0, 0, new Color(0x34495e), 1600, 1200, new Color(0xe67e22)));
+        g.fillRect(0, 0, 1600, 1200);
+        Random random = new Random(7);
+        for (int i = 0; i < 300; i++) {
+            g.setColor(new Color(random.nextInt(0xffffff)));
+            g.fillOval(random.nextInt(1600), random.nextInt(1200), random.nextInt(400), random.nextInt(300));
+        }
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpeg", out);
+        return out.toByteArray();
+    }
+
+    private static GreenMail startSmtp() {
+        GreenMail greenMail = new GreenMail(new ServerSetup(0, "127.0.0.1", ServerSetup.PROTOCOL_SMTP));
+        greenMail.withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication());
+        greenMail.start();
+        return greenMail;
+    }
+}
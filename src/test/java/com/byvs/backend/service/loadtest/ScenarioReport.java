@@ -0,0 +1,48 @@
+package com.byvs.backend.service.loadtest;
+
+import java.util.Locale;
+import java.util.Map;
+
+// One scenario's figures. Heap and GC are for the whole JVM, which also runs the load generator
+record ScenarioReport(String scenario,
+                      int requests,
+                      int concurrency,
+                      double seconds,
+                      double throughput,
+                      double p50Millis,
+                      double p95Millis,
+                      double p99Millis,
+                      double maxMillis,
+                      Map<Integer, Long> statuses,
+                      long connectionAcquires,
+                      double connectionWaitMeanMillis,
+                      double connectionWaitMaxMillis,
+                      long connectionTimeouts,
+                      int pendingConnectionsPeak,
+                      int activeConnectionsPeak,
+                      long heapPeakMegabytes,
+                      long gcCount,
+                      long gcMillis) {
+
+    // 2xx and 3xx (clicks redirect to the landing page); -1, no response, counts as a failure
+    double successRate() {
+        long succeeded = statuses.entrySet().stream()
+                .filter(entry -> entry.getKey() >= 200 && entry.getKey() < 400)
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+        return requests == 0 ? 1 : (double) succeeded / requests;
+    }
+
+    static String header() {
+        return String.format(Locale.ROOT, "%-22s %7s %5s %9s %8s %8s %8s %8s  %-10s %9s %9s %5s %5s %7s %5s %7s  %s",
+                "scenario", "reqs", "conc", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "db acq", "wait avg",
+                "wait max", "pend", "act", "heap MB", "gc", "gc ms", "statuses");
+    }
+
+    String row() {
+        return String.format(Locale.ROOT, "%-22s %7d %5d %9.1f %8.1f %8.1f %8.1f %8.1f  %-10d %9.2f %9.2f %5d %5d %7d %5d %7d  %s",
+                scenario, requests, concurrency, throughput, p50Millis, p95Millis, p99Millis, maxMillis, connectionAcquires,
+                connectionWaitMeanMillis, connectionWaitMaxMillis, pendingConnectionsPeak, activeConnectionsPeak,
+                heapPeakMegabytes, gcCount, gcMillis, statuses);
+    }
+}
@@ -0,0 +1,116 @@
+package com.byvs.backend.service.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Stands in for the BulkSMS HTTP API: answers every request after a fixed latency and keeps the last
+// OTP sent to each number, so the load test can verify codes the application generated
+final class StubSmsGateway implements AutoCloseable {
+
+    private static final Pattern OTP = Pattern.compile("OTP is (\\d+)");
+    private static final byte[] SUCCESS = "{\"status\":\"success\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final ExecutorService handlers = Executors.newFixedThreadPool(4);
+    private final ScheduledExecutorService responders = Executors.newScheduledThreadPool(4);
+    private final Map<String, String> otps = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final Duration latency;
+
+    private StubSmsGateway(Duration latency) throws IOException {
+        this.latency = latency;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 4096);
+        server.createContext("/", this::handle);
+        server.setExecutor(handlers);
+        server.start();
+    }
+
+    static StubSmsGateway start(Duration latency) {
+        try {
+            return new StubSmsGateway(latency);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start the SMS gateway stub", e);
+        }
+    }
+
+    // In the form bulksms.api.url expects: parameters are appended directly
+    String url() {
+        return "http://localhost:" + server.getAddress().getPort() + "/submitsms.jsp?";
+    }
+
+    long requests() {
+        return requests.get();
+    }
+
+    // Waits for the OTP sent to a number given without its +91 prefix, as the gateway receives it
+    String awaitOtp(String mobile, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        String otp;
+        while ((otp = otps.get(mobile)) == null) {
+            if (System.nanoTime() > deadline) {
+                return null;
+            }
+            Thread.sleep(20);
+        }
+        return otp;
+    }
+
+    private void handle(HttpExchange exchange) {
+        requests.incrementAndGet();
+        String mobile = null;
+        String message = null;
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq < 0) {
+                    continue;
+                }
+                String value = URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+                switch (pair.substring(0, eq)) {
+                    case "mobile" -> mobile = value;
+                    case "message" -> message = value;
+                    default -> {
+                    }
+                }
+            }
+        }
+        if (mobile != null && message != null) {
+            Matcher matcher = OTP.matcher(message);
+            if (matcher.find()) {
+                otps.put(mobile, matcher.group(1));
+            }
+        }
+        responders.schedule(() -> {
+            try (exchange) {
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, SUCCESS.length);
+                exchange.getResponseBody().write(SUCCESS);
+            }
+            return null;
+        }, latency.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        responders.shutdownNow();
+        handlers.shutdownNow();
+    }
+}
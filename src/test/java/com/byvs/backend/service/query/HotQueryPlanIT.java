@@ -0,0 +1,260 @@
+package com.byvs.backend.service.query;
+
+import com.byvs.backend.service.datagen.SyntheticDataGenerator;
+import com.byvs.backend.service.datagen.SyntheticDataSpec;
+import com.byvs.backend.service.referral.ReferralEventRepository;
+import com.byvs.backend.service.referral.ReferralEventType;
+import com.byvs.backend.service.user.TaskRepository;
+import com.byvs.backend.service.user.UserProfileRepository;
+import com.byvs.backend.service.user.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Calls the hot referral, ranking and member repository methods, EXPLAINs the SQL they actually issued
+// (recorded through datasource-proxy, with the bound parameters) on production-shaped data and fails
+// on any sequential scan. When the database holds fewer events
+// than it.plan.events, synthetic data is added first (a one-off of a minute or so per million events).
+// mvn -Pit verify; the database is set in application-it.properties
+@SpringBootTest
+@ActiveProfiles("it")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class HotQueryPlanIT {
+
+    private static final int USERS = Integer.getInteger("it.plan.users", 100_000);
+    private static final long EVENTS = Long.getLong("it.plan.events", 1_000_000);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ReferralEventRepository referralEventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserProfileRepository userProfileRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private final ObjectMapper json = new ObjectMapper();
+    private final List<CapturedStatement> statements = new CopyOnWriteArrayList<>();
+    private volatile Thread capturing;
+    // Records what the repositories send through the same datasource-proxy chain the metrics use
+    private final QueryExecutionListener recorder = new QueryExecutionListener() {
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            if (capturing != Thread.currentThread()) {
+                return;
+            }
+            for (QueryInfo query : queryInfoList) {
+                List<List<ParameterSetOperation>> parameters = query.getParametersList();
+                statements.add(new CapturedStatement(query.getQuery(),
+                        parameters.isEmpty() ? List.of() : List.copyOf(parameters.get(0))));
+            }
+        }
+    };
+    private long referrer;
+    private long referred;
+    private long bearer;
+
+    @BeforeAll
+    void recordStatements() {
+        assertThat(dataSource).isInstanceOf(ProxyDataSource.class);
+        ((ProxyDataSource) dataSource).getProxyConfig().getQueryListener().addListener(recorder);
+    }
+
+    @AfterAll
+    void stopRecording() {
+        ((ProxyDataSource) dataSource).getProxyConfig().getQueryListener().getListeners().remove(recorder);
+    }
+
+    @BeforeAll
+    void seed() {
+        Long events = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM referral_events", Long.class);
+        if (events < EVENTS) {
+            SyntheticDataSpec spec = new SyntheticDataSpec(USERS, EVENTS - events, 1.2, 0.35, 0.6, 0.03, 4, 42);
+            long firstId = transactionTemplate.execute(status -> SyntheticDataGenerator.reserveUserIds(jdbcTemplate, USERS));
+            LocalDateTime end = LocalDateTime.now(ZoneOffset.UTC);
+            SyntheticDataGenerator generator = new SyntheticDataGenerator(jdbcTemplate, spec, firstId, end.minusDays(365), end);
+            List<Supplier<Long>> steps = List.of(generator::copyUsers, generator::copyProfiles,
+                    generator::copyReferralEvents, generator::copyOfficeBearers, generator::finish);
+            steps.forEach(step -> transactionTemplate.execute(status -> step.get()));
+        }
+        // What autovacuum does after a bulk load; index-only scans depend on the visibility map
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("VACUUM ANALYZE app_user, user_profile, referral_events, office_bearer_application, task");
+            } finally {
+                connection.setAutoCommit(false);
+            }
+            return null;
+        });
+        // The busiest members, where an index is least attractive to the planner
+        referrer = jdbcTemplate.queryForObject(
+                "SELECT id FROM app_user ORDER BY verified_referrals_count DESC, id LIMIT 1", Long.class);
+        referred = jdbcTemplate.queryForObject(
+                "SELECT referred_user_id FROM referral_events WHERE referrer_user_id = ? AND event_type = 'VERIFICATION' LIMIT 1",
+                Long.class, referrer);
+        bearer = jdbcTemplate.queryForObject("""
+                SELECT assigned_to_id FROM task GROUP BY assigned_to_id ORDER BY COUNT(*) DESC, assigned_to_id LIMIT 1
+                """, Long.class);
+    }
+
+    @Test
+    void leaderboardQueriesAvoidSequentialScans() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        Map<String, Instant[]> windows = new LinkedHashMap<>();
+        windows.put("daily", window(today, today.plusDays(1)));
+        windows.put("weekly", window(today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)),
+                today.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY)).plusDays(1)));
+        windows.put("monthly", window(today.withDayOfMonth(1), today.plusDays(1)));
+
+        Map<String, String> plans = new LinkedHashMap<>();
+        windows.forEach((name, window) -> {
+            // The page query and, when the page is full, Spring Data's count query
+            capture(plans, name + " getLeaderboardStats", () ->
+                    referralEventRepository.getLeaderboardStats(window[0], window[1], PageRequest.of(0, 20)));
+            capture(plans, name + " countReferrersByVerificationsAbove", () ->
+                    referralEventRepository.countReferrersByVerificationsAbove(window[0], window[1], 0));
+        });
+        assertNoSequentialScans(plans);
+    }
+
+    @Test
+    void memberQueriesAvoidSequentialScans() {
+        String referralCode = jdbcTemplate.queryForObject("SELECT referral_code FROM app_user WHERE id = ?", String.class, referrer);
+        Map<String, String> plans = new LinkedHashMap<>();
+        capture(plans, "countVerifiedReferrals", () -> referralEventRepository.countVerifiedReferrals(referrer));
+        capture(plans, "countByReferrerUserIdAndEventType", () ->
+                referralEventRepository.countByReferrerUserIdAndEventType(referrer, ReferralEventType.SIGNUP));
+        capture(plans, "findByReferrerUserIdOrderByOccurredAtDesc", () ->
+                referralEventRepository.findByReferrerUserIdOrderByOccurredAtDesc(referrer, PageRequest.of(0, 20)));
+        capture(plans, "existsByReferredUserIdAndEventType", () ->
+                referralEventRepository.existsByReferredUserIdAndEventType(referred, ReferralEventType.SIGNUP));
+        capture(plans, "findByReferredUserIdAndEventType", () ->
+                referralEventRepository.findByReferredUserIdAndEventType(referred, ReferralEventType.SIGNUP));
+        capture(plans, "countByVerifiedReferralsCountGreaterThan", () -> userRepository.countByVerifiedReferralsCountGreaterThan(0));
+        capture(plans, "findByReferralCode", () -> userRepository.findByReferralCode(referralCode));
+        capture(plans, "findByUserId (profile)", () -> userProfileRepository.findByUserId(referrer));
+        capture(plans, "findSummariesByAssignedToId", () -> taskRepository.findSummariesByAssignedToId(bearer));
+        assertNoSequentialScans(plans);
+    }
+
+    // Runs a repository call with empty second-level caches and adds the plan of every statement it
+    // issued, with the parameters it bound
+    private void capture(Map<String, String> plans, String name, Runnable call) {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        statements.clear();
+        capturing = Thread.currentThread();
+        try {
+            transactionTemplate.executeWithoutResult(status -> call.run());
+        } finally {
+            capturing = null;
+        }
+        assertThat(statements).as("Statements issued by " + name).isNotEmpty();
+        for (int i = 0; i < statements.size(); i++) {
+            plans.put(statements.size() == 1 ? name : name + " #" + (i + 1), explain(statements.get(i)));
+        }
+    }
+
+    private String explain(CapturedStatement statement) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + statement.sql())) {
+                for (ParameterSetOperation parameter : statement.parameters()) {
+                    parameter.getMethod().invoke(explain, parameter.getArgs());
+                }
+                try (ResultSet plan = explain.executeQuery()) {
+                    plan.next();
+                    return plan.getString(1);
+                }
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot bind the parameters of " + statement.sql(), e);
+            }
+        });
+    }
+
+    private static Instant[] window(LocalDate from, LocalDate to) {
+        return new Instant[]{from.atStartOfDay().toInstant(ZoneOffset.UTC), to.atStartOfDay().toInstant(ZoneOffset.UTC)};
+    }
+
+    private void assertNoSequentialScans(Map<String, String> plans) {
+        List<String> failures = new ArrayList<>();
+        plans.forEach((query, plan) -> {
+            List<String> scans = new ArrayList<>();
+            try {
+                collectSequentialScans(json.readTree(plan).get(0).get("Plan"), scans);
+            } catch (Exception e) {
+                throw new IllegalStateException("Unreadable plan for " + query, e);
+            }
+            if (!scans.isEmpty()) {
+                failures.add(query + " scans " + scans + ":\n" + plan);
+            }
+        });
+        assertThat(failures).as("Sequential scans in hot queries").isEmpty();
+    }
+
+    private record CapturedStatement(String sql, List<ParameterSetOperation> parameters) {
+    }
+
+    private static void collectSequentialScans(JsonNode node, List<String> scans) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())) {
+            scans.add(node.path("Relation Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectSequentialScans(child, scans);
+        }
+    }
+}
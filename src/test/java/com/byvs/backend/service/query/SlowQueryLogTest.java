@@ -0,0 +1,48 @@
+package com.byvs.backend.service.query;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlowQueryLogTest {
+
+    private final SlowQueryLog log = new SlowQueryLog(3, Duration.ofMillis(200));
+
+    @Test
+    void keepsTheNewestEntriesNewestFirst() {
+        for (int i = 1; i <= 5; i++) {
+            log.add(query(i));
+        }
+
+        assertThat(log.snapshot()).extracting(SlowQuery::elapsedMillis).containsExactly(5L, 4L, 3L);
+        assertThat(log.getTotalCaptured()).isEqualTo(5);
+    }
+
+    @Test
+    void clearResetsTheTotal() {
+        log.add(query(1));
+        log.add(query(2));
+
+        log.clear();
+        assertThat(log.snapshot()).isEmpty();
+        assertThat(log.getTotalCaptured()).isZero();
+
+        log.add(query(3));
+        assertThat(log.snapshot()).extracting(SlowQuery::elapsedMillis).containsExactly(3L);
+        assertThat(log.getTotalCaptured()).isEqualTo(1);
+    }
+
+    @Test
+    void thresholdIsInclusive() {
+        assertThat(log.isSlow(Duration.ofMillis(200).toNanos())).isTrue();
+        assertThat(log.isSlow(Duration.ofMillis(199).toNanos())).isFalse();
+    }
+
+    private static SlowQuery query(long millis) {
+        return new SlowQuery(Instant.now(), millis, "Origin.method", null, "SELECT 1", List.of(), 0, true);
+    }
+}
@@ -0,0 +1,196 @@
+package com.byvs.backend.service.query;
+
+import com.byvs.backend.service.security.JwtService;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Budgeted endpoints under the it profile's db.statement-budget.mode=FAIL: the real ones stay within
+// their budgets, and a probe endpoint fails once its statements, including those issued while its
+// body is serialised, go over.
+// mvn -Pit verify; the database is set in application-it.properties
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("it")
+@Import(StatementBudgetIT.BudgetProbeController.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StatementBudgetIT {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private final String phone = "+9174" + ThreadLocalRandom.current().nextLong(10_000_000L, 100_000_000L);
+    private Long userId;
+
+    @BeforeAll
+    void createMember() {
+        userId = transactionTemplate.execute(status -> {
+            Long id = jdbcTemplate.queryForObject("""
+                    INSERT INTO app_user (is_verified, verified_referrals_count, created_at, referral_code, phone, full_name)
+                    VALUES (true, 0, now(), ?, ?, 'Budget Member') RETURNING id
+                    """, Long.class, "S" + phone.substring(5), phone);
+            jdbcTemplate.update("""
+                    INSERT INTO user_profile (user_id, district, state, joined_at, membership_id)
+                    VALUES (?, 'Lucknow', 'Uttar Pradesh', now(), ?)
+                    """, id, "BYVS" + String.format("%08d", id));
+            return id;
+        });
+    }
+
+    @AfterAll
+    void removeMember() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM user_profile WHERE user_id = ?", userId);
+            jdbcTemplate.update("DELETE FROM app_user WHERE id = ?", userId);
+        });
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/api/office-bearer/status",
+            "/api/office-bearer/get-tasks",
+            "/api/office-bearer/approved-office-bearers?district=Lucknow",
+            "/referrals/history",
+            "/referrals/leaderboard/daily",
+            "/referrals/leaderboard/weekly",
+            "/referrals/leaderboard/monthly"
+    })
+    void memberEndpointsStayWithinTheirBudgets(String path) throws Exception {
+        HttpResponse<String> response = get(path, "USER");
+
+        assertThat(response.statusCode()).as(response.body()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Server-Timing")).isPresent();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/api/admin/office-bearer-applications",
+            "/api/admin/office-bearer-applications?approved=true&district=Lucknow",
+            "/api/admin/all-task"
+    })
+    void adminEndpointsStayWithinTheirBudgets(String path) throws Exception {
+        HttpResponse<String> response = get(path, "ADMIN");
+
+        assertThat(response.statusCode()).as(response.body()).isEqualTo(200);
+    }
+
+    @Test
+    void handlersOverBudgetFail() throws Exception {
+        assertThat(get("/budget-it/handler?statements=2", "USER").statusCode()).isEqualTo(200);
+        assertThat(get("/budget-it/handler?statements=3", "USER").statusCode()).isEqualTo(500);
+    }
+
+    @Test
+    void statementsWhileSerialisingCountToo() throws Exception {
+        HttpResponse<String> within = get("/budget-it/serialised?loads=1", "USER");
+        assertThat(within.statusCode()).isEqualTo(200);
+        assertThat(objectMapper.readTree(within.body()).path("loaded").size()).isEqualTo(1);
+        assertThat(within.headers().firstValue("Server-Timing").orElseThrow()).contains("2 statements");
+
+        assertThat(get("/budget-it/serialised?loads=2", "USER").statusCode()).isEqualTo(500);
+    }
+
+    // Streamed on an async dispatch, so the buffered body has to be released there
+    @Test
+    void streamedResponsesAreComplete() throws Exception {
+        HttpResponse<String> response = get("/api/admin/tasks/export", "ADMIN");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(objectMapper.readTree(response.body()).size())
+                .isEqualTo(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM task", Integer.class));
+    }
+
+    private HttpResponse<String> get(String path, String role) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Authorization", "Bearer " + jwtService.generate(phone, role))
+                .GET()
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @RestController
+    static class BudgetProbeController {
+
+        private final JdbcTemplate jdbcTemplate;
+
+        BudgetProbeController(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        @GetMapping("/budget-it/handler")
+        @StatementBudget(2)
+        public List<Integer> handler(@RequestParam int statements) {
+            return IntStream.range(0, statements)
+                    .mapToObj(i -> jdbcTemplate.queryForObject("SELECT ?", Integer.class, i))
+                    .toList();
+        }
+
+        @GetMapping("/budget-it/serialised")
+        @StatementBudget(2)
+        public LazyBody serialised(@RequestParam int loads) {
+            jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+            return new LazyBody(jdbcTemplate, loads);
+        }
+    }
+
+    // Queries from a getter, as a lazy association would while Jackson writes it
+    static class LazyBody {
+
+        private final JdbcTemplate jdbcTemplate;
+        private final int loads;
+
+        LazyBody(JdbcTemplate jdbcTemplate, int loads) {
+            this.jdbcTemplate = jdbcTemplate;
+            this.loads = loads;
+        }
+
+        @JsonIgnore
+        public JdbcTemplate getJdbcTemplate() {
+            return jdbcTemplate;
+        }
+
+        public List<Integer> getLoaded() {
+            return IntStream.range(0, loads)
+                    .mapToObj(i -> jdbcTemplate.queryForObject("SELECT ?", Integer.class, i))
+                    .toList();
+        }
+    }
+}
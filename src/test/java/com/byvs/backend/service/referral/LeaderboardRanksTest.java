@@ -0,0 +1,56 @@
+package com.byvs.backend.service.referral;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LeaderboardRanksTest {
+
+    @Test
+    void tiesShareARankAndTheNextRankSkips() {
+        // 10 verifications: 1 referrer, 7: 2, 3: 1, 0: 4
+        LeaderboardRanks ranks = LeaderboardRanks.of(Map.of(10L, 1L, 7L, 2L, 3L, 1L, 0L, 4L));
+
+        assertThat(ranks.rankOf(10)).isEqualTo(1);
+        assertThat(ranks.rankOf(7)).isEqualTo(2);
+        assertThat(ranks.rankOf(3)).isEqualTo(4);
+        assertThat(ranks.rankOf(0)).isEqualTo(5);
+    }
+
+    @Test
+    void countsBetweenLevelsRankAfterEveryoneAbove() {
+        LeaderboardRanks ranks = LeaderboardRanks.of(Map.of(10L, 1L, 7L, 2L, 3L, 1L));
+
+        assertThat(ranks.rankOf(12)).isEqualTo(1);
+        assertThat(ranks.rankOf(8)).isEqualTo(2);
+        assertThat(ranks.rankOf(5)).isEqualTo(4);
+        assertThat(ranks.rankOf(1)).isEqualTo(5);
+    }
+
+    @Test
+    void emptyLeaderboardRanksEveryoneFirst() {
+        assertThat(LeaderboardRanks.of(Map.of()).rankOf(0)).isEqualTo(1);
+        assertThat(LeaderboardRanks.of(Map.of()).rankOf(42)).isEqualTo(1);
+    }
+
+    @Test
+    void matchesCountingReferrersWithMoreVerifications() {
+        Map<Long, Long> referrers = new TreeMap<>();
+        for (long level = 0; level < 200; level += 3) {
+            referrers.put(level, level % 7 + 1);
+        }
+        LeaderboardRanks ranks = LeaderboardRanks.of(referrers);
+
+        for (long verifications = 0; verifications < 210; verifications++) {
+            long v = verifications;
+            long above = referrers.entrySet().stream()
+                    .filter(entry -> entry.getKey() > v)
+                    .mapToLong(Map.Entry::getValue)
+                    .sum();
+            assertThat(ranks.rankOf(v)).as("verifications %d", v).isEqualTo(above + 1);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.byvs.backend.service.replica;
+
+import com.byvs.backend.service.member.MemberViewService;
+import com.byvs.backend.service.user.User;
+import com.byvs.backend.service.user.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Routing against two independent local databases standing in for a primary and its replica: what is
+// written to the primary never shows up on the "replica", so every read shows where it was sent. Lag
+// checks run when a test calls them, so a test can put the guard in a state and keep it there.
+// mvn -Pit verify; both databases are set in application-it.properties
+@SpringBootTest(properties = {
+        "db.replica.enabled=true",
+        "db.replica.read-your-writes=PT1S",
+        "db.replica.max-lag=PT5S",
+        "db.replica.lag-check-interval=PT1H",
+        "db.replica.hikari.connection-timeout=1000"
+})
+@ActiveProfiles("it")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReplicaRoutingIT {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private TransactionTemplate readOnly;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReplicaLagGuard replicaLagGuard;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MemberViewService memberViewService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Writes straight to the replica database, as replication would
+    private JdbcTemplate replicaWriter;
+
+    @Value("${spring.datasource.url}")
+    private String primaryUrl;
+
+    @Value("${db.replica.url}")
+    private String replicaUrl;
+
+    @Value("${db.replica.username}")
+    private String replicaUser;
+
+    @Value("${db.replica.password}")
+    private String replicaPassword;
+
+    @BeforeAll
+    void prepareReplica(@Autowired PlatformTransactionManager transactionManager) {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        assertThat(replicaUrl).isNotEqualTo(primaryUrl);
+        // The replica pool is read-only, so the schema goes in over a connection of its own
+        Flyway.configure()
+                .dataSource(replicaUrl, replicaUser, replicaPassword)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+        replicaWriter = new JdbcTemplate(new DriverManagerDataSource(replicaUrl, replicaUser, replicaPassword));
+        replicaLagGuard.checkLag();
+        assertThat(replicaLagGuard.isUsable()).isTrue();
+    }
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+        replicaLagGuard.checkLag();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        String primary = jdbcTemplate.queryForObject("SELECT current_database()", String.class);
+        String read = readOnly.execute(status -> jdbcTemplate.queryForObject("SELECT current_database()", String.class));
+        assertThat(read).isNotEqualTo(primary);
+        assertThat(replicaUrl).contains("/" + read);
+        String written = transactionTemplate.execute(status ->
+                jdbcTemplate.queryForObject("SELECT current_database()", String.class));
+        assertThat(written).isEqualTo(primary);
+    }
+
+    @Test
+    void membersReadTheirOwnWritesFromThePrimary() throws InterruptedException {
+        String phone = "+9170" + ThreadLocalRandom.current().nextLong(10_000_000L, 100_000_000L);
+        signIn("+919000000001");
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update("""
+                INSERT INTO app_user (is_verified, verified_referrals_count, created_at, referral_code, phone, full_name)
+                VALUES (false, 0, now(), ?, ?, 'Replica Routing')
+                """, "R" + phone.substring(5), phone));
+        try {
+            assertThat(readsUser(phone)).isTrue();
+            signIn("+919000000002");
+            assertThat(readsUser(phone)).isFalse();
+
+            // Past read-your-writes the writer still reads from the primary while the last lag sample is
+            // older than the write, since the replica may have fallen behind since; a fresh sample lets it back
+            signIn("+919000000001");
+            Thread.sleep(1500);
+            assertThat(readsUser(phone)).isTrue();
+            replicaLagGuard.checkLag();
+            assertThat(readsUser(phone)).isFalse();
+        } finally {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.update("DELETE FROM app_user WHERE phone = ?", phone));
+        }
+    }
+
+    @Test
+    void eachPoolHasItsOwnMetrics() {
+        readOnly.execute(status -> userRepository.count());
+        for (String pool : List.of("BackendPool", "ReplicaPool")) {
+            assertThat(meterRegistry.find("hikaricp.connections").tag("pool", pool).gauge()).as(pool).isNotNull();
+        }
+        assertThat(meterRegistry.find("byvs.db.statement").tag("datasource", "replicaDataSource").timers()).isNotEmpty();
+        assertThat(meterRegistry.get("byvs.db.routed").tag("target", "replica").functionCounter().count()).isPositive();
+        assertThat(meterRegistry.get("byvs.db.replica.usable").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void readsFallBackToThePrimaryOverMaxLag() {
+        String primary = jdbcTemplate.queryForObject("SELECT current_database()", String.class);
+        assertThat(readDatabase()).isNotEqualTo(primary);
+
+        replicaLagGuard.record(6000, null);
+        assertThat(replicaLagGuard.isUsable()).isFalse();
+        assertThat(meterRegistry.get("byvs.db.replica.lag").gauge().value()).isEqualTo(6.0);
+        assertThat(readDatabase()).isEqualTo(primary);
+
+        replicaLagGuard.record(4000, null);
+        assertThat(readDatabase()).isNotEqualTo(primary);
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhileTheReplicaIsDown() {
+        String primary = jdbcTemplate.queryForObject("SELECT current_database()", String.class);
+        String replica = readDatabase();
+        assertThat(replica).isNotEqualTo(primary);
+
+        jdbcTemplate.execute("ALTER DATABASE " + replica + " ALLOW_CONNECTIONS false");
+        try {
+            jdbcTemplate.queryForList("SELECT pg_terminate_backend(pid) FROM pg_stat_activity WHERE datname = ?", replica);
+            replicaLagGuard.checkLag();
+            assertThat(replicaLagGuard.isUsable()).isFalse();
+            assertThat(meterRegistry.get("byvs.db.replica.lag").gauge().value()).isNaN();
+            assertThat(meterRegistry.get("byvs.db.replica.usable").gauge().value()).isZero();
+            assertThat(readDatabase()).isEqualTo(primary);
+        } finally {
+            jdbcTemplate.execute("ALTER DATABASE " + replica + " ALLOW_CONNECTIONS true");
+        }
+
+        replicaLagGuard.checkLag();
+        assertThat(replicaLagGuard.isUsable()).isTrue();
+        assertThat(readDatabase()).isEqualTo(replica);
+    }
+
+    // The "replica" holds an older copy of the member; after a replica read the caches must still give
+    // the primary's copy, and the old phone must not resolve to the member
+    @Test
+    void replicaReadsAreNotCached() {
+        String phone = "+9171" + ThreadLocalRandom.current().nextLong(10_000_000L, 100_000_000L);
+        String oldPhone = "+9172" + phone.substring(5);
+        String code = "C" + phone.substring(5);
+        Long id = transactionTemplate.execute(status -> jdbcTemplate.queryForObject("""
+                INSERT INTO app_user (is_verified, verified_referrals_count, created_at, referral_code, phone, full_name)
+                VALUES (true, 0, now(), ?, ?, 'Primary Name') RETURNING id
+                """, Long.class, code, phone));
+        replicaWriter.update("""
+                INSERT INTO app_user (id, is_verified, verified_referrals_count, created_at, referral_code, phone, full_name)
+                VALUES (?, true, 0, now(), ?, ?, 'Replica Name')
+                """, id, code, oldPhone);
+        replicaWriter.update("""
+                INSERT INTO member_view (user_id, verified_referrals, updated_at, phone, full_name)
+                VALUES (?, 0, now(), ?, 'Replica View')
+                """, id, oldPhone);
+        try {
+            assertThat(readOnly.execute(status -> userRepository.findById(id)).orElseThrow().getFullName())
+                    .isEqualTo("Replica Name");
+            assertThat(readOnly.execute(status -> userRepository.findByPhone(oldPhone)).orElseThrow().getFullName())
+                    .isEqualTo("Replica Name");
+            assertThat(entityManagerFactory.getCache().contains(User.class, id)).isFalse();
+
+            Optional<User> byOldPhone = transactionTemplate.execute(status -> userRepository.findByPhone(oldPhone));
+            assertThat(byOldPhone).isEmpty();
+            assertThat(transactionTemplate.execute(status -> userRepository.findById(id)).orElseThrow().getFullName())
+                    .isEqualTo("Primary Name");
+            assertThat(entityManagerFactory.getCache().contains(User.class, id)).isTrue();
+            assertThat(readOnly.execute(status -> userRepository.findById(id)).orElseThrow().getFullName())
+                    .isEqualTo("Primary Name");
+
+            assertThat(new String(memberViewService.getJson(id), StandardCharsets.UTF_8)).contains("Replica View");
+            replicaWriter.update("UPDATE member_view SET full_name = 'Replica View 2' WHERE user_id = ?", id);
+            assertThat(new String(memberViewService.getJson(id), StandardCharsets.UTF_8)).contains("Replica View 2");
+        } finally {
+            replicaWriter.update("DELETE FROM member_view WHERE user_id = ?", id);
+            replicaWriter.update("DELETE FROM app_user WHERE id = ?", id);
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update("DELETE FROM member_view WHERE user_id = ?", id);
+                jdbcTemplate.update("DELETE FROM app_user WHERE id = ?", id);
+            });
+            entityManagerFactory.getCache().evict(User.class, id);
+        }
+    }
+
+    private String readDatabase() {
+        return readOnly.execute(status -> jdbcTemplate.queryForObject("SELECT current_database()", String.class));
+    }
+
+    private boolean readsUser(String phone) {
+        return Boolean.TRUE.equals(readOnly.execute(status -> userRepository.existsByPhone(phone)));
+    }
+
+    private static void signIn(String phone) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(phone, null, List.of()));
+    }
+}
@@ -0,0 +1,89 @@
+package com.byvs.backend.service.sms;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+class BullSmsServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HttpServer gateway;
+    private volatile String answer;
+    private BullSmsService smsService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        gateway = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        gateway.createContext("/", exchange -> {
+            byte[] body = answer.getBytes(StandardCharsets.UTF_8);
+            try (exchange) {
+                exchange.sendResponseHeaders(200, body.length == 0 ? -1 : body.length);
+                exchange.getResponseBody().write(body);
+            }
+        });
+        gateway.start();
+        smsService = service("test");
+        ReflectionTestUtils.setField(smsService, "apiUrl", "http://localhost:" + gateway.getAddress().getPort() + "/submitsms.jsp?");
+        for (String field : new String[]{"user", "key", "senderId", "accUsage", "entityId", "tempId"}) {
+            ReflectionTestUtils.setField(smsService, field, "test");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        gateway.stop(0);
+    }
+
+    @Test
+    void acceptedSendsReturnTheGatewayAnswer() {
+        answer = "{\"status\":\"success\"}";
+        assertThat(smsService.sendBulkSms(List.of("+919000000001", "9000000002"), "Meeting at 5 & 6")).isEqualTo(answer);
+        assertThat(gatewayCalls("success")).isEqualTo(1);
+    }
+
+    @Test
+    void errorAnswersWithStatus200AreFailures() {
+        for (String rejection : new String[]{"ERROR: Invalid Template ID", "Insufficient credits", ""}) {
+            answer = rejection;
+            assertThatIllegalStateException()
+                    .isThrownBy(() -> smsService.sendBulkSms(List.of("+919000000001"), "Hello"))
+                    .withMessageContaining("BulkSMS rejected");
+        }
+        assertThat(gatewayCalls("failure")).isEqualTo(3);
+        assertThat(gatewayCalls("success")).isZero();
+    }
+
+    @Test
+    void announcementsNeedTheirOwnTemplate() {
+        answer = "{\"status\":\"success\"}";
+        smsService = service("");
+        ReflectionTestUtils.setField(smsService, "apiUrl", "http://localhost:" + gateway.getAddress().getPort() + "/submitsms.jsp?");
+        ReflectionTestUtils.setField(smsService, "tempId", "otp");
+
+        assertThat(smsService.isAnnouncementEnabled()).isFalse();
+        assertThatIllegalStateException()
+                .isThrownBy(() -> smsService.sendBulkSms(List.of("+919000000001"), "Hello"))
+                .withMessageContaining("bulksms.announcement.temp.id");
+        assertThat(gatewayCalls("success") + gatewayCalls("failure")).isZero();
+    }
+
+    private BullSmsService service(String announcementTempId) {
+        return new BullSmsService(meterRegistry, "(?i)error|fail|invalid|insufficient|denied", announcementTempId);
+    }
+
+    private long gatewayCalls(String outcome) {
+        return meterRegistry.get("byvs.sms.gateway").tag("operation", "bulk").tag("outcome", outcome).timer().count();
+    }
+}
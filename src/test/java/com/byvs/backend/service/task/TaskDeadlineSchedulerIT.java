@@ -0,0 +1,90 @@
+package com.byvs.backend.service.task;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+// Reminders against PostgreSQL: the day reminder of a task due in a day and a few seconds fires within
+// those seconds. Refreshes are triggered by the test, and so is a first start without a watermark.
+// mvn -Pit verify; the database is set in application-it.properties
+@SpringBootTest(properties = {
+        "task.deadlines.tick=PT0.2S",
+        "task.deadlines.refresh-interval=PT1H"
+})
+@ActiveProfiles("it")
+class TaskDeadlineSchedulerIT {
+
+    @Autowired
+    private TaskDeadlineScheduler scheduler;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final String title = "Deadline IT " + UUID.randomUUID();
+
+    @AfterEach
+    void removeTasks() {
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.update("DELETE FROM task WHERE title = ?", title));
+    }
+
+    @Test
+    void remindsTasksCreatedAfterTheirDeadlineFired() {
+        LocalDateTime deadline = LocalDateTime.now().plusDays(1).plusSeconds(2).truncatedTo(ChronoUnit.MILLIS);
+        long first = createTask(deadline);
+        scheduler.refresh();
+        awaitReminder(first);
+
+        // Same deadline, whose timer has already fired
+        long second = createTask(deadline);
+        scheduler.refresh();
+        awaitReminder(second);
+    }
+
+    @Test
+    void firstStartExpiresTasksAlreadyOverdue() {
+        long overdue = createTask(LocalDateTime.now().minusDays(3).truncatedTo(ChronoUnit.MILLIS));
+        long open = createTask(LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.MILLIS));
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.update("DELETE FROM task_deadline_watermark WHERE name = 'task-deadlines'"));
+
+        scheduler.start();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT expired_at FROM task WHERE id = ?", LocalDateTime.class, overdue))
+                .isNotNull();
+        assertThat(jdbcTemplate.queryForObject("SELECT expired_at FROM task WHERE id = ?", LocalDateTime.class, open))
+                .isNull();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM task_deadline_watermark WHERE name = 'task-deadlines'", Integer.class))
+                .isEqualTo(1);
+    }
+
+    private void awaitReminder(long taskId) {
+        await().atMost(Duration.ofSeconds(10)).pollInterval(Duration.ofMillis(200)).until(() ->
+                jdbcTemplate.queryForObject("SELECT day_reminder_sent_at FROM task WHERE id = ?",
+                        LocalDateTime.class, taskId) != null);
+    }
+
+    private long createTask(LocalDateTime deadline) {
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("""
+                INSERT INTO task (completed, reward_coins, assigned_by_id, assigned_to_id, created_at, deadline, title)
+                SELECT false, 5, id, id, now(), ?, ? FROM app_user ORDER BY id LIMIT 1
+                RETURNING id
+                """, Long.class, deadline, title));
+    }
+}
@@ -0,0 +1,117 @@
+package com.byvs.backend.service.task;
+
+import com.byvs.backend.service.datagen.SyntheticDataGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+// Fans a task out to every member of one large district (it.fanout.members, 100k by default) and checks
+// that each member gets exactly one task at no less than it.fanout.min-rate tasks per second. The
+// district's members are added once and kept for later runs; the tasks are removed afterwards.
+// mvn -Pit verify; the database is set in application-it.properties
+@SpringBootTest
+@ActiveProfiles("it")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Slf4j
+class TaskFanOutIT {
+
+    private static final String DISTRICT = "FanOutIT";
+    private static final int MEMBERS = Integer.getInteger("it.fanout.members", 100_000);
+    private static final long MIN_RATE = Long.getLong("it.fanout.min-rate", 5_000);
+
+    @Autowired
+    private TaskFanOutService taskFanOutService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final String title = "Fan-out IT " + UUID.randomUUID();
+    private long assignedById;
+
+    @BeforeAll
+    void seedDistrict() {
+        Long members = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM user_profile WHERE district = ?", Long.class, DISTRICT);
+        if (members != MEMBERS) {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update("DELETE FROM task WHERE assigned_to_id IN "
+                        + "(SELECT user_id FROM user_profile WHERE district = ?)", DISTRICT);
+                jdbcTemplate.update("DELETE FROM app_user WHERE id IN "
+                        + "(SELECT user_id FROM user_profile WHERE district = ?)", DISTRICT);
+                jdbcTemplate.update("DELETE FROM user_profile WHERE district = ?", DISTRICT);
+                long firstId = SyntheticDataGenerator.reserveUserIds(jdbcTemplate, MEMBERS);
+                jdbcTemplate.update("""
+                        INSERT INTO app_user (id, is_verified, verified_referrals_count, created_at, referral_code, phone, full_name)
+                        SELECT ? + n - 1, true, 0, now(), 'FOIT' || n, '+913' || lpad(n::text, 9, '0'), 'Fan-out member ' || n
+                        FROM generate_series(1, ?) n
+                        """, firstId, MEMBERS);
+                jdbcTemplate.update("""
+                        INSERT INTO user_profile (user_id, district, state, joined_at, membership_id)
+                        SELECT ? + n - 1, ?, 'Uttar Pradesh', now(), 'BYVS' || lpad((? + n - 1)::text, 8, '0')
+                        FROM generate_series(1, ?) n
+                        """, firstId, DISTRICT, firstId, MEMBERS);
+            });
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("VACUUM ANALYZE app_user, user_profile");
+                } finally {
+                    connection.setAutoCommit(false);
+                }
+                return null;
+            });
+        }
+        assignedById = jdbcTemplate.queryForObject(
+                "SELECT MIN(user_id) FROM user_profile WHERE district = ?", Long.class, DISTRICT);
+    }
+
+    @AfterAll
+    void removeTasks() {
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.update("DELETE FROM task WHERE title = ?", title));
+    }
+
+    @Test
+    void fansOutToALargeDistrict() {
+        TaskFanOutRequest request = new TaskFanOutRequest(title, "Throughput check", 5,
+                LocalDateTime.now().plusDays(30), TaskFanOutTarget.MEMBER, DISTRICT, null);
+        JobExecution launched = taskFanOutService.launch(request, assignedById);
+        await().atMost(Duration.ofMinutes(5)).pollInterval(Duration.ofMillis(500)).until(() ->
+                !taskFanOutService.find(launched.getId()).orElseThrow().isRunning());
+
+        JobExecution execution = taskFanOutService.find(launched.getId()).orElseThrow();
+        Map<String, Object> status = taskFanOutService.describe(execution);
+        log.info("Fan-out to {} members: {}", MEMBERS, status);
+        assertThat(execution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(status).containsEntry("exitCode", ExitStatus.COMPLETED.getExitCode());
+        assertThat(status).containsEntry("tasksCreated", (long) MEMBERS);
+        assertThat(jdbcTemplate.queryForMap(
+                "SELECT COUNT(*) AS tasks, COUNT(DISTINCT assigned_to_id) AS assignees FROM task WHERE title = ?", title))
+                .containsEntry("tasks", (long) MEMBERS)
+                .containsEntry("assignees", (long) MEMBERS);
+        assertThat((Long) status.get("tasksPerSecond")).isGreaterThanOrEqualTo(MIN_RATE);
+    }
+}
@@ -0,0 +1,96 @@
+package com.byvs.backend.service.user;
+
+import com.byvs.backend.service.member.MemberViewService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// mvn -Pit verify; the database is set in application-it.properties
+@SpringBootTest
+@ActiveProfiles("it")
+class LastLoginWriteBehindIT {
+
+    @Autowired
+    private LastLoginWriteBehind lastLoginWriteBehind;
+
+    @Autowired
+    private MemberViewService memberViewService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long userId;
+
+    @BeforeEach
+    void createUser() {
+        String phone = "+9171" + ThreadLocalRandom.current().nextLong(10_000_000L, 100_000_000L);
+        userId = transactionTemplate.execute(status -> jdbcTemplate.queryForObject("""
+                INSERT INTO app_user (is_verified, verified_referrals_count, created_at, referral_code, phone, full_name,
+                                      last_login_at)
+                VALUES (true, 0, now(), ?, ?, 'Last Login', now() - interval '1 day')
+                RETURNING id
+                """, Long.class, "L" + phone.substring(5), phone));
+    }
+
+    @AfterEach
+    void deleteUser() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM member_view WHERE user_id = ?", userId);
+            jdbcTemplate.update("DELETE FROM app_user WHERE id = ?", userId);
+        });
+    }
+
+    @Test
+    void flushInvalidatesTheServedMemberView() throws Exception {
+        Instant before = lastLogin(memberViewService.getJson(userId));
+
+        Instant login = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        lastLoginWriteBehind.record(userId, login);
+        lastLoginWriteBehind.flush();
+
+        assertThat(before).isBefore(login);
+        assertThat(lastLogin(memberViewService.getJson(userId))).isEqualTo(login);
+    }
+
+    @Test
+    void refreshDoesNotMoveTheLastLoginBack() {
+        memberViewService.getJson(userId);
+        // Puts the pre-login User in the second-level cache, which a flush leaves alone
+        transactionTemplate.executeWithoutResult(status -> userRepository.findById(userId).orElseThrow());
+
+        Instant login = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        lastLoginWriteBehind.record(userId, login);
+        lastLoginWriteBehind.flush();
+        memberViewService.refresh(userId);
+
+        Timestamp stored = jdbcTemplate.queryForObject(
+                "SELECT last_login_at FROM member_view WHERE user_id = ?", Timestamp.class, userId);
+        assertThat(stored.toInstant()).isEqualTo(login);
+    }
+
+    private Instant lastLogin(byte[] json) throws Exception {
+        return Instant.parse(objectMapper.readTree(json).get("lastLogin").asText());
+    }
+}
@@ -0,0 +1,158 @@
+package com.byvs.backend.service.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HierarchicalTimingWheelTest {
+
+    // One millisecond ticks: level 0 spans 64 ticks, level 1 4096, level 2 262144
+    private final HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1, 3, 0);
+    private final List<String> fired = new ArrayList<>();
+
+    @Test
+    void firesInTickOrder() {
+        wheel.add(30, "c", fired::add);
+        wheel.add(10, "a", fired::add);
+        wheel.add(20, "b", fired::add);
+
+        wheel.advanceTo(19, fired::add);
+        assertThat(fired).containsExactly("a");
+        wheel.advanceTo(30, fired::add);
+        assertThat(fired).containsExactly("a", "b", "c");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void timersAtOrBeforeNowFireOnAdd() {
+        wheel.advanceTo(100, fired::add);
+        wheel.add(100, "now", fired::add);
+        wheel.add(5, "past", fired::add);
+
+        assertThat(fired).containsExactly("now", "past");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void higherLevelsCascadeDownAndFireOnTheirTick() {
+        long second = 64;
+        long third = 64 * 64 + 5;
+        wheel.add(second, "level 1", fired::add);
+        wheel.add(third, "level 2", fired::add);
+
+        wheel.advanceTo(second - 1, fired::add);
+        assertThat(fired).isEmpty();
+        wheel.advanceTo(second, fired::add);
+        assertThat(fired).containsExactly("level 1");
+
+        wheel.advanceTo(third - 1, fired::add);
+        assertThat(fired).containsExactly("level 1");
+        wheel.advanceTo(third, fired::add);
+        assertThat(fired).containsExactly("level 1", "level 2");
+    }
+
+    @Test
+    void timersBeyondTheTopLevelWaitInTheOverflowSlot() {
+        HierarchicalTimingWheel<String> small = new HierarchicalTimingWheel<>(1, 2, 0);
+        long far = 3 * 4096 + 17;
+        small.add(far, "far", fired::add);
+        small.add(4096 + 1, "near", fired::add);
+
+        small.advanceTo(far - 1, fired::add);
+        assertThat(fired).containsExactly("near");
+        assertThat(small.size()).isEqualTo(1);
+        small.advanceTo(far, fired::add);
+        assertThat(fired).containsExactly("near", "far");
+        assertThat(small.size()).isZero();
+    }
+
+    @Test
+    void cancelledTimersNeverFire() {
+        HierarchicalTimingWheel.Timer<String> near = wheel.add(10, "near", fired::add);
+        HierarchicalTimingWheel.Timer<String> far = wheel.add(5000, "far", fired::add);
+        wheel.add(20, "kept", fired::add);
+
+        assertThat(wheel.cancel(near)).isTrue();
+        assertThat(wheel.cancel(far)).isTrue();
+        assertThat(wheel.cancel(near)).isFalse();
+        assertThat(wheel.size()).isEqualTo(1);
+
+        wheel.advanceTo(10_000, fired::add);
+        assertThat(fired).containsExactly("kept");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void firedTimersCannotBeCancelled() {
+        HierarchicalTimingWheel.Timer<String> timer = wheel.add(10, "a", fired::add);
+        wheel.advanceTo(10, fired::add);
+
+        assertThat(wheel.cancel(timer)).isFalse();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void rescheduledTimersFireAtTheirNewTime() {
+        HierarchicalTimingWheel.Timer<String> timer = wheel.add(5000, "task", fired::add);
+        wheel.advanceTo(100, fired::add);
+
+        wheel.cancel(timer);
+        wheel.add(200, timer.item(), fired::add);
+        wheel.advanceTo(199, fired::add);
+        assertThat(fired).isEmpty();
+        wheel.advanceTo(200, fired::add);
+        assertThat(fired).containsExactly("task");
+
+        wheel.advanceTo(6000, fired::add);
+        assertThat(fired).containsExactly("task");
+    }
+
+    @Test
+    void ticksLongerThanAMillisecondRoundUp() {
+        HierarchicalTimingWheel<String> seconds = new HierarchicalTimingWheel<>(1000, 3, 10_500);
+        seconds.add(12_001, "a", fired::add);
+
+        seconds.advanceTo(12_999, fired::add);
+        assertThat(fired).isEmpty();
+        seconds.advanceTo(13_000, fired::add);
+        assertThat(fired).containsExactly("a");
+        assertThat(seconds.currentTimeMillis()).isEqualTo(13_000);
+    }
+
+    @Test
+    void everyTimerFiresInTheAdvanceThatReachesIt() {
+        Random random = new Random(42);
+        HierarchicalTimingWheel<Integer> timers = new HierarchicalTimingWheel<>(1, 3, 0);
+        long[] fireAt = new long[20_000];
+        long[] firedBetween = new long[fireAt.length * 2];
+        for (int i = 0; i < fireAt.length; i++) {
+            // Skewed towards the near future, reaching well past the second level
+            fireAt[i] = 1 + (long) (random.nextDouble() * random.nextDouble() * 1_000_000);
+            timers.add(fireAt[i], i, id -> { });
+        }
+        long now = 0;
+        while (timers.size() > 0) {
+            long from = now;
+            long to = now + 1 + random.nextInt(5_000);
+            timers.advanceTo(to, id -> {
+                firedBetween[id * 2] = from;
+                firedBetween[id * 2 + 1] = to;
+            });
+            now = to;
+        }
+        for (int i = 0; i < fireAt.length; i++) {
+            assertThat(fireAt[i]).as("timer %d", i).isGreaterThan(firedBetween[i * 2]).isLessThanOrEqualTo(firedBetween[i * 2 + 1]);
+        }
+    }
+
+    @Test
+    void rejectsInvalidConfiguration() {
+        assertThatThrownBy(() -> new HierarchicalTimingWheel<>(0, 3, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HierarchicalTimingWheel<>(1, 9, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
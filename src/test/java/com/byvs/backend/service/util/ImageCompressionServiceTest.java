@@ -0,0 +1,71 @@
+package com.byvs.backend.service.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageCompressionServiceTest {
+
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void readsTheUploadOnTheCallingThread() throws IOException {
+        executor.setCorePoolSize(1);
+        executor.initialize();
+        ImageCompressionService service = new ImageCompressionService(executor, Duration.ofSeconds(10), new SimpleMeterRegistry());
+        RecordingFile file = new RecordingFile(png(1600, 1200));
+
+        byte[] compressed = service.compress(file, 0.7f, 800, 600);
+
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(compressed));
+        assertThat(image.getWidth()).isEqualTo(800);
+        assertThat(image.getHeight()).isEqualTo(600);
+        assertThat(file.readers).containsExactly(Thread.currentThread().getName());
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+
+    private static final class RecordingFile extends MockMultipartFile {
+
+        private final Set<String> readers = ConcurrentHashMap.newKeySet();
+
+        RecordingFile(byte[] content) {
+            super("photo", "photo.png", "image/png", content);
+        }
+
+        @Override
+        public byte[] getBytes() throws IOException {
+            readers.add(Thread.currentThread().getName());
+            return super.getBytes();
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            readers.add(Thread.currentThread().getName());
+            return super.getInputStream();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.byvs.backend.service.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class TokenBucketTest {
+
+    @Test
+    void burstsUpToCapacityWithoutWaiting() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(50, 10);
+        long start = System.nanoTime();
+        bucket.acquire(20);
+        bucket.acquire(30);
+        assertThat(elapsedMillis(start)).isLessThan(50);
+    }
+
+    @Test
+    void holdsCallersToTheRateOnceEmpty() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(10, 100);
+        bucket.acquire(10);
+        long start = System.nanoTime();
+        bucket.acquire(20);
+        // 20 permits at 100 per second
+        assertThat(elapsedMillis(start)).isBetween(180L, 600L);
+    }
+
+    @Test
+    void takesRequestsLargerThanCapacityInPieces() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(5, 100);
+        long start = System.nanoTime();
+        bucket.acquire(25);
+        // The first 5 come from the full bucket, the other 20 at 100 per second
+        assertThat(elapsedMillis(start)).isBetween(180L, 600L);
+    }
+
+    @Test
+    void refillsNoFurtherThanCapacity() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(5, 1000);
+        bucket.acquire(5);
+        Thread.sleep(50);
+        long start = System.nanoTime();
+        bucket.acquire(5);
+        assertThat(elapsedMillis(start)).isLessThan(5);
+        bucket.acquire(5);
+        assertThat(elapsedMillis(start)).isGreaterThanOrEqualTo(4);
+    }
+
+    @Test
+    void rejectsNonPositiveSettings() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new TokenBucket(0, 10));
+        assertThatIllegalArgumentException().isThrownBy(() -> new TokenBucket(10, 0));
+    }
+
+    private static long elapsedMillis(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+}